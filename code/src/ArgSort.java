@@ -0,0 +1,611 @@
+import java.util.Comparator;
+
+/**
+ * Argument sorts, which find the order that would sort an array of keys without moving the keys
+ * themselves. The result is a permutation of indices into the keys, so one sort can be used to
+ * reorder any number of parallel arrays, and wide elements are never copied. Stable orders are
+ * found by merge sort and unstable ones by quick sort; both rearrange an index array directly,
+ * reading keys through it without boxing primitive keys.
+ */
+final class ArgSort {
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private ArgSort() {}
+
+    /**
+     * Finds a stable sorted order of the given objects using merge sort. Keys which are equal keep
+     * their original relative order.
+     *
+     * @param keys The objects to order, which are left unmodified
+     * @param comparator The ordering of the keys
+     * @param <T> Type of key being ordered.
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static <T> int[] mergeSort(T[] keys, Comparator<? super T> comparator) {
+        int[] indices = identity(keys.length);
+        mergeSort(keys, indices.clone(), indices, 0, keys.length - 1, comparator);
+        return indices;
+    }
+
+    /**
+     * Recursively splits the given range of indices into halves, orders each half, and merges
+     * the halves, alternating the roles of the two index arrays at each level.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array the halves are merged from
+     * @param destination The index array the ordered range is written to
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param comparator The ordering of the keys
+     * @param <T> Type of key being ordered.
+     */
+    static <T> void mergeSort(T[] keys, int[] source, int[] destination, int left,
+            int right, Comparator<? super T> comparator) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(keys, destination, source, left, midPoint, comparator);
+            mergeSort(keys, destination, source, midPoint + 1, right, comparator);
+            merge(keys, source, destination, left, midPoint, right, comparator);
+        }
+    }
+
+    /**
+     * Merges two ordered runs of indices from the source array into the same range of the
+     * destination array, taking from the first run whenever the keys are equal.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array holding both ordered runs
+     * @param destination The index array to write the merged range to
+     * @param left The left-most position of the first run
+     * @param midPoint The last position of the first run
+     * @param right The right-most position of the second run
+     * @param comparator The ordering of the keys
+     * @param <T> Type of key being ordered.
+     */
+    private static <T> void merge(T[] keys, int[] source, int[] destination, int left,
+            int midPoint, int right, Comparator<? super T> comparator) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = left;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (comparator.compare(keys[source[secondPosition]], keys[source[firstPosition]]) < 0) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Finds a sorted order of the given objects using quick sort. Keys which are equal may appear
+     * in any relative order.
+     *
+     * @param keys The objects to order, which are left unmodified
+     * @param comparator The ordering of the keys
+     * @param <T> Type of key being ordered.
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static <T> int[] quickSort(T[] keys, Comparator<? super T> comparator) {
+        int[] indices = identity(keys.length);
+        quickSort(keys, indices, 0, keys.length - 1, comparator);
+        return indices;
+    }
+
+    /**
+     * Orders the given range of indices by partitioning around the key of its middle index. The
+     * smaller part is ordered recursively and the larger part by looping, so the recursion depth
+     * stays logarithmic.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param comparator The ordering of the keys
+     * @param <T> Type of key being ordered.
+     */
+    private static <T> void quickSort(T[] keys, int[] indices, int left, int right,
+            Comparator<? super T> comparator) {
+        while (left < right) {
+            int newBound = partition(keys, indices, left, right, comparator);
+            if (newBound - left < right - newBound) {
+                quickSort(keys, indices, left, newBound, comparator);
+                left = newBound + 1;
+            } else {
+                quickSort(keys, indices, newBound + 1, right, comparator);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Partitions the given range of indices around the key of its middle index.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param comparator The ordering of the keys
+     * @param <T> Type of key being ordered.
+     * @return The last position of the left part
+     */
+    private static <T> int partition(T[] keys, int[] indices, int left, int right,
+            Comparator<? super T> comparator) {
+        T pivot = keys[indices[(left + right) >>> 1]];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (comparator.compare(pivot, keys[indices[currentRight]]) < 0);
+
+            do {
+                currentLeft++;
+            } while (comparator.compare(keys[indices[currentLeft]], pivot) < 0);
+
+            if (currentLeft < currentRight) {
+                int tempSwap = indices[currentLeft];
+                indices[currentLeft] = indices[currentRight];
+                indices[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Finds a stable sorted order of the given integers using merge sort. Keys which are equal keep
+     * their original relative order.
+     *
+     * @param keys The integers to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered descending
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] mergeSort(int[] keys, boolean reversed) {
+        int[] indices = identity(keys.length);
+        mergeSort(keys, indices.clone(), indices, 0, keys.length - 1, reversed);
+        return indices;
+    }
+
+    /**
+     * Recursively splits the given range of indices into halves, orders each half, and merges
+     * the halves, alternating the roles of the two index arrays at each level.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array the halves are merged from
+     * @param destination The index array the ordered range is written to
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     */
+    static void mergeSort(int[] keys, int[] source, int[] destination, int left,
+            int right, boolean reversed) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(keys, destination, source, left, midPoint, reversed);
+            mergeSort(keys, destination, source, midPoint + 1, right, reversed);
+            merge(keys, source, destination, left, midPoint, right, reversed);
+        }
+    }
+
+    /**
+     * Merges two ordered runs of indices from the source array into the same range of the
+     * destination array, taking from the first run whenever the keys are equal.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array holding both ordered runs
+     * @param destination The index array to write the merged range to
+     * @param left The left-most position of the first run
+     * @param midPoint The last position of the first run
+     * @param right The right-most position of the second run
+     * @param reversed Whether the keys should be ordered descending
+     */
+    private static void merge(int[] keys, int[] source, int[] destination, int left,
+            int midPoint, int right, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = left;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (SortingAlgorithms.precedes(keys[source[secondPosition]],
+                    keys[source[firstPosition]], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Finds a sorted order of the given integers using quick sort. Keys which are equal may appear
+     * in any relative order.
+     *
+     * @param keys The integers to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered descending
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] quickSort(int[] keys, boolean reversed) {
+        int[] indices = identity(keys.length);
+        quickSort(keys, indices, 0, keys.length - 1, reversed);
+        return indices;
+    }
+
+    /**
+     * Orders the given range of indices by partitioning around the key of its middle index. The
+     * smaller part is ordered recursively and the larger part by looping, so the recursion depth
+     * stays logarithmic.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     */
+    private static void quickSort(int[] keys, int[] indices, int left, int right,
+            boolean reversed) {
+        while (left < right) {
+            int newBound = partition(keys, indices, left, right, reversed);
+            if (newBound - left < right - newBound) {
+                quickSort(keys, indices, left, newBound, reversed);
+                left = newBound + 1;
+            } else {
+                quickSort(keys, indices, newBound + 1, right, reversed);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Partitions the given range of indices around the key of its middle index.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     * @return The last position of the left part
+     */
+    private static int partition(int[] keys, int[] indices, int left, int right,
+            boolean reversed) {
+        int pivot = keys[indices[(left + right) >>> 1]];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (SortingAlgorithms.precedes(pivot, keys[indices[currentRight]], reversed));
+
+            do {
+                currentLeft++;
+            } while (SortingAlgorithms.precedes(keys[indices[currentLeft]], pivot, reversed));
+
+            if (currentLeft < currentRight) {
+                int tempSwap = indices[currentLeft];
+                indices[currentLeft] = indices[currentRight];
+                indices[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Finds a stable sorted order of the given longs using merge sort. Keys which are equal keep
+     * their original relative order.
+     *
+     * @param keys The longs to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered descending
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] mergeSort(long[] keys, boolean reversed) {
+        int[] indices = identity(keys.length);
+        mergeSort(keys, indices.clone(), indices, 0, keys.length - 1, reversed);
+        return indices;
+    }
+
+    /**
+     * Recursively splits the given range of indices into halves, orders each half, and merges
+     * the halves, alternating the roles of the two index arrays at each level.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array the halves are merged from
+     * @param destination The index array the ordered range is written to
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     */
+    static void mergeSort(long[] keys, int[] source, int[] destination, int left,
+            int right, boolean reversed) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(keys, destination, source, left, midPoint, reversed);
+            mergeSort(keys, destination, source, midPoint + 1, right, reversed);
+            merge(keys, source, destination, left, midPoint, right, reversed);
+        }
+    }
+
+    /**
+     * Merges two ordered runs of indices from the source array into the same range of the
+     * destination array, taking from the first run whenever the keys are equal.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array holding both ordered runs
+     * @param destination The index array to write the merged range to
+     * @param left The left-most position of the first run
+     * @param midPoint The last position of the first run
+     * @param right The right-most position of the second run
+     * @param reversed Whether the keys should be ordered descending
+     */
+    private static void merge(long[] keys, int[] source, int[] destination, int left,
+            int midPoint, int right, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = left;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (SortingAlgorithms.precedes(keys[source[secondPosition]],
+                    keys[source[firstPosition]], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Finds a sorted order of the given longs using quick sort. Keys which are equal may appear
+     * in any relative order.
+     *
+     * @param keys The longs to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered descending
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] quickSort(long[] keys, boolean reversed) {
+        int[] indices = identity(keys.length);
+        quickSort(keys, indices, 0, keys.length - 1, reversed);
+        return indices;
+    }
+
+    /**
+     * Orders the given range of indices by partitioning around the key of its middle index. The
+     * smaller part is ordered recursively and the larger part by looping, so the recursion depth
+     * stays logarithmic.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     */
+    private static void quickSort(long[] keys, int[] indices, int left, int right,
+            boolean reversed) {
+        while (left < right) {
+            int newBound = partition(keys, indices, left, right, reversed);
+            if (newBound - left < right - newBound) {
+                quickSort(keys, indices, left, newBound, reversed);
+                left = newBound + 1;
+            } else {
+                quickSort(keys, indices, newBound + 1, right, reversed);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Partitions the given range of indices around the key of its middle index.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     * @return The last position of the left part
+     */
+    private static int partition(long[] keys, int[] indices, int left, int right,
+            boolean reversed) {
+        long pivot = keys[indices[(left + right) >>> 1]];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (SortingAlgorithms.precedes(pivot, keys[indices[currentRight]], reversed));
+
+            do {
+                currentLeft++;
+            } while (SortingAlgorithms.precedes(keys[indices[currentLeft]], pivot, reversed));
+
+            if (currentLeft < currentRight) {
+                int tempSwap = indices[currentLeft];
+                indices[currentLeft] = indices[currentRight];
+                indices[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Finds a stable sorted order of the given doubles using merge sort. Keys which are equal keep
+     * their original relative order.
+     *
+     * @param keys The doubles to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered descending
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] mergeSort(double[] keys, boolean reversed) {
+        int[] indices = identity(keys.length);
+        mergeSort(keys, indices.clone(), indices, 0, keys.length - 1, reversed);
+        return indices;
+    }
+
+    /**
+     * Recursively splits the given range of indices into halves, orders each half, and merges
+     * the halves, alternating the roles of the two index arrays at each level.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array the halves are merged from
+     * @param destination The index array the ordered range is written to
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     */
+    static void mergeSort(double[] keys, int[] source, int[] destination, int left,
+            int right, boolean reversed) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(keys, destination, source, left, midPoint, reversed);
+            mergeSort(keys, destination, source, midPoint + 1, right, reversed);
+            merge(keys, source, destination, left, midPoint, right, reversed);
+        }
+    }
+
+    /**
+     * Merges two ordered runs of indices from the source array into the same range of the
+     * destination array, taking from the first run whenever the keys are equal.
+     *
+     * @param keys The keys being ordered
+     * @param source The index array holding both ordered runs
+     * @param destination The index array to write the merged range to
+     * @param left The left-most position of the first run
+     * @param midPoint The last position of the first run
+     * @param right The right-most position of the second run
+     * @param reversed Whether the keys should be ordered descending
+     */
+    private static void merge(double[] keys, int[] source, int[] destination, int left,
+            int midPoint, int right, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = left;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (SortingAlgorithms.precedes(keys[source[secondPosition]],
+                    keys[source[firstPosition]], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Finds a sorted order of the given doubles using quick sort. Keys which are equal may appear
+     * in any relative order.
+     *
+     * @param keys The doubles to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered descending
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] quickSort(double[] keys, boolean reversed) {
+        int[] indices = identity(keys.length);
+        quickSort(keys, indices, 0, keys.length - 1, reversed);
+        return indices;
+    }
+
+    /**
+     * Orders the given range of indices by partitioning around the key of its middle index. The
+     * smaller part is ordered recursively and the larger part by looping, so the recursion depth
+     * stays logarithmic.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     */
+    private static void quickSort(double[] keys, int[] indices, int left, int right,
+            boolean reversed) {
+        while (left < right) {
+            int newBound = partition(keys, indices, left, right, reversed);
+            if (newBound - left < right - newBound) {
+                quickSort(keys, indices, left, newBound, reversed);
+                left = newBound + 1;
+            } else {
+                quickSort(keys, indices, newBound + 1, right, reversed);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Partitions the given range of indices around the key of its middle index.
+     *
+     * @param keys The keys being ordered
+     * @param indices The indices to rearrange
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     * @param reversed Whether the keys should be ordered descending
+     * @return The last position of the left part
+     */
+    private static int partition(double[] keys, int[] indices, int left, int right,
+            boolean reversed) {
+        double pivot = keys[indices[(left + right) >>> 1]];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (SortingAlgorithms.precedes(pivot, keys[indices[currentRight]], reversed));
+
+            do {
+                currentLeft++;
+            } while (SortingAlgorithms.precedes(keys[indices[currentLeft]], pivot, reversed));
+
+            if (currentLeft < currentRight) {
+                int tempSwap = indices[currentLeft];
+                indices[currentLeft] = indices[currentRight];
+                indices[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Creates the identity permutation of the given length.
+     *
+     * @param length The number of indices
+     * @return The array {0, 1, ..., length - 1}
+     */
+    private static int[] identity(int length) {
+        int[] indices = new int[length];
+        for (int index = 0; index < length; index++) {
+            indices[index] = index;
+        }
+        return indices;
+    }
+}
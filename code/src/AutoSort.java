@@ -0,0 +1,392 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Sorts which pick an algorithm from a cheap profile of the input, rather than leaving the choice
+ * to the caller. Inputs no longer than {@link #INSERTION_THRESHOLD} are always insertion sorted.
+ *
+ * Arrays of objects are profiled by how many runs they are made of (counting stops as soon as
+ * there are clearly too many to matter), and by an evenly spaced sample of their elements: the
+ * fraction of the sample's pairs which are inverted, and the fraction of the sample duplicating
+ * another sampled element. Mostly ordered (or reverse ordered) input goes to natural merge sort,
+ * which takes linear time for a few long runs, and input with many duplicates to three-way quick
+ * sort, which never revisits elements equal to a pivot. Anything else is merge sorted, in
+ * parallel when it is long enough and the common pool has more than one thread.
+ *
+ * Arrays of primitives are checked for already being sorted or reverse sorted, which costs no
+ * more than a single pass. Integer and long keys are otherwise radix sorted. Doubles are sampled
+ * for duplicates as objects are, and are otherwise intro sorted, or quick sorted in parallel.
+ */
+final class AutoSort {
+
+    /**
+     * The algorithms an automatic sort may choose between.
+     */
+    enum Strategy {
+        /** Insertion sort, for inputs no longer than {@link AutoSort#INSERTION_THRESHOLD}. */
+        INSERTION,
+        /**
+         * Natural merge sort, for inputs made of a few long ascending or descending runs. For
+         * primitives this is only chosen for a single run, which is kept or simply reversed.
+         */
+        NATURAL_MERGE,
+        /** Three-way quick sort, for inputs with many duplicate elements. */
+        THREE_WAY_QUICK,
+        /** Least significant digit radix sort, for integer and long keys. */
+        RADIX,
+        /** Introspective sort, for general primitive input too short to sort in parallel. */
+        INTRO,
+        /** Parallel merge sort for objects, or parallel quick sort for primitives. */
+        PARALLEL
+    }
+
+    /**
+     * Inputs no longer than this are insertion sorted. This is fixed rather than taken from the
+     * hybrid sorts' calibrated cutoffs, which size the leaves of a recursive sort rather than a
+     * whole input.
+     */
+    static final int INSERTION_THRESHOLD = 16;
+
+    /** Number of evenly spaced elements sampled for inversions and duplicates. */
+    private static final int SAMPLE_SIZE = 64;
+
+    /** Inputs whose runs average at least this long are treated as presorted. */
+    private static final int MIN_AVERAGE_RUN = 32;
+
+    /** Samples with at most this fraction of pairs inverted (or not inverted) are presorted. */
+    private static final double PRESORTED_INVERSION_RATIO = 0.01;
+
+    /** Samples with at least this fraction of duplicates are sorted three ways. */
+    private static final double DUPLICATE_RATIO = 0.5;
+
+    /** Inputs at least this long are sorted in parallel when the common pool allows. */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private AutoSort() {}
+
+    /**
+     * Sorts the given array in comparator order with whichever algorithm suits it.
+     *
+     * @param input The array to sort
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     * @return The strategy used to sort the array
+     * @requires input != null && comparator != null
+     */
+    static <T> Strategy sort(T[] input, Comparator<? super T> comparator) {
+        Strategy strategy = choose(input, comparator);
+        switch (strategy) {
+            case INSERTION:
+                SortingAlgorithms.insertionSort(input, comparator);
+                break;
+            case THREE_WAY_QUICK:
+                SortingAlgorithms.threeWayQuickSort(input, comparator);
+                break;
+            case PARALLEL:
+                SortingAlgorithms.parallelMergeSort(input, comparator);
+                break;
+            default:
+                SortingAlgorithms.naturalMergeSort(input, comparator);
+        }
+        return strategy;
+    }
+
+    /**
+     * Chooses the strategy to sort the given array in comparator order with. Elements are only
+     * compared, never moved. Comparisons are expensive compared to moves, so random input is
+     * natural merge sorted, which makes fewer comparisons than quick sort, unless it is long
+     * enough to sort in parallel.
+     *
+     * @param input The array to profile
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     * @return The strategy that should sort the array fastest
+     * @requires input != null && comparator != null
+     */
+    static <T> Strategy choose(T[] input, Comparator<? super T> comparator) {
+        int length = input.length;
+        if (length <= INSERTION_THRESHOLD) {
+            return Strategy.INSERTION;
+        }
+        if (hasFewRuns(input, comparator)) {
+            return Strategy.NATURAL_MERGE;
+        }
+
+        T[] sample = sample(input);
+        long inversions = 0;
+        for (int first = 0; first < sample.length; first++) {
+            for (int second = first + 1; second < sample.length; second++) {
+                if (comparator.compare(sample[second], sample[first]) < 0) {
+                    inversions++;
+                }
+            }
+        }
+        if (isPresorted(inversions, sample.length)) {
+            return Strategy.NATURAL_MERGE;
+        }
+
+        SortingAlgorithms.insertionSort(sample, comparator);
+        int duplicates = 0;
+        for (int position = 1; position < sample.length; position++) {
+            if (comparator.compare(sample[position - 1], sample[position]) == 0) {
+                duplicates++;
+            }
+        }
+        if (duplicates >= DUPLICATE_RATIO * sample.length) {
+            return Strategy.THREE_WAY_QUICK;
+        }
+        return isParallelizable(length) ? Strategy.PARALLEL : Strategy.NATURAL_MERGE;
+    }
+
+    /**
+     * Sorts the given array of integers with whichever algorithm suits it.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @return The strategy used to sort the array
+     * @requires input != null
+     */
+    static Strategy sort(int[] input, boolean reversed) {
+        if (input.length <= INSERTION_THRESHOLD) {
+            SortingAlgorithms.insertionSort(input, reversed);
+            return Strategy.INSERTION;
+        }
+        int direction = runDirection(input, reversed);
+        if (direction != 0) {
+            if (direction < 0) {
+                reverse(input);
+            }
+            return Strategy.NATURAL_MERGE;
+        }
+        RadixSort.sort(input, reversed);
+        return Strategy.RADIX;
+    }
+
+    /**
+     * Sorts the given array of longs with whichever algorithm suits it.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @return The strategy used to sort the array
+     * @requires input != null
+     */
+    static Strategy sort(long[] input, boolean reversed) {
+        if (input.length <= INSERTION_THRESHOLD) {
+            SortingAlgorithms.insertionSort(input, reversed);
+            return Strategy.INSERTION;
+        }
+        int direction = runDirection(input, reversed);
+        if (direction != 0) {
+            if (direction < 0) {
+                reverse(input);
+            }
+            return Strategy.NATURAL_MERGE;
+        }
+        RadixSort.sort(input, reversed);
+        return Strategy.RADIX;
+    }
+
+    /**
+     * Sorts the given array of doubles with whichever algorithm suits it.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @return The strategy used to sort the array
+     * @requires input != null
+     */
+    static Strategy sort(double[] input, boolean reversed) {
+        int length = input.length;
+        if (length <= INSERTION_THRESHOLD) {
+            SortingAlgorithms.insertionSort(input, reversed);
+            return Strategy.INSERTION;
+        }
+        int direction = runDirection(input, reversed);
+        if (direction != 0) {
+            if (direction < 0) {
+                reverse(input);
+            }
+            return Strategy.NATURAL_MERGE;
+        }
+
+        double[] sample = new double[Math.min(SAMPLE_SIZE, length)];
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = input[(int) ((long) index * length / sample.length)];
+        }
+        SortingAlgorithms.insertionSort(sample, false);
+        int duplicates = 0;
+        for (int position = 1; position < sample.length; position++) {
+            if (Double.compare(sample[position - 1], sample[position]) == 0) {
+                duplicates++;
+            }
+        }
+        if (duplicates >= DUPLICATE_RATIO * sample.length) {
+            SortingAlgorithms.threeWayQuickSort(input, reversed);
+            return Strategy.THREE_WAY_QUICK;
+        }
+        if (isParallelizable(length)) {
+            SortingAlgorithms.parallelQuickSort(input, reversed);
+            return Strategy.PARALLEL;
+        }
+        SortingAlgorithms.introSort(input, reversed);
+        return Strategy.INTRO;
+    }
+
+    /**
+     * Checks whether the given array is made of few enough runs for natural merge sort to be
+     * worthwhile. Counting gives up as soon as both ascents and descents are too frequent.
+     *
+     * @param input The array to profile
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     * @return Whether the array's runs average at least MIN_AVERAGE_RUN elements
+     */
+    private static <T> boolean hasFewRuns(T[] input, Comparator<? super T> comparator) {
+        int limit = input.length / MIN_AVERAGE_RUN;
+        int ascents = 0;
+        int descents = 0;
+        for (int index = 1; index < input.length; index++) {
+            int comparison = comparator.compare(input[index - 1], input[index]);
+            if (comparison < 0) {
+                ascents++;
+            } else if (comparison > 0) {
+                descents++;
+            }
+            if (ascents > limit && descents > limit) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a sample with the given number of inverted pairs is close enough to sorted,
+     * or to reverse sorted, to be treated as such.
+     *
+     * @param inversions The number of pairs in the sample which are out of order
+     * @param sampleLength The number of elements in the sample
+     * @return Whether almost no pairs, or almost all pairs, are inverted
+     */
+    private static boolean isPresorted(long inversions, int sampleLength) {
+        double ratio = (double) inversions / ((long) sampleLength * (sampleLength - 1) / 2);
+        return ratio <= PRESORTED_INVERSION_RATIO || ratio >= 1 - PRESORTED_INVERSION_RATIO;
+    }
+
+    /**
+     * Checks whether an input of the given length is worth sorting in parallel.
+     *
+     * @param length The length of the input
+     * @return Whether the input is long enough and the common pool has more than one thread
+     */
+    private static boolean isParallelizable(int length) {
+        return length >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+    }
+
+    /**
+     * Takes evenly spaced elements of the given array, in order.
+     *
+     * @param input The array to sample
+     * @param <T> Array element type.
+     * @return At most SAMPLE_SIZE elements of the array
+     */
+    private static <T> T[] sample(T[] input) {
+        T[] sample = Arrays.copyOf(input, Math.min(SAMPLE_SIZE, input.length));
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = input[(int) ((long) index * input.length / sample.length)];
+        }
+        return sample;
+    }
+
+    /**
+     * Finds whether the given array is already sorted, or sorted in the opposite order.
+     *
+     * @param input The array to check
+     * @param reversed Whether the array should be sorted in reverse order
+     * @return 1 if the array is sorted, -1 if it is sorted in the opposite order, otherwise 0
+     */
+    private static int runDirection(int[] input, boolean reversed) {
+        boolean inOrder = true;
+        boolean inReverse = true;
+        for (int index = 1; index < input.length && (inOrder || inReverse); index++) {
+            inOrder &= !SortingAlgorithms.precedes(input[index], input[index - 1], reversed);
+            inReverse &= !SortingAlgorithms.precedes(input[index - 1], input[index], reversed);
+        }
+        return inOrder ? 1 : inReverse ? -1 : 0;
+    }
+
+    /**
+     * Finds whether the given array is already sorted, or sorted in the opposite order.
+     *
+     * @param input The array to check
+     * @param reversed Whether the array should be sorted in reverse order
+     * @return 1 if the array is sorted, -1 if it is sorted in the opposite order, otherwise 0
+     */
+    private static int runDirection(long[] input, boolean reversed) {
+        boolean inOrder = true;
+        boolean inReverse = true;
+        for (int index = 1; index < input.length && (inOrder || inReverse); index++) {
+            inOrder &= !SortingAlgorithms.precedes(input[index], input[index - 1], reversed);
+            inReverse &= !SortingAlgorithms.precedes(input[index - 1], input[index], reversed);
+        }
+        return inOrder ? 1 : inReverse ? -1 : 0;
+    }
+
+    /**
+     * Finds whether the given array is already sorted, or sorted in the opposite order.
+     *
+     * @param input The array to check
+     * @param reversed Whether the array should be sorted in reverse order
+     * @return 1 if the array is sorted, -1 if it is sorted in the opposite order, otherwise 0
+     */
+    private static int runDirection(double[] input, boolean reversed) {
+        boolean inOrder = true;
+        boolean inReverse = true;
+        for (int index = 1; index < input.length && (inOrder || inReverse); index++) {
+            inOrder &= !SortingAlgorithms.precedes(input[index], input[index - 1], reversed);
+            inReverse &= !SortingAlgorithms.precedes(input[index - 1], input[index], reversed);
+        }
+        return inOrder ? 1 : inReverse ? -1 : 0;
+    }
+
+    /**
+     * Reverses the given array in place.
+     *
+     * @param input The array to reverse
+     */
+    private static void reverse(int[] input) {
+        for (int low = 0, high = input.length - 1; low < high; low++, high--) {
+            int tempSwap = input[low];
+            input[low] = input[high];
+            input[high] = tempSwap;
+        }
+    }
+
+    /**
+     * Reverses the given array in place.
+     *
+     * @param input The array to reverse
+     */
+    private static void reverse(long[] input) {
+        for (int low = 0, high = input.length - 1; low < high; low++, high--) {
+            long tempSwap = input[low];
+            input[low] = input[high];
+            input[high] = tempSwap;
+        }
+    }
+
+    /**
+     * Reverses the given array in place.
+     *
+     * @param input The array to reverse
+     */
+    private static void reverse(double[] input) {
+        for (int low = 0, high = input.length - 1; low < high; low++, high--) {
+            double tempSwap = input[low];
+            input[low] = input[high];
+            input[high] = tempSwap;
+        }
+    }
+}
@@ -0,0 +1,1007 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * A stable block merge sort (WikiSort) which runs in O(n log n) time using O(1) extra memory.
+ *
+ * The array is merge sorted bottom up. To merge two sorted subarrays A and B without scratch
+ * space, two internal buffers of about sqrt(|A|) distinct values each are first pulled out of the
+ * array, keeping the first or last occurrence of each value so the pulled values can later be
+ * put back without disturbing the order of equal elements. A is then broken into blocks of about
+ * sqrt(|A|) elements, the first element of each block is swapped with a value of the first buffer
+ * to tag it, and the blocks are rolled through B. Whenever the smallest remaining A block belongs
+ * before the next B block it is dropped behind, and the previous A block is merged with the B
+ * values that followed it, swapping elements through the second buffer. Once a level of the sort
+ * is done the buffers are sorted and redistributed back into the array.
+ *
+ * Subarrays with too few distinct values for a second buffer are merged by binary searching and
+ * rotating instead, which takes more moves but remains O(n log n) overall. An optional small
+ * fixed buffer, the cache, holds A blocks while they are merged, and subarrays short enough to
+ * fit into it entirely are merged the ordinary way, which saves most of the block bookkeeping.
+ */
+final class BlockMergeSort {
+
+    /** A cache length which fits the lower levels of the sort while staying small. */
+    static final int DEFAULT_BUFFER_LENGTH = 512;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private BlockMergeSort() {}
+
+    /**
+     * A range of array indices, from start inclusive to end exclusive.
+     */
+    private static final class Range {
+        int start;
+        int end;
+
+        Range(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        int length() {
+            return end - start;
+        }
+    }
+
+    /**
+     * Where the values of an internal buffer were pulled from and to, so that they can be put
+     * back once a level of the sort is done.
+     */
+    private static final class Pull {
+        int from;
+        int to;
+        int count;
+        final Range range = new Range(0, 0);
+
+        void reset() {
+            from = 0;
+            to = 0;
+            count = 0;
+            range.set(0, 0);
+        }
+    }
+
+    /**
+     * The ranges and pulls a sort reuses for every level and every merge, so that merging does
+     * not allocate.
+     */
+    private static final class Workspace {
+        final Range a = new Range(0, 0);
+        final Range b = new Range(0, 0);
+        final Range buffer1 = new Range(0, 0);
+        final Range buffer2 = new Range(0, 0);
+        final Range blockA = new Range(0, 0);
+        final Range blockB = new Range(0, 0);
+        final Range lastA = new Range(0, 0);
+        final Range lastB = new Range(0, 0);
+        final Pull[] pulls = {new Pull(), new Pull()};
+    }
+
+    /**
+     * Steps through the subarrays of each level of a bottom up merge sort of a range starting
+     * at the given offset. Lengths which are not a power of two are split into subarrays whose
+     * lengths differ by at most one, by tracking the subarray length as a whole part and a
+     * fraction.
+     */
+    private static final class Levels {
+        private final int offset;
+        private final int size;
+        private final int denominator;
+        private int decimal;
+        private int numerator;
+        private int decimalStep;
+        private int numeratorStep;
+
+        Levels(int offset, int size, int minLevel) {
+            this.offset = offset;
+            this.size = size;
+            this.denominator = Integer.highestOneBit(size) / minLevel;
+            this.numeratorStep = size % denominator;
+            this.decimalStep = size / denominator;
+            begin();
+        }
+
+        void begin() {
+            numerator = 0;
+            decimal = 0;
+        }
+
+        void nextRange(Range range) {
+            int start = decimal;
+            decimal += decimalStep;
+            numerator += numeratorStep;
+            if (numerator >= denominator) {
+                numerator -= denominator;
+                decimal++;
+            }
+            range.set(offset + start, offset + decimal);
+        }
+
+        boolean finished() {
+            return decimal >= size;
+        }
+
+        boolean nextLevel() {
+            decimalStep += decimalStep;
+            numeratorStep += numeratorStep;
+            if (numeratorStep >= denominator) {
+                numeratorStep -= denominator;
+                decimalStep++;
+            }
+            return decimalStep < size;
+        }
+
+        int length() {
+            return decimalStep;
+        }
+    }
+
+    /**
+     * Sorts the given array in place. The sort is stable.
+     *
+     * @param input The array to sort
+     * @param comparator The ordering to sort by
+     * @param bufferLength The length of the cache to merge through, or 0 to sort strictly in
+     *                     place
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if bufferLength is negative
+     * @requires input != null && comparator != null
+     */
+    static <T> void sort(T[] input, Comparator<? super T> comparator, int bufferLength)
+            throws IllegalArgumentException {
+        sort(input, 0, input.length, comparator, bufferLength);
+    }
+
+    /**
+     * Sorts the given range of an array in place, leaving the rest of the array untouched. The
+     * sort is stable.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param comparator The ordering to sort by
+     * @param bufferLength The length of the cache to merge through, or 0 to sort strictly in
+     *                     place
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if bufferLength is negative
+     * @requires input != null && comparator != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static <T> void sort(T[] input, int fromIndex, int toIndex, Comparator<? super T> comparator,
+            int bufferLength) throws IllegalArgumentException {
+        if (bufferLength < 0) {
+            throw new IllegalArgumentException("Buffer length must not be negative.");
+        }
+        int size = toIndex - fromIndex;
+        if (size < 8) {
+            SortingAlgorithms.insertionSort(input, fromIndex, toIndex - 1, comparator);
+            return;
+        }
+        T[] cache = Arrays.copyOf(input, Math.min(bufferLength, size));
+        Workspace workspace = new Workspace();
+
+        // Insertion sort subarrays of 4 to 8 elements, then merge them level by level
+        Levels levels = new Levels(fromIndex, size, 4);
+        Range range = workspace.a;
+        while (!levels.finished()) {
+            levels.nextRange(range);
+            SortingAlgorithms.insertionSort(input, range.start, range.end - 1, comparator);
+        }
+        do {
+            if (levels.length() < cache.length) {
+                mergeLevelThroughCache(input, comparator, cache, levels, workspace);
+            } else {
+                mergeLevelInPlace(input, comparator, cache, levels, workspace);
+            }
+        } while (levels.nextLevel());
+    }
+
+    /**
+     * Merges each pair of subarrays of the current level, copying each A subarray into the
+     * cache first.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space at least as long as each subarray
+     * @param levels The subarrays of the current level
+     * @param workspace The ranges to step through the subarrays with
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeLevelThroughCache(T[] input, Comparator<? super T> comparator,
+            T[] cache, Levels levels, Workspace workspace) {
+        Range a = workspace.a;
+        Range b = workspace.b;
+        levels.begin();
+        while (!levels.finished()) {
+            levels.nextRange(a);
+            levels.nextRange(b);
+            if (comparator.compare(input[b.end - 1], input[a.start]) < 0) {
+                // The two subarrays are in reverse order, so a rotation sorts them
+                rotate(input, cache, a.length(), a.start, b.end, true);
+            } else if (comparator.compare(input[b.start], input[a.end - 1]) < 0) {
+                System.arraycopy(input, a.start, cache, 0, a.length());
+                mergeExternal(input, comparator, cache, a.start, a.end, b.start, b.end);
+            }
+        }
+    }
+
+    /**
+     * Merges each pair of subarrays of the current level through internal buffers pulled out of
+     * the array, falling back to rotation based merging where too few distinct values exist.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space shorter than each subarray, possibly empty
+     * @param levels The subarrays of the current level
+     * @param workspace The ranges and pulls to merge the level with
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeLevelInPlace(T[] input, Comparator<? super T> comparator,
+            T[] cache, Levels levels, Workspace workspace) {
+        int cacheLength = cache.length;
+        int blockSize = (int) Math.sqrt(levels.length());
+        int bufferSize = levels.length() / blockSize + 1;
+
+        // Each buffer needs sqrt(|A|) distinct values. Both are found once per level and reused
+        // by every merge of the level, then redistributed once it is done
+        Range a = workspace.a;
+        Range b = workspace.b;
+        Range buffer1 = workspace.buffer1;
+        Range buffer2 = workspace.buffer2;
+        Pull[] pulls = workspace.pulls;
+        buffer1.set(0, 0);
+        buffer2.set(0, 0);
+        for (Pull pull : pulls) {
+            pull.reset();
+        }
+        int pullIndex = 0;
+
+        int find = bufferSize + bufferSize;
+        boolean findSeparately = false;
+        if (blockSize <= cacheLength) {
+            // Every A block fits into the cache, so only the buffer of tags is needed
+            find = bufferSize;
+        } else if (find > levels.length()) {
+            // Both buffers cannot fit into one subarray, so look for them separately
+            find = bufferSize;
+            findSeparately = true;
+        }
+
+        levels.begin();
+        while (!levels.finished()) {
+            levels.nextRange(a);
+            levels.nextRange(b);
+
+            // Count the distinct values of A, which would be pulled out to the start of A
+            int index;
+            int last = a.start;
+            int count = 1;
+            for (; count < find; count++) {
+                index = findLastForward(input, comparator, input[last], last + 1, a.end,
+                        find - count);
+                if (index == a.end) {
+                    break;
+                }
+                last = index;
+            }
+            index = last;
+
+            if (count >= bufferSize) {
+                Pull pull = pulls[pullIndex];
+                pull.range.set(a.start, b.end);
+                pull.count = count;
+                pull.from = index;
+                pull.to = a.start;
+                pullIndex = 1;
+
+                if (count == bufferSize + bufferSize) {
+                    // One run of distinct values is enough for both buffers
+                    buffer1.set(a.start, a.start + bufferSize);
+                    buffer2.set(a.start + bufferSize, a.start + count);
+                    break;
+                } else if (find == bufferSize + bufferSize) {
+                    // Enough for the first buffer, so the second must come from elsewhere
+                    buffer1.set(a.start, a.start + count);
+                    find = bufferSize;
+                } else if (blockSize <= cacheLength) {
+                    buffer1.set(a.start, a.start + count);
+                    break;
+                } else if (findSeparately) {
+                    buffer1.set(a.start, a.start + count);
+                    findSeparately = false;
+                } else {
+                    buffer2.set(a.start, a.start + count);
+                    break;
+                }
+            } else if (pullIndex == 0 && count > buffer1.length()) {
+                // Keep track of the largest buffer found, in case none is large enough
+                buffer1.set(a.start, a.start + count);
+                Pull pull = pulls[pullIndex];
+                pull.range.set(a.start, b.end);
+                pull.count = count;
+                pull.from = index;
+                pull.to = a.start;
+            }
+
+            // Count the distinct values of B, which would be pulled out to the end of B
+            last = b.end - 1;
+            count = 1;
+            for (; count < find; count++) {
+                index = findFirstBackward(input, comparator, input[last], b.start, last,
+                        find - count);
+                if (index == b.start) {
+                    break;
+                }
+                last = index - 1;
+            }
+            index = last;
+
+            if (count >= bufferSize) {
+                Pull pull = pulls[pullIndex];
+                pull.range.set(a.start, b.end);
+                pull.count = count;
+                pull.from = index;
+                pull.to = b.end;
+                pullIndex = 1;
+
+                if (count == bufferSize + bufferSize) {
+                    buffer1.set(b.end - count, b.end - bufferSize);
+                    buffer2.set(b.end - bufferSize, b.end);
+                    break;
+                } else if (find == bufferSize + bufferSize) {
+                    buffer1.set(b.end - count, b.end);
+                    find = bufferSize;
+                } else if (blockSize <= cacheLength) {
+                    buffer1.set(b.end - count, b.end);
+                    break;
+                } else if (findSeparately) {
+                    buffer1.set(b.end - count, b.end);
+                    findSeparately = false;
+                } else {
+                    // If the first buffer came from this pair's A subarray, its values must not
+                    // be redistributed into the second buffer
+                    if (pulls[0].range.start == a.start) {
+                        pulls[0].range.end -= pulls[1].count;
+                    }
+                    buffer2.set(b.end - count, b.end);
+                    break;
+                }
+            } else if (pullIndex == 0 && count > buffer1.length()) {
+                buffer1.set(b.end - count, b.end);
+                Pull pull = pulls[pullIndex];
+                pull.range.set(a.start, b.end);
+                pull.count = count;
+                pull.from = index;
+                pull.to = b.end;
+            }
+        }
+
+        for (Pull pull : pulls) {
+            pullOut(input, comparator, cache, pull);
+        }
+
+        // The first buffer must hold a tag for every A block
+        bufferSize = buffer1.length();
+        blockSize = levels.length() / bufferSize + 1;
+
+        levels.begin();
+        while (!levels.finished()) {
+            levels.nextRange(a);
+            levels.nextRange(b);
+
+            // Leave out the parts of A and B that now hold the internal buffers
+            int start = a.start;
+            boolean empty = false;
+            for (Pull pull : pulls) {
+                if (start == pull.range.start) {
+                    if (pull.from > pull.to) {
+                        a.start += pull.count;
+                    } else if (pull.from < pull.to) {
+                        b.end -= pull.count;
+                    }
+                    empty |= a.length() == 0 || b.length() == 0;
+                }
+            }
+            if (empty) {
+                continue;
+            }
+
+            if (comparator.compare(input[b.end - 1], input[a.start]) < 0) {
+                rotate(input, cache, a.length(), a.start, b.end, true);
+            } else if (comparator.compare(input[a.end], input[a.end - 1]) < 0) {
+                mergeBlocks(input, comparator, cache, workspace, blockSize);
+            }
+        }
+
+        // The second buffer was jumbled by the merges, while the first was restored in order
+        SortingAlgorithms.insertionSort(input, buffer2.start, buffer2.end - 1, comparator);
+        for (Pull pull : pulls) {
+            redistribute(input, comparator, cache, pull);
+        }
+    }
+
+    /**
+     * Merges A and B by breaking them into blocks, tagging the A blocks with values of the first
+     * buffer and rolling them through the B blocks, then locally merging each A block with the
+     * B values that end up after it.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space, possibly empty
+     * @param workspace Holds the first sorted subarray a, which directly precedes the second
+     *                  sorted subarray b, the buffer of distinct values to tag A blocks with,
+     *                  the possibly empty buffer to merge through, and the block ranges to reuse
+     * @param blockSize The length of each A block but the first
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeBlocks(T[] input, Comparator<? super T> comparator, T[] cache,
+            Workspace workspace, int blockSize) {
+        int cacheLength = cache.length;
+        Range a = workspace.a;
+        Range b = workspace.b;
+        Range buffer1 = workspace.buffer1;
+        Range buffer2 = workspace.buffer2;
+        int firstLength = a.length() % blockSize;
+
+        // Tag each A block by swapping its first value with the next value of the first buffer
+        int indexA = buffer1.start;
+        for (int index = a.start + firstLength; index < a.end; index += blockSize) {
+            swap(input, indexA++, index);
+        }
+
+        // Roll the A blocks through B, keeping track of the previous A block and the B values
+        // that follow it, which are merged whenever an A block is dropped behind
+        Range blockA = workspace.blockA;
+        Range blockB = workspace.blockB;
+        Range lastA = workspace.lastA;
+        Range lastB = workspace.lastB;
+        blockA.set(a.start + firstLength, a.end);
+        blockB.set(b.start, b.start + Math.min(blockSize, b.length()));
+        lastA.set(a.start, a.start + firstLength);
+        lastB.set(0, 0);
+        indexA = buffer1.start;
+
+        if (lastA.length() <= cacheLength) {
+            System.arraycopy(input, lastA.start, cache, 0, lastA.length());
+        } else if (buffer2.length() > 0) {
+            blockSwap(input, lastA.start, buffer2.start, lastA.length());
+        }
+
+        if (blockA.length() > 0) {
+            while (true) {
+                if ((lastB.length() > 0
+                        && comparator.compare(input[lastB.end - 1], input[indexA]) >= 0)
+                        || blockB.length() == 0) {
+                    // Drop the smallest A block behind, splitting the previous B block where
+                    // its first value belongs
+                    int bSplit = binaryFirst(input, comparator, input[indexA], lastB.start,
+                            lastB.end);
+                    int bRemaining = lastB.end - bSplit;
+
+                    int minA = blockA.start;
+                    for (int findA = minA + blockSize; findA < blockA.end; findA += blockSize) {
+                        if (comparator.compare(input[findA], input[minA]) < 0) {
+                            minA = findA;
+                        }
+                    }
+                    blockSwap(input, blockA.start, minA, blockSize);
+
+                    // Restore the block's first value from the first buffer
+                    swap(input, blockA.start, indexA);
+                    indexA++;
+
+                    mergeLocally(input, comparator, cache, lastA, lastA.end, bSplit, buffer2);
+
+                    if (buffer2.length() > 0 || blockSize <= cacheLength) {
+                        // The A block is set aside where it is next merged from, so the B values
+                        // can be swapped into place rather than rotated
+                        if (blockSize <= cacheLength) {
+                            System.arraycopy(input, blockA.start, cache, 0, blockSize);
+                        } else {
+                            blockSwap(input, blockA.start, buffer2.start, blockSize);
+                        }
+                        blockSwap(input, bSplit, blockA.start + blockSize - bRemaining,
+                                bRemaining);
+                    } else {
+                        rotate(input, cache, blockA.start - bSplit, bSplit,
+                                blockA.start + blockSize, true);
+                    }
+
+                    lastA.set(blockA.start - bRemaining, blockA.start - bRemaining + blockSize);
+                    lastB.set(lastA.end, lastA.end + bRemaining);
+
+                    blockA.start += blockSize;
+                    if (blockA.length() == 0) {
+                        break;
+                    }
+                } else if (blockB.length() < blockSize) {
+                    // Move the last, shorter B block before the remaining A blocks. The cache
+                    // may hold the previous A block, so it is not used for the rotation
+                    rotate(input, cache, -blockB.length(), blockA.start, blockB.end, false);
+                    lastB.set(blockA.start, blockA.start + blockB.length());
+                    blockA.start += blockB.length();
+                    blockA.end += blockB.length();
+                    blockB.end = blockB.start;
+                } else {
+                    // Roll the leftmost A block to the end by swapping it with the next B block
+                    blockSwap(input, blockA.start, blockB.start, blockSize);
+                    lastB.set(blockA.start, blockA.start + blockSize);
+                    blockA.start += blockSize;
+                    blockA.end += blockSize;
+                    blockB.start += blockSize;
+                    blockB.end = blockB.end > b.end - blockSize ? b.end : blockB.end + blockSize;
+                }
+            }
+        }
+
+        mergeLocally(input, comparator, cache, lastA, lastA.end, b.end, buffer2);
+    }
+
+    /**
+     * Merges an A block with the B values that follow it, through the cache if the block was
+     * copied there, through the second buffer if it was swapped there, or by rotations.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space, possibly empty
+     * @param a The A block
+     * @param bStart The index of the first B value
+     * @param bEnd One past the index of the last B value
+     * @param buffer2 The second buffer, which may be empty
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeLocally(T[] input, Comparator<? super T> comparator, T[] cache,
+            Range a, int bStart, int bEnd, Range buffer2) {
+        if (a.length() <= cache.length) {
+            mergeExternal(input, comparator, cache, a.start, a.end, bStart, bEnd);
+        } else if (buffer2.length() > 0) {
+            mergeInternal(input, comparator, a.start, a.end, bStart, bEnd, buffer2.start);
+        } else {
+            mergeInPlace(input, comparator, cache, a.start, a.end, bStart, bEnd);
+        }
+    }
+
+    /**
+     * Moves the values counted for an internal buffer next to each other at the start or end of
+     * the pair of subarrays they were found in, one distinct value at a time.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space, possibly empty
+     * @param pull Where the values are pulled from and to
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void pullOut(T[] input, Comparator<? super T> comparator, T[] cache,
+            Pull pull) {
+        int length = pull.count;
+        if (pull.to < pull.from) {
+            // Pull the first occurrence of each value out to the left, to the start of A
+            int index = pull.from;
+            for (int count = 1; count < length; count++) {
+                index = findFirstBackward(input, comparator, input[index - 1], pull.to,
+                        pull.from - (count - 1), length - count);
+                int rangeStart = index + 1;
+                int rangeEnd = pull.from + 1;
+                rotate(input, cache, rangeEnd - rangeStart - count, rangeStart, rangeEnd, true);
+                pull.from = index + count;
+            }
+        } else if (pull.to > pull.from) {
+            // Pull the last occurrence of each value out to the right, to the end of B
+            int index = pull.from + 1;
+            for (int count = 1; count < length; count++) {
+                index = findLastForward(input, comparator, input[index], index, pull.to,
+                        length - count);
+                rotate(input, cache, count, pull.from, index - 1, true);
+                pull.from = index - 1 - count;
+            }
+        }
+    }
+
+    /**
+     * Puts the values of an internal buffer back where they belong, before or after the values
+     * equal to them depending on whether they were first or last occurrences.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space, possibly empty
+     * @param pull Where the values were pulled from and to
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void redistribute(T[] input, Comparator<? super T> comparator, T[] cache,
+            Pull pull) {
+        int unique = pull.count * 2;
+        if (pull.from > pull.to) {
+            // The values were pulled out to the left, so redistribute them to the right
+            int bufferStart = pull.range.start;
+            int bufferEnd = bufferStart + pull.count;
+            while (bufferEnd > bufferStart) {
+                int index = findFirstForward(input, comparator, input[bufferStart], bufferEnd,
+                        pull.range.end, unique);
+                int amount = index - bufferEnd;
+                rotate(input, cache, bufferEnd - bufferStart, bufferStart, index, true);
+                bufferStart += amount + 1;
+                bufferEnd += amount;
+                unique -= 2;
+            }
+        } else if (pull.from < pull.to) {
+            // The values were pulled out to the right, so redistribute them to the left
+            int bufferStart = pull.range.end - pull.count;
+            int bufferEnd = pull.range.end;
+            while (bufferEnd > bufferStart) {
+                int index = findLastBackward(input, comparator, input[bufferEnd - 1],
+                        pull.range.start, bufferStart, unique);
+                int amount = bufferStart - index;
+                rotate(input, cache, amount, index, bufferEnd, true);
+                bufferStart -= amount;
+                bufferEnd -= amount + 1;
+                unique -= 2;
+            }
+        }
+    }
+
+    /**
+     * Merges A, whose values have been copied into the cache, with the B values that follow it.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space holding A's values
+     * @param aStart The index of the first A value
+     * @param aEnd One past the index of the last A value, which is bStart
+     * @param bStart The index of the first B value
+     * @param bEnd One past the index of the last B value
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeExternal(T[] input, Comparator<? super T> comparator, T[] cache,
+            int aStart, int aEnd, int bStart, int bEnd) {
+        int aIndex = 0;
+        int aLast = aEnd - aStart;
+        int bIndex = bStart;
+        int insert = aStart;
+        if (bEnd > bStart && aLast > 0) {
+            while (true) {
+                if (comparator.compare(input[bIndex], cache[aIndex]) >= 0) {
+                    input[insert++] = cache[aIndex++];
+                    if (aIndex == aLast) {
+                        break;
+                    }
+                } else {
+                    input[insert++] = input[bIndex++];
+                    if (bIndex == bEnd) {
+                        break;
+                    }
+                }
+            }
+        }
+        System.arraycopy(cache, aIndex, input, insert, aLast - aIndex);
+    }
+
+    /**
+     * Merges A, whose values have been swapped into the second buffer, with the B values that
+     * follow it. Each value is swapped into its final place, so the buffer ends up holding its
+     * original values, in a different order.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param aStart The index of the first A value
+     * @param aEnd One past the index of the last A value, which is bStart
+     * @param bStart The index of the first B value
+     * @param bEnd One past the index of the last B value
+     * @param bufferStart The index of the first value of the second buffer
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeInternal(T[] input, Comparator<? super T> comparator,
+            int aStart, int aEnd, int bStart, int bEnd, int bufferStart) {
+        int aLength = aEnd - aStart;
+        int bLength = bEnd - bStart;
+        int aCount = 0;
+        int bCount = 0;
+        int insert = 0;
+        if (bLength > 0 && aLength > 0) {
+            while (true) {
+                if (comparator.compare(input[bStart + bCount], input[bufferStart + aCount])
+                        >= 0) {
+                    swap(input, aStart + insert++, bufferStart + aCount++);
+                    if (aCount >= aLength) {
+                        break;
+                    }
+                } else {
+                    swap(input, aStart + insert++, bStart + bCount++);
+                    if (bCount >= bLength) {
+                        break;
+                    }
+                }
+            }
+        }
+        blockSwap(input, bufferStart + aCount, aStart + insert, aLength - aCount);
+    }
+
+    /**
+     * Merges A with the B values that follow it without any buffer, by repeatedly binary
+     * searching B for where the first value of A belongs and rotating A into place.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param cache Scratch space to speed up rotations, possibly empty
+     * @param aStart The index of the first A value
+     * @param aEnd One past the index of the last A value, which is bStart
+     * @param bStart The index of the first B value
+     * @param bEnd One past the index of the last B value
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void mergeInPlace(T[] input, Comparator<? super T> comparator, T[] cache,
+            int aStart, int aEnd, int bStart, int bEnd) {
+        if (aEnd == aStart || bEnd == bStart) {
+            return;
+        }
+        while (true) {
+            int mid = binaryFirst(input, comparator, input[aStart], bStart, bEnd);
+            int amount = mid - aEnd;
+            rotate(input, cache, -amount, aStart, mid, true);
+            if (bEnd == mid) {
+                break;
+            }
+            bStart = mid;
+            aStart += amount;
+            aEnd = bStart;
+            aStart = binaryLast(input, comparator, input[aStart], aStart, aEnd);
+            if (aEnd == aStart) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Finds the first index of the range whose value does not sort before the given value.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param value The value to search for
+     * @param start The first index of the sorted range
+     * @param end One past the last index of the sorted range
+     * @param <T> Array element type to be sorted.
+     * @return The index, or end if every value sorts before the given value
+     */
+    private static <T> int binaryFirst(T[] input, Comparator<? super T> comparator, T value,
+            int start, int end) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(input[mid], value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the first index of the range whose value sorts after the given value.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param value The value to search for
+     * @param start The first index of the sorted range
+     * @param end One past the last index of the sorted range
+     * @param <T> Array element type to be sorted.
+     * @return The index, or end if no value sorts after the given value
+     */
+    private static <T> int binaryLast(T[] input, Comparator<? super T> comparator, T value,
+            int start, int end) {
+        int low = start;
+        int high = end;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comparator.compare(value, input[mid]) >= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the same index as {@link #binaryFirst}, first stepping forward through the range by
+     * its length over the expected number of distinct values, then binary searching the step
+     * the index falls in, which takes fewer comparisons when the index is likely to be near.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param value The value to search for
+     * @param start The first index of the sorted range
+     * @param end One past the last index of the sorted range
+     * @param unique The expected number of distinct values in the range
+     * @param <T> Array element type to be sorted.
+     * @return The index, or end if every value sorts before the given value
+     */
+    private static <T> int findFirstForward(T[] input, Comparator<? super T> comparator,
+            T value, int start, int end, int unique) {
+        if (end == start) {
+            return start;
+        }
+        int skip = Math.max((end - start) / unique, 1);
+        int index = start + skip;
+        while (comparator.compare(input[index - 1], value) < 0) {
+            if (index >= end - skip) {
+                return binaryFirst(input, comparator, value, index, end);
+            }
+            index += skip;
+        }
+        return binaryFirst(input, comparator, value, index - skip, index);
+    }
+
+    /**
+     * Finds the same index as {@link #binaryLast}, stepping forward through the range first.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param value The value to search for
+     * @param start The first index of the sorted range
+     * @param end One past the last index of the sorted range
+     * @param unique The expected number of distinct values in the range
+     * @param <T> Array element type to be sorted.
+     * @return The index, or end if no value sorts after the given value
+     */
+    private static <T> int findLastForward(T[] input, Comparator<? super T> comparator,
+            T value, int start, int end, int unique) {
+        if (end == start) {
+            return start;
+        }
+        int skip = Math.max((end - start) / unique, 1);
+        int index = start + skip;
+        while (comparator.compare(value, input[index - 1]) >= 0) {
+            if (index >= end - skip) {
+                return binaryLast(input, comparator, value, index, end);
+            }
+            index += skip;
+        }
+        return binaryLast(input, comparator, value, index - skip, index);
+    }
+
+    /**
+     * Finds the same index as {@link #binaryFirst}, stepping backward through the range first.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param value The value to search for
+     * @param start The first index of the sorted range
+     * @param end One past the last index of the sorted range
+     * @param unique The expected number of distinct values in the range
+     * @param <T> Array element type to be sorted.
+     * @return The index, or end if every value sorts before the given value
+     */
+    private static <T> int findFirstBackward(T[] input, Comparator<? super T> comparator,
+            T value, int start, int end, int unique) {
+        if (end == start) {
+            return start;
+        }
+        int skip = Math.max((end - start) / unique, 1);
+        int index = end - skip;
+        while (index > start && comparator.compare(input[index - 1], value) >= 0) {
+            if (index < start + skip) {
+                return binaryFirst(input, comparator, value, start, index);
+            }
+            index -= skip;
+        }
+        return binaryFirst(input, comparator, value, index, index + skip);
+    }
+
+    /**
+     * Finds the same index as {@link #binaryLast}, stepping backward through the range first.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     * @param value The value to search for
+     * @param start The first index of the sorted range
+     * @param end One past the last index of the sorted range
+     * @param unique The expected number of distinct values in the range
+     * @param <T> Array element type to be sorted.
+     * @return The index, or end if no value sorts after the given value
+     */
+    private static <T> int findLastBackward(T[] input, Comparator<? super T> comparator,
+            T value, int start, int end, int unique) {
+        if (end == start) {
+            return start;
+        }
+        int skip = Math.max((end - start) / unique, 1);
+        int index = end - skip;
+        while (index > start && comparator.compare(value, input[index - 1]) < 0) {
+            if (index < start + skip) {
+                return binaryLast(input, comparator, value, start, index);
+            }
+            index -= skip;
+        }
+        return binaryLast(input, comparator, value, index, index + skip);
+    }
+
+    /**
+     * Rotates the range left by the given amount, or right if the amount is negative. The
+     * shorter side is moved through the cache when it fits, and otherwise the range is rotated
+     * by three reversals.
+     *
+     * @param input The array being sorted
+     * @param cache Scratch space, possibly empty
+     * @param amount How far to rotate the range left
+     * @param start The first index of the range
+     * @param end One past the last index of the range
+     * @param useCache Whether the cache may be overwritten
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void rotate(T[] input, T[] cache, int amount, int start, int end,
+            boolean useCache) {
+        if (end == start) {
+            return;
+        }
+        int split = amount >= 0 ? start + amount : end + amount;
+        int firstLength = split - start;
+        int secondLength = end - split;
+        if (useCache) {
+            if (firstLength <= secondLength && firstLength <= cache.length) {
+                System.arraycopy(input, start, cache, 0, firstLength);
+                System.arraycopy(input, split, input, start, secondLength);
+                System.arraycopy(cache, 0, input, start + secondLength, firstLength);
+                return;
+            } else if (firstLength > secondLength && secondLength <= cache.length) {
+                System.arraycopy(input, split, cache, 0, secondLength);
+                System.arraycopy(input, start, input, end - firstLength, firstLength);
+                System.arraycopy(cache, 0, input, start, secondLength);
+                return;
+            }
+        }
+        reverse(input, start, split);
+        reverse(input, split, end);
+        reverse(input, start, end);
+    }
+
+    /**
+     * Reverses the given range.
+     *
+     * @param input The array being sorted
+     * @param start The first index of the range
+     * @param end One past the last index of the range
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void reverse(T[] input, int start, int end) {
+        for (int low = start, high = end - 1; low < high; low++, high--) {
+            swap(input, low, high);
+        }
+    }
+
+    /**
+     * Swaps two equally long, non-overlapping ranges.
+     *
+     * @param input The array being sorted
+     * @param first The first index of the first range
+     * @param second The first index of the second range
+     * @param length The length of each range
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void blockSwap(T[] input, int first, int second, int length) {
+        for (int offset = 0; offset < length; offset++) {
+            swap(input, first + offset, second + offset);
+        }
+    }
+
+    /**
+     * Swaps two elements of the array.
+     *
+     * @param input The array being sorted
+     * @param first The index of the first element
+     * @param second The index of the second element
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void swap(T[] input, int first, int second) {
+        T temp = input[first];
+        input[first] = input[second];
+        input[second] = temp;
+    }
+}
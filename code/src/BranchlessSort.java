@@ -0,0 +1,926 @@
+import java.util.Arrays;
+
+/**
+ * Branch-free variants of quick sort partitioning and merging for primitive keys. On random
+ * input, the ordinary loops branch on every comparison, and as each comparison goes either way
+ * about half the time the CPU mispredicts roughly every other one, discarding the work it
+ * speculatively started.
+ *
+ * Partitioning follows BlockQuicksort: rather than stopping at each misplaced element, a block
+ * of elements at each end of the range is scanned first, recording the offsets of the misplaced
+ * ones. The scan's only data-dependent operation is whether to advance a count, which compiles
+ * to a conditional move rather than a branch. Misplaced elements from the two blocks are then
+ * swapped in bulk, in a loop whose trip count is known up front. Merging likewise advances both
+ * input positions by the outcome of the comparison as a 0 or 1, and picks the element to write
+ * with a conditional move.
+ *
+ * Ranges no longer than the primitive insertion sort cutoff are sorted by the branch-free
+ * networks of SortingNetworks rather than by insertion sort. Doubles are compared through
+ * order-preserving long keys, since Double.compare itself branches on NaN and signed zeros.
+ */
+final class BranchlessSort {
+
+    /** Number of elements scanned at once from each end of a range being partitioned. */
+    static final int BLOCK_SIZE = 128;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private BranchlessSort() {}
+
+    /**
+     * Sorts the given array of integers using a block quick sort. This should modify the array
+     * in-place.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void quickSort(int[] input, boolean reversed) {
+        quickSort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of integers using a block quick sort, leaving the rest of
+     * the array untouched.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void quickSort(int[] input, int fromIndex, int toIndex, boolean reversed) {
+        quickSort(input, fromIndex, toIndex - 1, SortingAlgorithms.depthLimit(toIndex - fromIndex),
+                reversed, SortingAlgorithms.getPrimitiveInsertionSortCutoff(),
+                new int[2 * BLOCK_SIZE]);
+    }
+
+    /**
+     * Block partitions the given range and sorts the smaller side recursively, looping on the
+     * larger side instead of recursing. Short ranges are sorted as leaves, and ranges which
+     * exhaust the depth limit are heap sorted.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted as leaves
+     * @param offsets Scratch space for two blocks' offsets
+     */
+    private static void quickSort(int[] input, int left, int right, int depthLimit,
+            boolean reversed, int cutoff, int[] offsets) {
+        while (right - left >= cutoff) {
+            if (depthLimit-- == 0) {
+                SortingAlgorithms.heapSort(input, left, right, reversed);
+                return;
+            }
+            int pivot = partition(input, left, right, reversed, offsets);
+            if (pivot - left < right - pivot) {
+                quickSort(input, left, pivot - 1, depthLimit, reversed, cutoff, offsets);
+                left = pivot + 1;
+            } else {
+                quickSort(input, pivot + 1, right, depthLimit, reversed, cutoff, offsets);
+                right = pivot - 1;
+            }
+        }
+        SortingAlgorithms.sortLeaf(input, left, right, reversed);
+    }
+
+    /**
+     * Partitions the given range around a sampled pivot, scanning blocks from both ends and
+     * buffering the offsets of misplaced elements before swapping them in bulk. Elements equal
+     * to the pivot may end up on either side.
+     *
+     * @param input The array to partition
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets Scratch space for two blocks' offsets
+     * @return The pivot's final index, with nothing before it that sorts after it and nothing
+     *         after it that sorts before it
+     * @requires left < right && offsets.length >= 2 * BLOCK_SIZE
+     */
+    static int partition(int[] input, int left, int right, boolean reversed, int[] offsets) {
+        int pivotIndex = SortingAlgorithms.choosePivot(input, left, right, reversed);
+        int pivot = input[pivotIndex];
+        input[pivotIndex] = input[right];
+        input[right] = pivot;
+
+        // Elements before low never sort after the pivot, and those after high never before it
+        int low = left;
+        int high = right - 1;
+        int leftStart = 0;
+        int leftCount = 0;
+        int rightStart = BLOCK_SIZE;
+        int rightCount = 0;
+        boolean lastBlocks = false;
+        while (!lastBlocks) {
+            int unscanned = high - low + 1;
+            int leftSize = BLOCK_SIZE;
+            int rightSize = BLOCK_SIZE;
+            lastBlocks = unscanned < 2 * BLOCK_SIZE;
+            if (lastBlocks) {
+                // Split whatever is left between the two blocks, one of which may be half-used
+                if (leftCount == 0 && rightCount == 0) {
+                    leftSize = unscanned / 2;
+                    rightSize = unscanned - leftSize;
+                } else if (leftCount == 0) {
+                    leftSize = unscanned - BLOCK_SIZE;
+                } else {
+                    rightSize = unscanned - BLOCK_SIZE;
+                }
+            }
+
+            if (leftCount == 0) {
+                leftStart = 0;
+                leftCount = scanLeftBlock(input, low, leftSize, pivot, reversed, offsets);
+            }
+            if (rightCount == 0) {
+                rightStart = BLOCK_SIZE;
+                rightCount = scanRightBlock(input, high, rightSize, pivot, reversed, offsets);
+            }
+
+            int swaps = Math.min(leftCount, rightCount);
+            for (int swap = 0; swap < swaps; swap++) {
+                int first = low + offsets[leftStart + swap];
+                int second = high - offsets[rightStart + swap];
+                int tempSwap = input[first];
+                input[first] = input[second];
+                input[second] = tempSwap;
+            }
+            leftStart += swaps;
+            leftCount -= swaps;
+            rightStart += swaps;
+            rightCount -= swaps;
+            if (leftCount == 0) {
+                low += leftSize;
+            }
+            if (rightCount == 0) {
+                high -= rightSize;
+            }
+        }
+
+        // At most one block still has misplaced elements, and it spans low to high; gather
+        // them at the block's far end so the two sides meet in a single boundary
+        int boundary = low;
+        if (leftCount != 0) {
+            boundary = high;
+            for (int index = leftStart + leftCount - 1; index >= leftStart; index--) {
+                int position = low + offsets[index];
+                int tempSwap = input[position];
+                input[position] = input[boundary];
+                input[boundary--] = tempSwap;
+            }
+            boundary++;
+        } else if (rightCount != 0) {
+            for (int index = rightStart + rightCount - 1; index >= rightStart; index--) {
+                int position = high - offsets[index];
+                int tempSwap = input[position];
+                input[position] = input[boundary];
+                input[boundary++] = tempSwap;
+            }
+        }
+        input[right] = input[boundary];
+        input[boundary] = pivot;
+        return boundary;
+    }
+
+    /**
+     * Records the offsets of the elements in a block which should not be left of the pivot.
+     * Every offset is written, but the count only advances past misplaced ones, so the loop has
+     * no data-dependent branch.
+     *
+     * @param input The array being partitioned
+     * @param start The index of the block's first element
+     * @param size The number of elements in the block
+     * @param pivot The pivot's value
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets The buffer to record offsets from the start in, from index 0
+     * @return The number of misplaced elements
+     */
+    private static int scanLeftBlock(int[] input, int start, int size, int pivot,
+            boolean reversed, int[] offsets) {
+        int count = 0;
+        for (int offset = 0; offset < size; offset++) {
+            offsets[count] = offset;
+            count += SortingAlgorithms.precedes(input[start + offset], pivot, reversed) ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Records the offsets of the elements in a block which should not be right of the pivot,
+     * counting back from the block's last element.
+     *
+     * @param input The array being partitioned
+     * @param end The index of the block's last element
+     * @param size The number of elements in the block
+     * @param pivot The pivot's value
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets The buffer to record offsets from the end in, from index BLOCK_SIZE
+     * @return The number of misplaced elements
+     */
+    private static int scanRightBlock(int[] input, int end, int size, int pivot,
+            boolean reversed, int[] offsets) {
+        int count = 0;
+        for (int offset = 0; offset < size; offset++) {
+            offsets[BLOCK_SIZE + count] = offset;
+            count += SortingAlgorithms.precedes(pivot, input[end - offset], reversed) ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Sorts the given array of integers using a merge sort with branch-free merging and
+     * branch-free leaf sorts. This should modify the array in-place and is stable.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void mergeSort(int[] input, boolean reversed) {
+        mergeSort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of integers using a merge sort with branch-free merging
+     * and branch-free leaf sorts, leaving the rest of the array untouched. This is stable. The
+     * range is merged back and forth between the array and a buffer only as long as the range.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void mergeSort(int[] input, int fromIndex, int toIndex, boolean reversed) {
+        int[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                SortingAlgorithms.getPrimitiveInsertionSortCutoff());
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level. Short ranges are sorted in place
+     * as leaves. The source holds the range's elements sourceOffset places further along than
+     * the destination, so the offset is negated at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted as leaves
+     */
+    private static void mergeSort(int[] source, int[] destination, int left, int right,
+            int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            SortingAlgorithms.sortLeaf(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the destination
+     * array from the given index. Rather than branching on each comparison, both positions are
+     * advanced by the comparison's outcome as a 0 or 1, so the loop compiles to conditional
+     * moves.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(int[] source, int[] destination, int left, int midPoint, int right,
+            int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            int first = source[firstPosition];
+            int second = source[secondPosition];
+            int takeSecond = SortingAlgorithms.precedes(second, first, reversed) ? 1 : 0;
+            destination[outputPosition++] = takeSecond == 0 ? first : second;
+            firstPosition += 1 - takeSecond;
+            secondPosition += takeSecond;
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Sorts the given array of longs using a block quick sort. This should modify the array
+     * in-place.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void quickSort(long[] input, boolean reversed) {
+        quickSort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of longs using a block quick sort, leaving the rest of
+     * the array untouched.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void quickSort(long[] input, int fromIndex, int toIndex, boolean reversed) {
+        quickSort(input, fromIndex, toIndex - 1, SortingAlgorithms.depthLimit(toIndex - fromIndex),
+                reversed, SortingAlgorithms.getPrimitiveInsertionSortCutoff(),
+                new int[2 * BLOCK_SIZE]);
+    }
+
+    /**
+     * Block partitions the given range and sorts the smaller side recursively, looping on the
+     * larger side instead of recursing. Short ranges are sorted as leaves, and ranges which
+     * exhaust the depth limit are heap sorted.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted as leaves
+     * @param offsets Scratch space for two blocks' offsets
+     */
+    private static void quickSort(long[] input, int left, int right, int depthLimit,
+            boolean reversed, int cutoff, int[] offsets) {
+        while (right - left >= cutoff) {
+            if (depthLimit-- == 0) {
+                SortingAlgorithms.heapSort(input, left, right, reversed);
+                return;
+            }
+            int pivot = partition(input, left, right, reversed, offsets);
+            if (pivot - left < right - pivot) {
+                quickSort(input, left, pivot - 1, depthLimit, reversed, cutoff, offsets);
+                left = pivot + 1;
+            } else {
+                quickSort(input, pivot + 1, right, depthLimit, reversed, cutoff, offsets);
+                right = pivot - 1;
+            }
+        }
+        SortingAlgorithms.sortLeaf(input, left, right, reversed);
+    }
+
+    /**
+     * Partitions the given range around a sampled pivot, scanning blocks from both ends and
+     * buffering the offsets of misplaced elements before swapping them in bulk. Elements equal
+     * to the pivot may end up on either side.
+     *
+     * @param input The array to partition
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets Scratch space for two blocks' offsets
+     * @return The pivot's final index, with nothing before it that sorts after it and nothing
+     *         after it that sorts before it
+     * @requires left < right && offsets.length >= 2 * BLOCK_SIZE
+     */
+    static int partition(long[] input, int left, int right, boolean reversed, int[] offsets) {
+        int pivotIndex = SortingAlgorithms.choosePivot(input, left, right, reversed);
+        long pivot = input[pivotIndex];
+        input[pivotIndex] = input[right];
+        input[right] = pivot;
+
+        // Elements before low never sort after the pivot, and those after high never before it
+        int low = left;
+        int high = right - 1;
+        int leftStart = 0;
+        int leftCount = 0;
+        int rightStart = BLOCK_SIZE;
+        int rightCount = 0;
+        boolean lastBlocks = false;
+        while (!lastBlocks) {
+            int unscanned = high - low + 1;
+            int leftSize = BLOCK_SIZE;
+            int rightSize = BLOCK_SIZE;
+            lastBlocks = unscanned < 2 * BLOCK_SIZE;
+            if (lastBlocks) {
+                // Split whatever is left between the two blocks, one of which may be half-used
+                if (leftCount == 0 && rightCount == 0) {
+                    leftSize = unscanned / 2;
+                    rightSize = unscanned - leftSize;
+                } else if (leftCount == 0) {
+                    leftSize = unscanned - BLOCK_SIZE;
+                } else {
+                    rightSize = unscanned - BLOCK_SIZE;
+                }
+            }
+
+            if (leftCount == 0) {
+                leftStart = 0;
+                leftCount = scanLeftBlock(input, low, leftSize, pivot, reversed, offsets);
+            }
+            if (rightCount == 0) {
+                rightStart = BLOCK_SIZE;
+                rightCount = scanRightBlock(input, high, rightSize, pivot, reversed, offsets);
+            }
+
+            int swaps = Math.min(leftCount, rightCount);
+            for (int swap = 0; swap < swaps; swap++) {
+                int first = low + offsets[leftStart + swap];
+                int second = high - offsets[rightStart + swap];
+                long tempSwap = input[first];
+                input[first] = input[second];
+                input[second] = tempSwap;
+            }
+            leftStart += swaps;
+            leftCount -= swaps;
+            rightStart += swaps;
+            rightCount -= swaps;
+            if (leftCount == 0) {
+                low += leftSize;
+            }
+            if (rightCount == 0) {
+                high -= rightSize;
+            }
+        }
+
+        // At most one block still has misplaced elements, and it spans low to high; gather
+        // them at the block's far end so the two sides meet in a single boundary
+        int boundary = low;
+        if (leftCount != 0) {
+            boundary = high;
+            for (int index = leftStart + leftCount - 1; index >= leftStart; index--) {
+                int position = low + offsets[index];
+                long tempSwap = input[position];
+                input[position] = input[boundary];
+                input[boundary--] = tempSwap;
+            }
+            boundary++;
+        } else if (rightCount != 0) {
+            for (int index = rightStart + rightCount - 1; index >= rightStart; index--) {
+                int position = high - offsets[index];
+                long tempSwap = input[position];
+                input[position] = input[boundary];
+                input[boundary++] = tempSwap;
+            }
+        }
+        input[right] = input[boundary];
+        input[boundary] = pivot;
+        return boundary;
+    }
+
+    /**
+     * Records the offsets of the elements in a block which should not be left of the pivot.
+     * Every offset is written, but the count only advances past misplaced ones, so the loop has
+     * no data-dependent branch.
+     *
+     * @param input The array being partitioned
+     * @param start The index of the block's first element
+     * @param size The number of elements in the block
+     * @param pivot The pivot's value
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets The buffer to record offsets from the start in, from index 0
+     * @return The number of misplaced elements
+     */
+    private static int scanLeftBlock(long[] input, int start, int size, long pivot,
+            boolean reversed, int[] offsets) {
+        int count = 0;
+        for (int offset = 0; offset < size; offset++) {
+            offsets[count] = offset;
+            count += SortingAlgorithms.precedes(input[start + offset], pivot, reversed) ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Records the offsets of the elements in a block which should not be right of the pivot,
+     * counting back from the block's last element.
+     *
+     * @param input The array being partitioned
+     * @param end The index of the block's last element
+     * @param size The number of elements in the block
+     * @param pivot The pivot's value
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets The buffer to record offsets from the end in, from index BLOCK_SIZE
+     * @return The number of misplaced elements
+     */
+    private static int scanRightBlock(long[] input, int end, int size, long pivot,
+            boolean reversed, int[] offsets) {
+        int count = 0;
+        for (int offset = 0; offset < size; offset++) {
+            offsets[BLOCK_SIZE + count] = offset;
+            count += SortingAlgorithms.precedes(pivot, input[end - offset], reversed) ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Sorts the given array of longs using a merge sort with branch-free merging and
+     * branch-free leaf sorts. This should modify the array in-place and is stable.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void mergeSort(long[] input, boolean reversed) {
+        mergeSort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of longs using a merge sort with branch-free merging
+     * and branch-free leaf sorts, leaving the rest of the array untouched. This is stable. The
+     * range is merged back and forth between the array and a buffer only as long as the range.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void mergeSort(long[] input, int fromIndex, int toIndex, boolean reversed) {
+        long[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                SortingAlgorithms.getPrimitiveInsertionSortCutoff());
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level. Short ranges are sorted in place
+     * as leaves. The source holds the range's elements sourceOffset places further along than
+     * the destination, so the offset is negated at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted as leaves
+     */
+    private static void mergeSort(long[] source, long[] destination, int left, int right,
+            int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            SortingAlgorithms.sortLeaf(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the destination
+     * array from the given index. Rather than branching on each comparison, both positions are
+     * advanced by the comparison's outcome as a 0 or 1, so the loop compiles to conditional
+     * moves.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(long[] source, long[] destination, int left, int midPoint, int right,
+            int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            long first = source[firstPosition];
+            long second = source[secondPosition];
+            int takeSecond = SortingAlgorithms.precedes(second, first, reversed) ? 1 : 0;
+            destination[outputPosition++] = takeSecond == 0 ? first : second;
+            firstPosition += 1 - takeSecond;
+            secondPosition += takeSecond;
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Sorts the given array of doubles using a block quick sort. This should modify the array
+     * in-place.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void quickSort(double[] input, boolean reversed) {
+        quickSort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of doubles using a block quick sort, leaving the rest of
+     * the array untouched.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void quickSort(double[] input, int fromIndex, int toIndex, boolean reversed) {
+        quickSort(input, fromIndex, toIndex - 1, SortingAlgorithms.depthLimit(toIndex - fromIndex),
+                reversed, SortingAlgorithms.getPrimitiveInsertionSortCutoff(),
+                new int[2 * BLOCK_SIZE]);
+    }
+
+    /**
+     * Block partitions the given range and sorts the smaller side recursively, looping on the
+     * larger side instead of recursing. Short ranges are sorted as leaves, and ranges which
+     * exhaust the depth limit are heap sorted.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted as leaves
+     * @param offsets Scratch space for two blocks' offsets
+     */
+    private static void quickSort(double[] input, int left, int right, int depthLimit,
+            boolean reversed, int cutoff, int[] offsets) {
+        while (right - left >= cutoff) {
+            if (depthLimit-- == 0) {
+                SortingAlgorithms.heapSort(input, left, right, reversed);
+                return;
+            }
+            int pivot = partition(input, left, right, reversed, offsets);
+            if (pivot - left < right - pivot) {
+                quickSort(input, left, pivot - 1, depthLimit, reversed, cutoff, offsets);
+                left = pivot + 1;
+            } else {
+                quickSort(input, pivot + 1, right, depthLimit, reversed, cutoff, offsets);
+                right = pivot - 1;
+            }
+        }
+        SortingAlgorithms.sortLeaf(input, left, right, reversed);
+    }
+
+    /**
+     * Partitions the given range around a sampled pivot, scanning blocks from both ends and
+     * buffering the offsets of misplaced elements before swapping them in bulk. Elements equal
+     * to the pivot may end up on either side.
+     *
+     * @param input The array to partition
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets Scratch space for two blocks' offsets
+     * @return The pivot's final index, with nothing before it that sorts after it and nothing
+     *         after it that sorts before it
+     * @requires left < right && offsets.length >= 2 * BLOCK_SIZE
+     */
+    static int partition(double[] input, int left, int right, boolean reversed, int[] offsets) {
+        int pivotIndex = SortingAlgorithms.choosePivot(input, left, right, reversed);
+        double pivot = input[pivotIndex];
+        input[pivotIndex] = input[right];
+        input[right] = pivot;
+        long pivotKey = SortingAlgorithms.sortableBits(pivot);
+
+        // Elements before low never sort after the pivot, and those after high never before it
+        int low = left;
+        int high = right - 1;
+        int leftStart = 0;
+        int leftCount = 0;
+        int rightStart = BLOCK_SIZE;
+        int rightCount = 0;
+        boolean lastBlocks = false;
+        while (!lastBlocks) {
+            int unscanned = high - low + 1;
+            int leftSize = BLOCK_SIZE;
+            int rightSize = BLOCK_SIZE;
+            lastBlocks = unscanned < 2 * BLOCK_SIZE;
+            if (lastBlocks) {
+                // Split whatever is left between the two blocks, one of which may be half-used
+                if (leftCount == 0 && rightCount == 0) {
+                    leftSize = unscanned / 2;
+                    rightSize = unscanned - leftSize;
+                } else if (leftCount == 0) {
+                    leftSize = unscanned - BLOCK_SIZE;
+                } else {
+                    rightSize = unscanned - BLOCK_SIZE;
+                }
+            }
+
+            if (leftCount == 0) {
+                leftStart = 0;
+                leftCount = scanLeftBlock(input, low, leftSize, pivotKey, reversed, offsets);
+            }
+            if (rightCount == 0) {
+                rightStart = BLOCK_SIZE;
+                rightCount = scanRightBlock(input, high, rightSize, pivotKey, reversed, offsets);
+            }
+
+            int swaps = Math.min(leftCount, rightCount);
+            for (int swap = 0; swap < swaps; swap++) {
+                int first = low + offsets[leftStart + swap];
+                int second = high - offsets[rightStart + swap];
+                double tempSwap = input[first];
+                input[first] = input[second];
+                input[second] = tempSwap;
+            }
+            leftStart += swaps;
+            leftCount -= swaps;
+            rightStart += swaps;
+            rightCount -= swaps;
+            if (leftCount == 0) {
+                low += leftSize;
+            }
+            if (rightCount == 0) {
+                high -= rightSize;
+            }
+        }
+
+        // At most one block still has misplaced elements, and it spans low to high; gather
+        // them at the block's far end so the two sides meet in a single boundary
+        int boundary = low;
+        if (leftCount != 0) {
+            boundary = high;
+            for (int index = leftStart + leftCount - 1; index >= leftStart; index--) {
+                int position = low + offsets[index];
+                double tempSwap = input[position];
+                input[position] = input[boundary];
+                input[boundary--] = tempSwap;
+            }
+            boundary++;
+        } else if (rightCount != 0) {
+            for (int index = rightStart + rightCount - 1; index >= rightStart; index--) {
+                int position = high - offsets[index];
+                double tempSwap = input[position];
+                input[position] = input[boundary];
+                input[boundary++] = tempSwap;
+            }
+        }
+        input[right] = input[boundary];
+        input[boundary] = pivot;
+        return boundary;
+    }
+
+    /**
+     * Records the offsets of the elements in a block which should not be left of the pivot.
+     * Every offset is written, but the count only advances past misplaced ones, so the loop has
+     * no data-dependent branch.
+     *
+     * @param input The array being partitioned
+     * @param start The index of the block's first element
+     * @param size The number of elements in the block
+     * @param pivotKey The pivot's value, as an order-preserving long
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets The buffer to record offsets from the start in, from index 0
+     * @return The number of misplaced elements
+     */
+    private static int scanLeftBlock(double[] input, int start, int size, long pivotKey,
+            boolean reversed, int[] offsets) {
+        int count = 0;
+        for (int offset = 0; offset < size; offset++) {
+            offsets[count] = offset;
+            long key = SortingAlgorithms.sortableBits(input[start + offset]);
+            count += SortingAlgorithms.precedes(key, pivotKey, reversed) ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Records the offsets of the elements in a block which should not be right of the pivot,
+     * counting back from the block's last element.
+     *
+     * @param input The array being partitioned
+     * @param end The index of the block's last element
+     * @param size The number of elements in the block
+     * @param pivotKey The pivot's value, as an order-preserving long
+     * @param reversed Whether the array is to be partitioned into descending order
+     * @param offsets The buffer to record offsets from the end in, from index BLOCK_SIZE
+     * @return The number of misplaced elements
+     */
+    private static int scanRightBlock(double[] input, int end, int size, long pivotKey,
+            boolean reversed, int[] offsets) {
+        int count = 0;
+        for (int offset = 0; offset < size; offset++) {
+            offsets[BLOCK_SIZE + count] = offset;
+            long key = SortingAlgorithms.sortableBits(input[end - offset]);
+            count += SortingAlgorithms.precedes(pivotKey, key, reversed) ? 0 : 1;
+        }
+        return count;
+    }
+
+    /**
+     * Sorts the given array of doubles using a merge sort with branch-free merging and
+     * branch-free leaf sorts. This should modify the array in-place and is stable.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void mergeSort(double[] input, boolean reversed) {
+        mergeSort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of doubles using a merge sort with branch-free merging
+     * and branch-free leaf sorts, leaving the rest of the array untouched. This is stable. The
+     * range is merged back and forth between the array and a buffer only as long as the range.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void mergeSort(double[] input, int fromIndex, int toIndex, boolean reversed) {
+        double[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                SortingAlgorithms.getPrimitiveInsertionSortCutoff());
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level. Short ranges are sorted in place
+     * as leaves. The source holds the range's elements sourceOffset places further along than
+     * the destination, so the offset is negated at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted as leaves
+     */
+    private static void mergeSort(double[] source, double[] destination, int left, int right,
+            int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            SortingAlgorithms.sortLeaf(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the destination
+     * array from the given index. Rather than branching on each comparison, both positions are
+     * advanced by the comparison's outcome as a 0 or 1, so the loop compiles to conditional
+     * moves.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(double[] source, double[] destination, int left, int midPoint, int right,
+            int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            double first = source[firstPosition];
+            double second = source[secondPosition];
+            long firstKey = SortingAlgorithms.sortableBits(first);
+            long secondKey = SortingAlgorithms.sortableBits(second);
+            int takeSecond = SortingAlgorithms.precedes(secondKey, firstKey, reversed) ? 1 : 0;
+            destination[outputPosition++] = takeSecond == 0 ? first : second;
+            firstPosition += 1 - takeSecond;
+            secondPosition += takeSecond;
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+}
@@ -0,0 +1,263 @@
+import java.util.Arrays;
+
+/**
+ * Lexicographic sorts of data held as parallel columns (struct-of-arrays), which never gather
+ * the columns into row objects. Rows are ordered by the first key column; only ranges of rows
+ * tied on that column are then ordered by the second, and so on, so later columns are read only
+ * where earlier ones could not decide. Each column carries its own reversed flag.
+ *
+ * The sort produces a permutation of row indices rather than moving any column, so any number
+ * of further payload columns can be brought into the same order with {@link #permute}. Every
+ * pass is a stable merge sort of the row indices, so rows tied on all keys keep their original
+ * relative order.
+ */
+final class ColumnarSort {
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private ColumnarSort() {}
+
+    /**
+     * A key column to sort rows by, along with the direction to sort it in.
+     */
+    abstract static class Column {
+
+        /**
+         * Key columns are only created by the factory methods of the enclosing class.
+         */
+        private Column() {}
+
+        /**
+         * Gets the number of rows in this column.
+         *
+         * @return The column's length
+         */
+        abstract int length();
+
+        /**
+         * Stably sorts the given range of row indices by this column.
+         *
+         * @param rows The row indices to rearrange
+         * @param buffer Scratch space as long as rows
+         * @param left The left-most position of interest
+         * @param right The right-most position of interest
+         */
+        abstract void sort(int[] rows, int[] buffer, int left, int right);
+
+        /**
+         * Checks whether two rows have equal values in this column.
+         *
+         * @param first The index of the first row
+         * @param second The index of the second row
+         * @return Whether neither row precedes the other in this column
+         */
+        abstract boolean ties(int first, int second);
+    }
+
+    /**
+     * Creates a key column of integers.
+     *
+     * @param values The column's values, indexed by row
+     * @param reversed Whether the column should be sorted descending
+     * @return The key column
+     * @requires values != null
+     */
+    static Column column(int[] values, boolean reversed) {
+        return new Column() {
+            @Override
+            int length() {
+                return values.length;
+            }
+
+            @Override
+            void sort(int[] rows, int[] buffer, int left, int right) {
+                System.arraycopy(rows, left, buffer, left, right - left + 1);
+                ArgSort.mergeSort(values, buffer, rows, left, right, reversed);
+            }
+
+            @Override
+            boolean ties(int first, int second) {
+                return values[first] == values[second];
+            }
+        };
+    }
+
+    /**
+     * Creates a key column of longs.
+     *
+     * @param values The column's values, indexed by row
+     * @param reversed Whether the column should be sorted descending
+     * @return The key column
+     * @requires values != null
+     */
+    static Column column(long[] values, boolean reversed) {
+        return new Column() {
+            @Override
+            int length() {
+                return values.length;
+            }
+
+            @Override
+            void sort(int[] rows, int[] buffer, int left, int right) {
+                System.arraycopy(rows, left, buffer, left, right - left + 1);
+                ArgSort.mergeSort(values, buffer, rows, left, right, reversed);
+            }
+
+            @Override
+            boolean ties(int first, int second) {
+                return values[first] == values[second];
+            }
+        };
+    }
+
+    /**
+     * Creates a key column of doubles, ordered as by {@link Double#compare}.
+     *
+     * @param values The column's values, indexed by row
+     * @param reversed Whether the column should be sorted descending
+     * @return The key column
+     * @requires values != null
+     */
+    static Column column(double[] values, boolean reversed) {
+        return new Column() {
+            @Override
+            int length() {
+                return values.length;
+            }
+
+            @Override
+            void sort(int[] rows, int[] buffer, int left, int right) {
+                System.arraycopy(rows, left, buffer, left, right - left + 1);
+                ArgSort.mergeSort(values, buffer, rows, left, right, reversed);
+            }
+
+            @Override
+            boolean ties(int first, int second) {
+                return Double.compare(values[first], values[second]) == 0;
+            }
+        };
+    }
+
+    /**
+     * Finds the order of rows sorted by the given key columns, compared lexicographically.
+     *
+     * @param keys The key columns, most significant first
+     * @return An array whose i-th element is the index of the row that sorts to position i
+     * @throws IllegalArgumentException if no key is given or the keys differ in length
+     * @requires keys != null && no element of keys is null
+     */
+    static int[] sort(Column... keys) throws IllegalArgumentException {
+        if (keys.length == 0) {
+            throw new IllegalArgumentException("At least one key column is required.");
+        }
+        int length = keys[0].length();
+        for (Column key : keys) {
+            if (key.length() != length) {
+                throw new IllegalArgumentException("Key columns must all be the same length.");
+            }
+        }
+
+        int[] rows = new int[length];
+        for (int row = 0; row < length; row++) {
+            rows[row] = row;
+        }
+        refine(keys, 0, rows, new int[length], 0, length - 1);
+        return rows;
+    }
+
+    /**
+     * Sorts the given range of rows by the given key column, then sorts each run of rows tied
+     * on it by the next key column.
+     *
+     * @param keys The key columns, most significant first
+     * @param key The index of the key column to sort by
+     * @param rows The row indices to rearrange
+     * @param buffer Scratch space as long as rows
+     * @param left The left-most position of interest
+     * @param right The right-most position of interest
+     */
+    private static void refine(Column[] keys, int key, int[] rows, int[] buffer, int left,
+            int right) {
+        Column column = keys[key];
+        column.sort(rows, buffer, left, right);
+        if (key + 1 == keys.length) {
+            return;
+        }
+
+        int runStart = left;
+        for (int position = left + 1; position <= right + 1; position++) {
+            if (position > right || !column.ties(rows[runStart], rows[position])) {
+                if (position - 1 > runStart) {
+                    refine(keys, key + 1, rows, buffer, runStart, position - 1);
+                }
+                runStart = position;
+            }
+        }
+    }
+
+    /**
+     * Brings a column of integers into the given row order.
+     *
+     * @param column The column to reorder, which is left unmodified
+     * @param order The row order, as returned by {@link #sort}
+     * @return A new column whose i-th value is that of row order[i]
+     * @requires column != null && order is a permutation of column's indices
+     */
+    static int[] permute(int[] column, int[] order) {
+        int[] permuted = new int[order.length];
+        for (int position = 0; position < order.length; position++) {
+            permuted[position] = column[order[position]];
+        }
+        return permuted;
+    }
+
+    /**
+     * Brings a column of longs into the given row order.
+     *
+     * @param column The column to reorder, which is left unmodified
+     * @param order The row order, as returned by {@link #sort}
+     * @return A new column whose i-th value is that of row order[i]
+     * @requires column != null && order is a permutation of column's indices
+     */
+    static long[] permute(long[] column, int[] order) {
+        long[] permuted = new long[order.length];
+        for (int position = 0; position < order.length; position++) {
+            permuted[position] = column[order[position]];
+        }
+        return permuted;
+    }
+
+    /**
+     * Brings a column of doubles into the given row order.
+     *
+     * @param column The column to reorder, which is left unmodified
+     * @param order The row order, as returned by {@link #sort}
+     * @return A new column whose i-th value is that of row order[i]
+     * @requires column != null && order is a permutation of column's indices
+     */
+    static double[] permute(double[] column, int[] order) {
+        double[] permuted = new double[order.length];
+        for (int position = 0; position < order.length; position++) {
+            permuted[position] = column[order[position]];
+        }
+        return permuted;
+    }
+
+    /**
+     * Brings a column of objects into the given row order.
+     *
+     * @param column The column to reorder, which is left unmodified
+     * @param order The row order, as returned by {@link #sort}
+     * @param <T> Type of the column's values.
+     * @return A new column whose i-th value is that of row order[i]
+     * @requires column != null && order is a permutation of column's indices
+     */
+    static <T> T[] permute(T[] column, int[] order) {
+        T[] permuted = Arrays.copyOf(column, order.length);
+        for (int position = 0; position < order.length; position++) {
+            permuted[position] = column[order[position]];
+        }
+        return permuted;
+    }
+}
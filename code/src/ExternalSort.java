@@ -0,0 +1,429 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * External merge sort for files of fixed-width binary records too large to sort in memory.
+ *
+ * The input is read through a FileChannel in chunks as large as the memory budget allows. Each
+ * chunk's keys are extracted and radix sorted along with the records' positions, the records are
+ * written out in that order, and the sorted chunk is spilled to a temporary run file. Runs are
+ * then merged, at most fan-in at a time, by a loser tree: a tournament tree holding the loser of
+ * each match, so replacing the winner with the next record of its run takes a single pass from
+ * leaf to root of log2(fan-in) comparisons. Merges repeat until one run remains, which is written
+ * to the output. Every run is read and written through buffers which together fit the budget.
+ *
+ * Ties between equal keys are broken by run, and runs are merged in the order their records
+ * appeared in, so the sort is stable.
+ */
+final class ExternalSort {
+
+    /** Memory budget used when none is given, in bytes. */
+    static final long DEFAULT_MEMORY_BUDGET = 64L << 20;
+
+    /** Number of runs merged at once when no fan-in is given. */
+    static final int DEFAULT_FAN_IN = 64;
+
+    /**
+     * Bytes used per record to sort a chunk, besides two copies of the records themselves: the
+     * extracted key, which doubles as one of the radix sort's key buffers, the other key buffer,
+     * and two arrays of record indices.
+     */
+    private static final int SORT_BYTES_PER_RECORD = 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private ExternalSort() {}
+
+    /**
+     * Sorts the records of the input file into the output file.
+     *
+     * @param input The file of records to sort
+     * @param output The file to write the sorted records to, replacing any existing contents
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be sorted in reverse order
+     * @param memoryBudget The number of bytes the sort may use for records and their keys
+     * @param fanIn The largest number of runs to merge at once
+     * @param tempDirectory The directory to spill sorted runs to
+     * @throws IllegalArgumentException if fanIn < 2, the budget cannot hold a record for every
+     *                                  run being merged, or the input is not made of whole
+     *                                  records
+     * @throws IOException if the input cannot be read, or the output or a run cannot be written
+     * @requires all arguments are non-null && input and output are different files
+     */
+    static void sort(Path input, Path output, RecordLayout layout, boolean reversed,
+            long memoryBudget, int fanIn, Path tempDirectory)
+            throws IllegalArgumentException, IOException {
+        int recordLength = layout.recordLength;
+        if (fanIn < 2) {
+            throw new IllegalArgumentException("Fan-in must be at least 2.");
+        }
+        if (memoryBudget / recordLength < fanIn + 1L) {
+            throw new IllegalArgumentException("Memory budget must hold a record for each run.");
+        }
+
+        // Live temporary files, so that whatever happens none are left behind
+        List<Path> spilled = new ArrayList<>();
+        try {
+            List<Path> runs = spillSortedRuns(input, output, layout, reversed, memoryBudget,
+                    tempDirectory, spilled);
+            while (runs.size() > fanIn) {
+                List<Path> merged = new ArrayList<>();
+                for (int first = 0; first < runs.size(); first += fanIn) {
+                    List<Path> group = runs.subList(first, Math.min(first + fanIn, runs.size()));
+                    if (group.size() == 1) {
+                        merged.add(group.get(0));
+                        continue;
+                    }
+                    Path run = Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+                    spilled.add(run);
+                    merge(group, run, layout, reversed, memoryBudget);
+                    merged.add(run);
+                    for (Path source : group) {
+                        Files.delete(source);
+                        spilled.remove(source);
+                    }
+                }
+                runs = merged;
+            }
+            if (!runs.isEmpty()) {
+                merge(runs, output, layout, reversed, memoryBudget);
+            }
+        } finally {
+            for (Path run : spilled) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    /**
+     * Reads the input in chunks that fit the memory budget, sorts each chunk, and spills it to
+     * a temporary run. An input that fits in a single chunk is written straight to the output.
+     *
+     * @param input The file of records to sort
+     * @param output The file to write the records to if they fit in a single chunk
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be sorted in reverse order
+     * @param memoryBudget The number of bytes the sort may use for records and their keys
+     * @param tempDirectory The directory to spill sorted runs to
+     * @param spilled The list to add each temporary file to as soon as it is created
+     * @return The sorted runs in input order, or no runs if the output has been written
+     * @throws IllegalArgumentException if the input is not made of whole records
+     * @throws IOException if the input cannot be read, or the output or a run cannot be written
+     */
+    private static List<Path> spillSortedRuns(Path input, Path output, RecordLayout layout,
+            boolean reversed, long memoryBudget, Path tempDirectory, List<Path> spilled)
+            throws IllegalArgumentException, IOException {
+        int recordLength = layout.recordLength;
+        List<Path> runs = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            long totalRecords = channel.size() / recordLength;
+            if (channel.size() % recordLength != 0) {
+                throw new IllegalArgumentException(
+                        "Input length must be a whole number of records.");
+            }
+
+            long chunkRecords = Math.min(memoryBudget / (2L * recordLength + SORT_BYTES_PER_RECORD),
+                    Integer.MAX_VALUE / recordLength);
+            int capacity = (int) Math.max(1, Math.min(chunkRecords, totalRecords));
+            ByteBuffer chunk = ByteBuffer.allocate(capacity * recordLength);
+            ByteBuffer sorted = ByteBuffer.allocate(capacity * recordLength);
+
+            if (totalRecords <= capacity) {
+                int records = fill(channel, chunk) / recordLength;
+                sortChunk(chunk, sorted, records, layout, reversed);
+                write(sorted, output);
+                return runs;
+            }
+            for (int records = fill(channel, chunk) / recordLength; records > 0;
+                    records = fill(channel, chunk) / recordLength) {
+                sortChunk(chunk, sorted, records, layout, reversed);
+                Path run = Files.createTempFile(tempDirectory, "sort-run-", ".bin");
+                spilled.add(run);
+                write(sorted, run);
+                runs.add(run);
+            }
+        }
+        return runs;
+    }
+
+    /**
+     * Sorts the records of a chunk into a second buffer. The keys are extracted once, radix
+     * sorted along with the records' positions, and the records are then copied over in order.
+     *
+     * @param chunk The buffer holding the records, from index 0
+     * @param sorted The buffer to write the sorted records to, from index 0
+     * @param records The number of records in the chunk
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be sorted in reverse order
+     */
+    private static void sortChunk(ByteBuffer chunk, ByteBuffer sorted, int records,
+            RecordLayout layout, boolean reversed) {
+        int recordLength = layout.recordLength;
+        long[] keys = new long[records];
+        for (int record = 0; record < records; record++) {
+            keys[record] = layout.key(chunk, record * recordLength);
+        }
+        int[] order = RadixSort.sortedIndices(keys, reversed, true);
+
+        byte[] source = chunk.array();
+        byte[] destination = sorted.array();
+        for (int position = 0; position < records; position++) {
+            System.arraycopy(source, order[position] * recordLength, destination,
+                    position * recordLength, recordLength);
+        }
+        sorted.clear().limit(records * recordLength);
+    }
+
+    /**
+     * Merges the given sorted runs into the destination file with a loser tree. The memory
+     * budget is split evenly between a buffer for each run and one for the destination.
+     *
+     * @param runs The sorted runs to merge, in input order
+     * @param destination The file to write the merged records to
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be sorted in reverse order
+     * @param memoryBudget The number of bytes the merge may use for buffers
+     * @throws IOException if a run cannot be read or the destination cannot be written
+     */
+    private static void merge(List<Path> runs, Path destination, RecordLayout layout,
+            boolean reversed, long memoryBudget) throws IOException {
+        int recordLength = layout.recordLength;
+        long bufferRecords = Math.min(memoryBudget / ((runs.size() + 1L) * recordLength),
+                Integer.MAX_VALUE / recordLength);
+        int bufferLength = (int) bufferRecords * recordLength;
+
+        RunReader[] readers = new RunReader[runs.size()];
+        try (FileChannel channel = FileChannel.open(destination, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int run = 0; run < readers.length; run++) {
+                readers[run] = new RunReader(runs.get(run), bufferLength, layout);
+            }
+
+            ByteBuffer merged = ByteBuffer.allocate(bufferLength);
+            LoserTree tree = new LoserTree(readers, reversed);
+            for (int winner = tree.winner(); winner >= 0; winner = tree.winner()) {
+                if (!merged.hasRemaining()) {
+                    drain(merged.flip(), channel);
+                    merged.clear();
+                }
+                RunReader reader = readers[winner];
+                merged.put(reader.buffer.array(), reader.position, recordLength);
+                reader.advance();
+                tree.replay(winner);
+            }
+            drain(merged.flip(), channel);
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.channel.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads from the channel until the buffer is full or the channel is exhausted.
+     *
+     * @param channel The channel to read from
+     * @param buffer The buffer to fill, which is cleared first and flipped afterwards
+     * @return The number of bytes read
+     * @throws IOException if the channel cannot be read
+     */
+    private static int fill(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+            // Keep reading, as a single read may return fewer bytes than are available
+        }
+        buffer.flip();
+        return buffer.limit();
+    }
+
+    /**
+     * Writes the remaining bytes of the buffer to the given file, replacing its contents.
+     *
+     * @param buffer The bytes to write
+     * @param file The file to write to
+     * @throws IOException if the file cannot be written
+     */
+    private static void write(ByteBuffer buffer, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            drain(buffer, channel);
+        }
+    }
+
+    /**
+     * Writes every remaining byte of the buffer to the channel.
+     *
+     * @param buffer The bytes to write
+     * @param channel The channel to write to
+     * @throws IOException if the channel cannot be written
+     */
+    private static void drain(ByteBuffer buffer, FileChannel channel) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Reads the records of a sorted run one at a time through a buffer, keeping the key of the
+     * current record at hand for the loser tree.
+     */
+    private static final class RunReader {
+
+        /** The channel the run is read from. */
+        private final FileChannel channel;
+
+        /** The buffered records of the run, from the current one onwards. */
+        private final ByteBuffer buffer;
+
+        /** The layout of each record, including its key. */
+        private final RecordLayout layout;
+
+        /** The index in the buffer of the current record's first byte. */
+        private int position;
+
+        /** The key of the current record. */
+        private long key;
+
+        /** Whether every record of the run has been consumed. */
+        private boolean exhausted;
+
+        /**
+         * Opens a run and reads its first record.
+         *
+         * @param run The file holding the run
+         * @param bufferLength The number of bytes to buffer, a multiple of the record length
+         * @param layout The layout of each record, including its key
+         * @throws IOException if the run cannot be opened or read
+         */
+        RunReader(Path run, int bufferLength, RecordLayout layout) throws IOException {
+            this.channel = FileChannel.open(run, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocate(bufferLength);
+            this.layout = layout;
+            refill();
+        }
+
+        /**
+         * Moves on to the run's next record.
+         *
+         * @throws IOException if the run cannot be read
+         */
+        void advance() throws IOException {
+            position += layout.recordLength;
+            if (position < buffer.limit()) {
+                key = layout.key(buffer, position);
+            } else {
+                refill();
+            }
+        }
+
+        /**
+         * Reads the next buffer of records, marking the run exhausted if there are none.
+         *
+         * @throws IOException if the run cannot be read
+         */
+        private void refill() throws IOException {
+            position = 0;
+            if (fill(channel, buffer) == 0) {
+                exhausted = true;
+            } else {
+                key = layout.key(buffer, 0);
+            }
+        }
+    }
+
+    /**
+     * A tournament tree over the current records of several runs, in which each internal node
+     * holds the run that lost the match played there and the root holds the overall winner.
+     * Runs are leaves k to 2k - 1 of an implicit binary tree over k runs, so the node above
+     * run i is (i + k) / 2.
+     */
+    private static final class LoserTree {
+
+        /** The runs being merged. */
+        private final RunReader[] readers;
+
+        /** Whether records are being merged in reverse order. */
+        private final boolean reversed;
+
+        /** The overall winner at index 0, then the loser of each internal node. */
+        private final int[] tree;
+
+        /**
+         * Builds the tree by playing each run's first record up from its leaf.
+         *
+         * @param readers The runs being merged, at least one
+         * @param reversed Whether records are being merged in reverse order
+         */
+        LoserTree(RunReader[] readers, boolean reversed) {
+            this.readers = readers;
+            this.reversed = reversed;
+            this.tree = new int[readers.length];
+            Arrays.fill(tree, -1);
+            for (int run = 0; run < readers.length; run++) {
+                replay(run);
+            }
+        }
+
+        /**
+         * Gets the run whose current record should be merged next.
+         *
+         * @return The winning run, or -1 if every run is exhausted
+         */
+        int winner() {
+            return readers[tree[0]].exhausted ? -1 : tree[0];
+        }
+
+        /**
+         * Plays the given run's current record against the losers on the path from its leaf to
+         * the root. While the tree is being built, a run reaching an empty node waits there for
+         * its opponent instead.
+         *
+         * @param run The run whose current record has changed
+         */
+        void replay(int run) {
+            int winner = run;
+            for (int node = (run + tree.length) >>> 1; node > 0; node >>>= 1) {
+                int opponent = tree[node];
+                if (opponent < 0) {
+                    tree[node] = winner;
+                    return;
+                }
+                if (beats(opponent, winner)) {
+                    tree[node] = winner;
+                    winner = opponent;
+                }
+            }
+            tree[0] = winner;
+        }
+
+        /**
+         * Checks whether one run's current record should be merged before another's. Exhausted
+         * runs lose to any other, and ties go to the earlier run so that the merge is stable.
+         *
+         * @param first The first run
+         * @param second The second run
+         * @return Whether the first run's record comes first
+         */
+        private boolean beats(int first, int second) {
+            RunReader firstReader = readers[first];
+            RunReader secondReader = readers[second];
+            if (firstReader.exhausted || secondReader.exhausted) {
+                return !firstReader.exhausted;
+            }
+            if (firstReader.key != secondReader.key) {
+                return SortingAlgorithms.precedes(firstReader.key, secondReader.key, reversed);
+            }
+            return first < second;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * An adaptive, stable merge sort which exploits runs already present in the input. Ascending
+ * runs are used as-is and strictly descending runs are reversed in place, so sorted and reverse
+ * sorted input is handled in O(n) time. Runs shorter than {@link #MIN_RUN_LENGTH} are extended
+ * with binary insertion sort.
+ *
+ * Which runs to merge is decided by Munro and Wild's powersort rule. Each boundary between two
+ * runs is given a power: the depth at which the midpoints of the two runs are first separated
+ * when the range is repeatedly halved. Pending runs are kept on a stack whose boundary powers
+ * strictly increase, and a boundary of lower power first merges every pending boundary above
+ * it. This approximates the merge tree of a perfectly balanced merge sort over the actual runs,
+ * bounding the total merge cost by O(n log n), and by O(n) plus the entropy of the run lengths.
+ *
+ * Merges copy the left run into a buffer and merge forwards. A prefix of the left run and a
+ * suffix of the right run which are already in place are skipped first, and whenever one run
+ * wins {@link #GALLOP_THRESHOLD} times in a row the merge gallops: it finds how far that run
+ * keeps winning by exponential search, then moves the whole stretch with one array copy.
+ *
+ * Ranges here are described by an inclusive low index and an exclusive high index.
+ *
+ * @param <T> Array element type to be sorted.
+ */
+final class NaturalMergeSort<T> {
+
+    /** Runs shorter than this are extended by binary insertion sort. */
+    private static final int MIN_RUN_LENGTH = 24;
+
+    /** Number of consecutive wins by one run after which a merge gallops. */
+    private static final int GALLOP_THRESHOLD = 8;
+
+    /**
+     * Maximum number of pending runs. Boundary powers on the stack strictly increase and are at
+     * most 32 for any range an int can index.
+     */
+    private static final int MAX_PENDING_RUNS = Integer.SIZE + 1;
+
+    /** The array being sorted. */
+    private final T[] input;
+
+    /** The ordering to sort by. */
+    private final Comparator<? super T> comparator;
+
+    /** Temporary storage for the left run of a merge, grown as needed. */
+    private T[] buffer;
+
+    /**
+     * Creates the state needed to sort the given array.
+     *
+     * @param input The array being sorted
+     * @param comparator The ordering to sort by
+     */
+    private NaturalMergeSort(T[] input, Comparator<? super T> comparator) {
+        this.input = input;
+        this.comparator = comparator;
+        this.buffer = Arrays.copyOf(input, 0);
+    }
+
+    /**
+     * Sorts the given range of the array in comparator order.
+     *
+     * @param input The array to sort
+     * @param low The index of the first element to sort
+     * @param high One past the index of the last element to sort
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null && 0 <= low <= high <= input.length
+     */
+    static <T> void sort(T[] input, int low, int high, Comparator<? super T> comparator) {
+        if (high - low < 2) {
+            return;
+        }
+
+        NaturalMergeSort<T> sorter = new NaturalMergeSort<>(input, comparator);
+        int[] pendingStarts = new int[MAX_PENDING_RUNS];
+        int[] pendingPowers = new int[MAX_PENDING_RUNS];
+        int pending = 0;
+
+        int runStart = low;
+        int runEnd = sorter.nextRun(low, high);
+        while (runEnd < high) {
+            int nextEnd = sorter.nextRun(runEnd, high);
+            int power = power(low, high, runStart, runEnd, nextEnd);
+
+            // Merge the pending runs which belong deeper in the merge tree than this boundary
+            while (pending > 0 && pendingPowers[pending - 1] > power) {
+                pending--;
+                sorter.merge(pendingStarts[pending], runStart, runEnd);
+                runStart = pendingStarts[pending];
+            }
+            pendingStarts[pending] = runStart;
+            pendingPowers[pending] = power;
+            pending++;
+
+            runStart = runEnd;
+            runEnd = nextEnd;
+        }
+
+        while (pending > 0) {
+            pending--;
+            sorter.merge(pendingStarts[pending], runStart, high);
+            runStart = pendingStarts[pending];
+        }
+    }
+
+    /**
+     * Finds the run starting at the given index, making it ascending and at least
+     * {@link #MIN_RUN_LENGTH} long (or as long as the range allows). Descending runs must be
+     * strict, so that reversing them keeps equal elements in their original order.
+     *
+     * @param start The index the run starts at
+     * @param high One past the last index the run may extend to
+     * @return One past the index of the run's last element
+     */
+    private int nextRun(int start, int high) {
+        int end = start + 1;
+        if (end < high) {
+            if (comparator.compare(input[end], input[start]) < 0) {
+                end++;
+                while (end < high && comparator.compare(input[end], input[end - 1]) < 0) {
+                    end++;
+                }
+                reverse(start, end);
+            } else {
+                end++;
+                while (end < high && comparator.compare(input[end], input[end - 1]) >= 0) {
+                    end++;
+                }
+            }
+        }
+
+        if (end - start < MIN_RUN_LENGTH && end < high) {
+            end = Math.min(high, start + MIN_RUN_LENGTH);
+            SortingAlgorithms.binaryInsertionSort(input, start, end - 1, comparator);
+        }
+        return end;
+    }
+
+    /**
+     * Computes the power of the boundary between two adjacent runs: the number of halvings of
+     * the whole range after which the runs' midpoints first fall into different halves.
+     * Midpoints are kept doubled, relative to low, so that they stay whole numbers.
+     *
+     * @param low The index of the first element being sorted
+     * @param high One past the index of the last element being sorted
+     * @param firstStart The index of the first run
+     * @param secondStart The index of the second run, which ends the first
+     * @param secondEnd One past the index of the second run's last element
+     * @return The boundary's power, at least 1
+     */
+    private static int power(int low, int high, int firstStart, int secondStart, int secondEnd) {
+        long length = high - low;
+        long firstMiddle = (long) firstStart + secondStart - 2L * low;
+        long secondMiddle = (long) secondStart + secondEnd - 2L * low;
+        int power = 0;
+        while (true) {
+            power++;
+            boolean firstUpper = firstMiddle >= length;
+            if (firstUpper != (secondMiddle >= length)) {
+                return power;
+            }
+            if (firstUpper) {
+                firstMiddle -= length;
+                secondMiddle -= length;
+            }
+            firstMiddle <<= 1;
+            secondMiddle <<= 1;
+        }
+    }
+
+    /**
+     * Merges the two adjacent sorted ranges [low, middle) and [middle, high).
+     *
+     * @param low The index of the first range
+     * @param middle The index of the second range, which ends the first
+     * @param high One past the index of the second range's last element
+     */
+    private void merge(int low, int middle, int high) {
+        // Left elements no greater than the first right element, and right elements no less
+        // than the last left element, are already where they belong
+        low = gallop(input[middle], input, low, middle, false);
+        if (low == middle) {
+            return;
+        }
+        high = gallop(input[middle - 1], input, middle, high, true);
+
+        int leftLength = middle - low;
+        T[] left = bufferFor(leftLength);
+        System.arraycopy(input, low, left, 0, leftLength);
+
+        int leftCursor = 0;
+        int rightCursor = middle;
+        int destination = low;
+        int leftWins = 0;
+        int rightWins = 0;
+        while (leftCursor < leftLength && rightCursor < high) {
+            if (comparator.compare(input[rightCursor], left[leftCursor]) < 0) {
+                input[destination++] = input[rightCursor++];
+                rightWins++;
+                leftWins = 0;
+                if (rightWins >= GALLOP_THRESHOLD) {
+                    // Copy every right element that still sorts before the next left element
+                    int end = gallop(left[leftCursor], input, rightCursor, high, true);
+                    System.arraycopy(input, rightCursor, input, destination, end - rightCursor);
+                    destination += end - rightCursor;
+                    rightCursor = end;
+                    rightWins = 0;
+                }
+            } else {
+                // Equal elements are taken from the left, which keeps the merge stable
+                input[destination++] = left[leftCursor++];
+                leftWins++;
+                rightWins = 0;
+                if (leftWins >= GALLOP_THRESHOLD && rightCursor < high) {
+                    int end = gallop(input[rightCursor], left, leftCursor, leftLength, false);
+                    System.arraycopy(left, leftCursor, input, destination, end - leftCursor);
+                    destination += end - leftCursor;
+                    leftCursor = end;
+                    leftWins = 0;
+                }
+            }
+        }
+
+        // Any right elements left over are already in place
+        System.arraycopy(left, leftCursor, input, destination, leftLength - leftCursor);
+    }
+
+    /**
+     * Finds the end of the longest prefix of the sorted range whose elements sort before the
+     * key (or, if not strict, do not sort after it). Probes at exponentially growing distances
+     * from the start of the range, then binary searches the last gap, so it costs O(log k)
+     * comparisons where k is the length of the prefix.
+     *
+     * @param key The element to compare against
+     * @param array The array holding the sorted range
+     * @param from The index of the first element of the range
+     * @param to One past the index of the last element of the range
+     * @param strict Whether elements equal to the key end the prefix
+     * @return The index one past the end of the prefix
+     */
+    private int gallop(T key, T[] array, int from, int to, boolean strict) {
+        int known = from;
+        int unknown = to;
+        for (int step = 1; step - 1 < to - known; step <<= 1) {
+            int probe = known + step - 1;
+            if (precedes(array[probe], key, strict)) {
+                known = probe + 1;
+            } else {
+                unknown = probe;
+                break;
+            }
+        }
+
+        while (known < unknown) {
+            int midPoint = (known + unknown) >>> 1;
+            if (precedes(array[midPoint], key, strict)) {
+                known = midPoint + 1;
+            } else {
+                unknown = midPoint;
+            }
+        }
+        return known;
+    }
+
+    /**
+     * Checks whether an element belongs in a prefix searched for by {@link #gallop}.
+     *
+     * @param element The element to check
+     * @param key The element being searched against
+     * @param strict Whether elements equal to the key are excluded
+     * @return Whether the element sorts before the key, or equal to it if not strict
+     */
+    private boolean precedes(T element, T key, boolean strict) {
+        int order = comparator.compare(element, key);
+        return strict ? order < 0 : order <= 0;
+    }
+
+    /**
+     * Reverses the given range of the array in place.
+     *
+     * @param low The index of the first element in the range
+     * @param high One past the index of the last element in the range
+     */
+    private void reverse(int low, int high) {
+        for (high--; low < high; low++, high--) {
+            T tempSwap = input[low];
+            input[low] = input[high];
+            input[high] = tempSwap;
+        }
+    }
+
+    /**
+     * Returns a merge buffer of at least the given length, growing the current one to at least
+     * twice its length (capped at the input's length) if it is too short. The buffer is copied
+     * from the input array, so it shares the input's runtime element type.
+     *
+     * @param length The number of elements the buffer must hold
+     * @return The merge buffer
+     */
+    private T[] bufferFor(int length) {
+        if (buffer.length < length) {
+            int grown = Math.min(Math.max(2 * buffer.length, 256), input.length);
+            buffer = Arrays.copyOf(input, Math.max(length, grown));
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,188 @@
+import java.nio.ByteBuffer;
+
+/**
+ * Sorts of fixed-width binary records held in a ByteBuffer, typically a direct buffer or a
+ * memory-mapped file, which never materialize the records as heap objects. The records span the
+ * buffer's remaining bytes, from its position to its limit, and the buffer's position, limit and
+ * byte order are left as they are.
+ *
+ * Records can be ordered through a compact index of primitive keys and record numbers, which is
+ * radix sorted and then either returned or applied to the buffer by following the permutation's
+ * cycles, so that each record is moved at most once. Where even the index is too large, records
+ * can instead be heap sorted by swapping them in place, reading each key from the buffer.
+ */
+final class OffHeapSort {
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private OffHeapSort() {}
+
+    /**
+     * Finds the order in which the buffer's records would be sorted, without moving them. Each
+     * record's key is read once into an array of longs, which is radix sorted along with the
+     * record numbers. Equal keys keep their original relative order.
+     *
+     * @param records The buffer holding the records, which is left unmodified
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be ordered in reverse
+     * @return An array whose i-th element is the number of the record that sorts to position i
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     * @requires records != null && layout != null
+     */
+    static int[] order(ByteBuffer records, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException {
+        int count = recordCount(records, layout);
+        int base = records.position();
+        long[] keys = new long[count];
+        for (int record = 0; record < count; record++) {
+            keys[record] = layout.key(records, base + record * layout.recordLength);
+        }
+        return RadixSort.sortedIndices(keys, reversed, true);
+    }
+
+    /**
+     * Sorts the buffer's records in place. The records are ordered through a key index, then
+     * moved along each cycle of the resulting permutation via a single record of scratch space.
+     * The sort is stable.
+     *
+     * @param records The buffer holding the records
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be sorted in reverse order
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     * @requires records != null && layout != null && records is not read-only
+     */
+    static void sort(ByteBuffer records, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException {
+        int[] order = order(records, layout, reversed);
+        int base = records.position();
+        int recordLength = layout.recordLength;
+        byte[] scratch = new byte[recordLength];
+
+        for (int start = 0; start < order.length; start++) {
+            if (order[start] == start) {
+                continue;
+            }
+
+            // Lift the first record of the cycle out, then pull each record into the gap left
+            // by the previous one, marking positions as placed by pointing them at themselves
+            records.get(base + start * recordLength, scratch);
+            int gap = start;
+            while (order[gap] != start) {
+                int next = order[gap];
+                records.put(base + gap * recordLength, records, base + next * recordLength,
+                        recordLength);
+                order[gap] = gap;
+                gap = next;
+            }
+            records.put(base + gap * recordLength, scratch);
+            order[gap] = gap;
+        }
+    }
+
+    /**
+     * Sorts the buffer's records in place by heap sort, swapping whole records and reading keys
+     * straight from the buffer. Aside from two records of scratch space no memory is allocated,
+     * at the cost of reading keys several times over. The sort is not stable.
+     *
+     * @param records The buffer holding the records
+     * @param layout The layout of each record, including its key
+     * @param reversed Whether the records should be sorted in reverse order
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     * @requires records != null && layout != null && records is not read-only
+     */
+    static void heapSort(ByteBuffer records, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException {
+        int count = recordCount(records, layout);
+        byte[] first = new byte[layout.recordLength];
+        byte[] second = new byte[layout.recordLength];
+
+        for (int parent = count / 2 - 1; parent >= 0; parent--) {
+            siftDown(records, layout, parent, count, reversed, first);
+        }
+        for (int last = count - 1; last > 0; last--) {
+            swap(records, layout, 0, last, first, second);
+            siftDown(records, layout, 0, last, reversed, first);
+        }
+    }
+
+    /**
+     * Moves the given record down the heap until neither of its children should sort after it.
+     *
+     * @param records The buffer holding the records
+     * @param layout The layout of each record, including its key
+     * @param parent The number of the record to move down
+     * @param size The number of records in the heap
+     * @param reversed Whether the records are being sorted in reverse order
+     * @param held Scratch space as long as a record
+     */
+    private static void siftDown(ByteBuffer records, RecordLayout layout, int parent, int size,
+            boolean reversed, byte[] held) {
+        int base = records.position();
+        int recordLength = layout.recordLength;
+        boolean moved = false;
+        long parentKey = layout.key(records, base + parent * recordLength);
+        for (int child = 2 * parent + 1; child < size; child = 2 * parent + 1) {
+            long childKey = layout.key(records, base + child * recordLength);
+            if (child + 1 < size) {
+                long rightKey = layout.key(records, base + (child + 1) * recordLength);
+                if (SortingAlgorithms.precedes(childKey, rightKey, reversed)) {
+                    child++;
+                    childKey = rightKey;
+                }
+            }
+            if (!SortingAlgorithms.precedes(parentKey, childKey, reversed)) {
+                break;
+            }
+
+            // Hold the sinking record aside and shift children up, placing it once at the end
+            if (!moved) {
+                records.get(base + parent * recordLength, held);
+                moved = true;
+            }
+            records.put(base + parent * recordLength, records, base + child * recordLength,
+                    recordLength);
+            parent = child;
+        }
+        if (moved) {
+            records.put(base + parent * recordLength, held);
+        }
+    }
+
+    /**
+     * Swaps two records of the buffer.
+     *
+     * @param records The buffer holding the records
+     * @param layout The layout of each record
+     * @param first The number of the first record
+     * @param second The number of the second record
+     * @param firstScratch Scratch space as long as a record
+     * @param secondScratch Scratch space as long as a record
+     */
+    private static void swap(ByteBuffer records, RecordLayout layout, int first, int second,
+            byte[] firstScratch, byte[] secondScratch) {
+        int base = records.position();
+        int firstStart = base + first * layout.recordLength;
+        int secondStart = base + second * layout.recordLength;
+        records.get(firstStart, firstScratch);
+        records.get(secondStart, secondScratch);
+        records.put(firstStart, secondScratch);
+        records.put(secondStart, firstScratch);
+    }
+
+    /**
+     * Counts the records remaining in the buffer.
+     *
+     * @param records The buffer holding the records
+     * @param layout The layout of each record
+     * @return The number of records between the buffer's position and limit
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     */
+    private static int recordCount(ByteBuffer records, RecordLayout layout)
+            throws IllegalArgumentException {
+        if (records.remaining() % layout.recordLength != 0) {
+            throw new IllegalArgumentException("Buffer must hold a whole number of records.");
+        }
+        return records.remaining() / layout.recordLength;
+    }
+}
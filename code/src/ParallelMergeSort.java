@@ -0,0 +1,1043 @@
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join implementations of merge sort. Both halves of every range longer than the sequential
+ * cutoff are sorted in parallel, and shorter ranges fall back to the sequential (buffered) merge
+ * sort in SortingAlgorithms. Optionally, merges of ranges longer than the cutoff are also split
+ * across threads, so the top levels of the recursion are not bottlenecked by a single-threaded
+ * O(n) merge.
+ *
+ * As in the sequential merge sort, a single auxiliary buffer of the sorted range's length is
+ * allocated per sort, and the input and buffer alternate roles at each level.
+ */
+final class ParallelMergeSort {
+
+    /** Default length at or below which ranges are sorted sequentially. */
+    static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private ParallelMergeSort() {}
+
+    /**
+     * Sorts the given range of an array in comparator order using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param comparator The ordering to sort by
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+     * @param parallelMerge Whether merges of ranges longer than the cutoff run in parallel
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && comparator != null && pool != null
+     *           && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static <T> void sort(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, ForkJoinPool pool, int sequentialCutoff,
+            boolean parallelMerge) throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        T[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        pool.invoke(new SortTask<>(buffer, input, fromIndex, toIndex - 1, -fromIndex, comparator,
+                sequentialCutoff, parallelMerge));
+    }
+
+    /**
+     * Sorts the given range of an array of integers using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+     * @param parallelMerge Whether merges of ranges longer than the cutoff run in parallel
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(int[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff, boolean parallelMerge)
+            throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        int[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        pool.invoke(new IntSortTask(buffer, input, fromIndex, toIndex - 1, -fromIndex,
+                reversed, sequentialCutoff, parallelMerge));
+    }
+
+    /**
+     * Sorts the given range of an array of longs using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+     * @param parallelMerge Whether merges of ranges longer than the cutoff run in parallel
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(long[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff, boolean parallelMerge)
+            throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        long[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        pool.invoke(new LongSortTask(buffer, input, fromIndex, toIndex - 1, -fromIndex,
+                reversed, sequentialCutoff, parallelMerge));
+    }
+
+    /**
+     * Sorts the given range of an array of doubles using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+     * @param parallelMerge Whether merges of ranges longer than the cutoff run in parallel
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(double[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff, boolean parallelMerge)
+            throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        double[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        pool.invoke(new DoubleSortTask(buffer, input, fromIndex, toIndex - 1, -fromIndex,
+                reversed, sequentialCutoff, parallelMerge));
+    }
+
+    /**
+     * Checks that the given sequential cutoff is usable.
+     *
+     * @param sequentialCutoff The cutoff to check
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     */
+    private static void checkCutoff(int sequentialCutoff) throws IllegalArgumentException {
+        if (sequentialCutoff < 1) {
+            throw new IllegalArgumentException("Sequential cutoff must be positive.");
+        }
+    }
+
+    /**
+     * Sorts a range of objects by sorting each half in parallel and then merging the halves. As in
+     * the sequential merge sort, both arrays hold the same elements within the range when the
+     * task starts, and the sorted range is written to the destination. The source holds them
+     * sourceOffset places further along, which lets the buffer be only as long as the range.
+     */
+    @SuppressWarnings("serial")
+    private static final class SortTask<T> extends RecursiveAction {
+
+        /** The array the halves are merged from. */
+        private final T[] source;
+
+        /** The array the sorted range is written to. */
+        private final T[] destination;
+
+        /** The destination index of the left-most element. */
+        private final int left;
+
+        /** The destination index of the right-most element. */
+        private final int right;
+
+        /** The source index of each element less its destination index. */
+        private final int sourceOffset;
+
+        /** The ordering to sort by. */
+        private final Comparator<? super T> comparator;
+
+        /** Ranges no longer than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /** Whether halves longer than the cutoff are merged in parallel. */
+        private final boolean parallelMerge;
+
+        /**
+         * Creates a task to sort the given range into the destination array.
+         *
+         * @param source The array the halves are merged from
+         * @param destination The array the sorted range is written to
+         * @param left The destination index of the left-most element
+         * @param right The destination index of the right-most element
+         * @param sourceOffset The source index of each element less its destination index
+         * @param comparator The ordering to sort by
+         * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+         * @param parallelMerge Whether halves longer than the cutoff are merged in parallel
+         */
+        SortTask(T[] source, T[] destination, int left, int right, int sourceOffset,
+                Comparator<? super T> comparator, int sequentialCutoff, boolean parallelMerge) {
+            this.source = source;
+            this.destination = destination;
+            this.left = left;
+            this.right = right;
+            this.sourceOffset = sourceOffset;
+            this.comparator = comparator;
+            this.sequentialCutoff = sequentialCutoff;
+            this.parallelMerge = parallelMerge;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.mergeSort(source, destination, left, right, sourceOffset,
+                        comparator);
+                return;
+            }
+            // The halves are sorted into the source, so are indexed as it is
+            int sourceLeft = left + sourceOffset;
+            int sourceMidPoint = ((left + right) >>> 1) + sourceOffset;
+            int sourceRight = right + sourceOffset;
+            invokeAll(new SortTask<>(destination, source, sourceLeft, sourceMidPoint, -sourceOffset,
+                            comparator, sequentialCutoff, parallelMerge),
+                    new SortTask<>(destination, source, sourceMidPoint + 1, sourceRight,
+                            -sourceOffset, comparator, sequentialCutoff, parallelMerge));
+
+            if (parallelMerge) {
+                new MergeTask<>(source, destination, sourceLeft, sourceMidPoint,
+                        sourceMidPoint + 1, sourceRight, left, comparator, sequentialCutoff)
+                        .invoke();
+            } else {
+                SortingAlgorithms.merge(source, destination, sourceLeft, sourceMidPoint,
+                        sourceRight, left, comparator);
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted ranges of objects into the destination array. Long merges are split by
+     * taking the middle element of the longer range, binary searching for its position in the
+     * shorter range, and merging the two resulting pairs of sub-ranges in parallel. Equal
+     * elements from the first range are always placed before those from the second, so the
+     * merge is stable.
+     */
+    @SuppressWarnings("serial")
+    private static final class MergeTask<T> extends RecursiveAction {
+
+        /** The array holding both sorted ranges. */
+        private final T[] source;
+
+        /** The array to write the merged ranges to. */
+        private final T[] destination;
+
+        /** The index of the first element of the first range. */
+        private final int firstLeft;
+
+        /** The index of the last element of the first range. */
+        private final int firstRight;
+
+        /** The index of the first element of the second range. */
+        private final int secondLeft;
+
+        /** The index of the last element of the second range. */
+        private final int secondRight;
+
+        /** The destination index of the first merged element. */
+        private final int outputLeft;
+
+        /** The ordering to sort by. */
+        private final Comparator<? super T> comparator;
+
+        /** Merges of no more than this many elements are performed sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to merge the given sorted ranges into the destination array.
+         *
+         * @param source The array holding both sorted ranges
+         * @param destination The array to write the merged ranges to
+         * @param firstLeft The index of the first element of the first range
+         * @param firstRight The index of the last element of the first range
+         * @param secondLeft The index of the first element of the second range
+         * @param secondRight The index of the last element of the second range
+         * @param outputLeft The destination index of the first merged element
+         * @param comparator The ordering to sort by
+         * @param sequentialCutoff Merges of no more than this many elements are sequential
+         */
+        MergeTask(T[] source, T[] destination, int firstLeft, int firstRight,
+                int secondLeft, int secondRight, int outputLeft, Comparator<? super T> comparator,
+                int sequentialCutoff) {
+            this.source = source;
+            this.destination = destination;
+            this.firstLeft = firstLeft;
+            this.firstRight = firstRight;
+            this.secondLeft = secondLeft;
+            this.secondRight = secondRight;
+            this.outputLeft = outputLeft;
+            this.comparator = comparator;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int firstLength = firstRight - firstLeft + 1;
+            int secondLength = secondRight - secondLeft + 1;
+            if (firstLength + secondLength <= sequentialCutoff) {
+                mergeSequentially();
+                return;
+            }
+
+            if (firstLength >= secondLength) {
+                // Elements of the second range equal to the split key belong after it
+                int firstMidPoint = (firstLeft + firstRight) >>> 1;
+                T key = source[firstMidPoint];
+                int secondSplit = secondLeft;
+                int high = secondRight + 1;
+                while (secondSplit < high) {
+                    int midPoint = (secondSplit + high) >>> 1;
+                    if (comparator.compare(source[midPoint], key) < 0) {
+                        secondSplit = midPoint + 1;
+                    } else {
+                        high = midPoint;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstMidPoint - firstLeft)
+                        + (secondSplit - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new MergeTask<>(source, destination, firstLeft, firstMidPoint - 1,
+                                secondLeft, secondSplit - 1, outputLeft, comparator,
+                                sequentialCutoff),
+                        new MergeTask<>(source, destination, firstMidPoint + 1, firstRight,
+                                secondSplit, secondRight, outputMidPoint + 1, comparator,
+                                sequentialCutoff));
+            } else {
+                // Elements of the first range equal to the split key belong before it
+                int secondMidPoint = (secondLeft + secondRight) >>> 1;
+                T key = source[secondMidPoint];
+                int firstSplit = firstLeft;
+                int high = firstRight + 1;
+                while (firstSplit < high) {
+                    int midPoint = (firstSplit + high) >>> 1;
+                    if (comparator.compare(key, source[midPoint]) < 0) {
+                        high = midPoint;
+                    } else {
+                        firstSplit = midPoint + 1;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstSplit - firstLeft)
+                        + (secondMidPoint - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new MergeTask<>(source, destination, firstLeft, firstSplit - 1,
+                                secondLeft, secondMidPoint - 1, outputLeft, comparator,
+                                sequentialCutoff),
+                        new MergeTask<>(source, destination, firstSplit, firstRight,
+                                secondMidPoint + 1, secondRight, outputMidPoint + 1, comparator,
+                                sequentialCutoff));
+            }
+        }
+
+        /**
+         * Merges both ranges into the destination on the current thread.
+         */
+        private void mergeSequentially() {
+            int first = firstLeft;
+            int second = secondLeft;
+            int output = outputLeft;
+
+            while (first <= firstRight && second <= secondRight) {
+                if (comparator.compare(source[second], source[first]) < 0) {
+                    destination[output++] = source[second++];
+                } else {
+                    destination[output++] = source[first++];
+                }
+            }
+
+            int firstRemaining = firstRight + 1 - first;
+            System.arraycopy(source, first, destination, output, firstRemaining);
+            System.arraycopy(source, second, destination, output + firstRemaining,
+                    secondRight + 1 - second);
+        }
+    }
+
+    /**
+     * Sorts a range of integers by sorting each half in parallel and then merging the halves. As in
+     * the sequential merge sort, both arrays hold the same elements within the range when the
+     * task starts, and the sorted range is written to the destination. The source holds them
+     * sourceOffset places further along, which lets the buffer be only as long as the range.
+     */
+    @SuppressWarnings("serial")
+    private static final class IntSortTask extends RecursiveAction {
+
+        /** The array the halves are merged from. */
+        private final int[] source;
+
+        /** The array the sorted range is written to. */
+        private final int[] destination;
+
+        /** The destination index of the left-most element. */
+        private final int left;
+
+        /** The destination index of the right-most element. */
+        private final int right;
+
+        /** The source index of each element less its destination index. */
+        private final int sourceOffset;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Ranges no longer than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /** Whether halves longer than the cutoff are merged in parallel. */
+        private final boolean parallelMerge;
+
+        /**
+         * Creates a task to sort the given range into the destination array.
+         *
+         * @param source The array the halves are merged from
+         * @param destination The array the sorted range is written to
+         * @param left The destination index of the left-most element
+         * @param right The destination index of the right-most element
+         * @param sourceOffset The source index of each element less its destination index
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+         * @param parallelMerge Whether halves longer than the cutoff are merged in parallel
+         */
+        IntSortTask(int[] source, int[] destination, int left, int right, int sourceOffset,
+                boolean reversed, int sequentialCutoff, boolean parallelMerge) {
+            this.source = source;
+            this.destination = destination;
+            this.left = left;
+            this.right = right;
+            this.sourceOffset = sourceOffset;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+            this.parallelMerge = parallelMerge;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.mergeSort(source, destination, left, right, sourceOffset,
+                        reversed);
+                return;
+            }
+            // The halves are sorted into the source, so are indexed as it is
+            int sourceLeft = left + sourceOffset;
+            int sourceMidPoint = ((left + right) >>> 1) + sourceOffset;
+            int sourceRight = right + sourceOffset;
+            invokeAll(new IntSortTask(destination, source, sourceLeft, sourceMidPoint,
+                            -sourceOffset, reversed, sequentialCutoff, parallelMerge),
+                    new IntSortTask(destination, source, sourceMidPoint + 1, sourceRight,
+                            -sourceOffset, reversed, sequentialCutoff, parallelMerge));
+
+            if (parallelMerge) {
+                new IntMergeTask(source, destination, sourceLeft, sourceMidPoint,
+                        sourceMidPoint + 1, sourceRight, left, reversed, sequentialCutoff)
+                        .invoke();
+            } else {
+                SortingAlgorithms.merge(source, destination, sourceLeft, sourceMidPoint,
+                        sourceRight, left, reversed);
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted ranges of integers into the destination array. Long merges are split by
+     * taking the middle element of the longer range, binary searching for its position in the
+     * shorter range, and merging the two resulting pairs of sub-ranges in parallel. Equal
+     * elements from the first range are always placed before those from the second, so the
+     * merge is stable.
+     */
+    @SuppressWarnings("serial")
+    private static final class IntMergeTask extends RecursiveAction {
+
+        /** The array holding both sorted ranges. */
+        private final int[] source;
+
+        /** The array to write the merged ranges to. */
+        private final int[] destination;
+
+        /** The index of the first element of the first range. */
+        private final int firstLeft;
+
+        /** The index of the last element of the first range. */
+        private final int firstRight;
+
+        /** The index of the first element of the second range. */
+        private final int secondLeft;
+
+        /** The index of the last element of the second range. */
+        private final int secondRight;
+
+        /** The destination index of the first merged element. */
+        private final int outputLeft;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Merges of no more than this many elements are performed sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to merge the given sorted ranges into the destination array.
+         *
+         * @param source The array holding both sorted ranges
+         * @param destination The array to write the merged ranges to
+         * @param firstLeft The index of the first element of the first range
+         * @param firstRight The index of the last element of the first range
+         * @param secondLeft The index of the first element of the second range
+         * @param secondRight The index of the last element of the second range
+         * @param outputLeft The destination index of the first merged element
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Merges of no more than this many elements are sequential
+         */
+        IntMergeTask(int[] source, int[] destination, int firstLeft, int firstRight,
+                int secondLeft, int secondRight, int outputLeft, boolean reversed,
+                int sequentialCutoff) {
+            this.source = source;
+            this.destination = destination;
+            this.firstLeft = firstLeft;
+            this.firstRight = firstRight;
+            this.secondLeft = secondLeft;
+            this.secondRight = secondRight;
+            this.outputLeft = outputLeft;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int firstLength = firstRight - firstLeft + 1;
+            int secondLength = secondRight - secondLeft + 1;
+            if (firstLength + secondLength <= sequentialCutoff) {
+                mergeSequentially();
+                return;
+            }
+
+            if (firstLength >= secondLength) {
+                // Elements of the second range equal to the split key belong after it
+                int firstMidPoint = (firstLeft + firstRight) >>> 1;
+                int key = source[firstMidPoint];
+                int secondSplit = secondLeft;
+                int high = secondRight + 1;
+                while (secondSplit < high) {
+                    int midPoint = (secondSplit + high) >>> 1;
+                    if (SortingAlgorithms.precedes(source[midPoint], key, reversed)) {
+                        secondSplit = midPoint + 1;
+                    } else {
+                        high = midPoint;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstMidPoint - firstLeft)
+                        + (secondSplit - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new IntMergeTask(source, destination, firstLeft, firstMidPoint - 1,
+                                secondLeft, secondSplit - 1, outputLeft, reversed,
+                                sequentialCutoff),
+                        new IntMergeTask(source, destination, firstMidPoint + 1, firstRight,
+                                secondSplit, secondRight, outputMidPoint + 1, reversed,
+                                sequentialCutoff));
+            } else {
+                // Elements of the first range equal to the split key belong before it
+                int secondMidPoint = (secondLeft + secondRight) >>> 1;
+                int key = source[secondMidPoint];
+                int firstSplit = firstLeft;
+                int high = firstRight + 1;
+                while (firstSplit < high) {
+                    int midPoint = (firstSplit + high) >>> 1;
+                    if (SortingAlgorithms.precedes(key, source[midPoint], reversed)) {
+                        high = midPoint;
+                    } else {
+                        firstSplit = midPoint + 1;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstSplit - firstLeft)
+                        + (secondMidPoint - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new IntMergeTask(source, destination, firstLeft, firstSplit - 1,
+                                secondLeft, secondMidPoint - 1, outputLeft, reversed,
+                                sequentialCutoff),
+                        new IntMergeTask(source, destination, firstSplit, firstRight,
+                                secondMidPoint + 1, secondRight, outputMidPoint + 1, reversed,
+                                sequentialCutoff));
+            }
+        }
+
+        /**
+         * Merges both ranges into the destination on the current thread.
+         */
+        private void mergeSequentially() {
+            int first = firstLeft;
+            int second = secondLeft;
+            int output = outputLeft;
+
+            while (first <= firstRight && second <= secondRight) {
+                if (SortingAlgorithms.precedes(source[second], source[first], reversed)) {
+                    destination[output++] = source[second++];
+                } else {
+                    destination[output++] = source[first++];
+                }
+            }
+
+            int firstRemaining = firstRight + 1 - first;
+            System.arraycopy(source, first, destination, output, firstRemaining);
+            System.arraycopy(source, second, destination, output + firstRemaining,
+                    secondRight + 1 - second);
+        }
+    }
+
+    /**
+     * Sorts a range of longs by sorting each half in parallel and then merging the halves. As in
+     * the sequential merge sort, both arrays hold the same elements within the range when the
+     * task starts, and the sorted range is written to the destination. The source holds them
+     * sourceOffset places further along, which lets the buffer be only as long as the range.
+     */
+    @SuppressWarnings("serial")
+    private static final class LongSortTask extends RecursiveAction {
+
+        /** The array the halves are merged from. */
+        private final long[] source;
+
+        /** The array the sorted range is written to. */
+        private final long[] destination;
+
+        /** The destination index of the left-most element. */
+        private final int left;
+
+        /** The destination index of the right-most element. */
+        private final int right;
+
+        /** The source index of each element less its destination index. */
+        private final int sourceOffset;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Ranges no longer than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /** Whether halves longer than the cutoff are merged in parallel. */
+        private final boolean parallelMerge;
+
+        /**
+         * Creates a task to sort the given range into the destination array.
+         *
+         * @param source The array the halves are merged from
+         * @param destination The array the sorted range is written to
+         * @param left The destination index of the left-most element
+         * @param right The destination index of the right-most element
+         * @param sourceOffset The source index of each element less its destination index
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+         * @param parallelMerge Whether halves longer than the cutoff are merged in parallel
+         */
+        LongSortTask(long[] source, long[] destination, int left, int right, int sourceOffset,
+                boolean reversed, int sequentialCutoff, boolean parallelMerge) {
+            this.source = source;
+            this.destination = destination;
+            this.left = left;
+            this.right = right;
+            this.sourceOffset = sourceOffset;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+            this.parallelMerge = parallelMerge;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.mergeSort(source, destination, left, right, sourceOffset,
+                        reversed);
+                return;
+            }
+            // The halves are sorted into the source, so are indexed as it is
+            int sourceLeft = left + sourceOffset;
+            int sourceMidPoint = ((left + right) >>> 1) + sourceOffset;
+            int sourceRight = right + sourceOffset;
+            invokeAll(new LongSortTask(destination, source, sourceLeft, sourceMidPoint,
+                            -sourceOffset, reversed, sequentialCutoff, parallelMerge),
+                    new LongSortTask(destination, source, sourceMidPoint + 1, sourceRight,
+                            -sourceOffset, reversed, sequentialCutoff, parallelMerge));
+
+            if (parallelMerge) {
+                new LongMergeTask(source, destination, sourceLeft, sourceMidPoint,
+                        sourceMidPoint + 1, sourceRight, left, reversed, sequentialCutoff)
+                        .invoke();
+            } else {
+                SortingAlgorithms.merge(source, destination, sourceLeft, sourceMidPoint,
+                        sourceRight, left, reversed);
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted ranges of longs into the destination array. Long merges are split by
+     * taking the middle element of the longer range, binary searching for its position in the
+     * shorter range, and merging the two resulting pairs of sub-ranges in parallel. Equal
+     * elements from the first range are always placed before those from the second, so the
+     * merge is stable.
+     */
+    @SuppressWarnings("serial")
+    private static final class LongMergeTask extends RecursiveAction {
+
+        /** The array holding both sorted ranges. */
+        private final long[] source;
+
+        /** The array to write the merged ranges to. */
+        private final long[] destination;
+
+        /** The index of the first element of the first range. */
+        private final int firstLeft;
+
+        /** The index of the last element of the first range. */
+        private final int firstRight;
+
+        /** The index of the first element of the second range. */
+        private final int secondLeft;
+
+        /** The index of the last element of the second range. */
+        private final int secondRight;
+
+        /** The destination index of the first merged element. */
+        private final int outputLeft;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Merges of no more than this many elements are performed sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to merge the given sorted ranges into the destination array.
+         *
+         * @param source The array holding both sorted ranges
+         * @param destination The array to write the merged ranges to
+         * @param firstLeft The index of the first element of the first range
+         * @param firstRight The index of the last element of the first range
+         * @param secondLeft The index of the first element of the second range
+         * @param secondRight The index of the last element of the second range
+         * @param outputLeft The destination index of the first merged element
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Merges of no more than this many elements are sequential
+         */
+        LongMergeTask(long[] source, long[] destination, int firstLeft, int firstRight,
+                int secondLeft, int secondRight, int outputLeft, boolean reversed,
+                int sequentialCutoff) {
+            this.source = source;
+            this.destination = destination;
+            this.firstLeft = firstLeft;
+            this.firstRight = firstRight;
+            this.secondLeft = secondLeft;
+            this.secondRight = secondRight;
+            this.outputLeft = outputLeft;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int firstLength = firstRight - firstLeft + 1;
+            int secondLength = secondRight - secondLeft + 1;
+            if (firstLength + secondLength <= sequentialCutoff) {
+                mergeSequentially();
+                return;
+            }
+
+            if (firstLength >= secondLength) {
+                // Elements of the second range equal to the split key belong after it
+                int firstMidPoint = (firstLeft + firstRight) >>> 1;
+                long key = source[firstMidPoint];
+                int secondSplit = secondLeft;
+                int high = secondRight + 1;
+                while (secondSplit < high) {
+                    int midPoint = (secondSplit + high) >>> 1;
+                    if (SortingAlgorithms.precedes(source[midPoint], key, reversed)) {
+                        secondSplit = midPoint + 1;
+                    } else {
+                        high = midPoint;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstMidPoint - firstLeft)
+                        + (secondSplit - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new LongMergeTask(source, destination, firstLeft, firstMidPoint - 1,
+                                secondLeft, secondSplit - 1, outputLeft, reversed,
+                                sequentialCutoff),
+                        new LongMergeTask(source, destination, firstMidPoint + 1, firstRight,
+                                secondSplit, secondRight, outputMidPoint + 1, reversed,
+                                sequentialCutoff));
+            } else {
+                // Elements of the first range equal to the split key belong before it
+                int secondMidPoint = (secondLeft + secondRight) >>> 1;
+                long key = source[secondMidPoint];
+                int firstSplit = firstLeft;
+                int high = firstRight + 1;
+                while (firstSplit < high) {
+                    int midPoint = (firstSplit + high) >>> 1;
+                    if (SortingAlgorithms.precedes(key, source[midPoint], reversed)) {
+                        high = midPoint;
+                    } else {
+                        firstSplit = midPoint + 1;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstSplit - firstLeft)
+                        + (secondMidPoint - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new LongMergeTask(source, destination, firstLeft, firstSplit - 1,
+                                secondLeft, secondMidPoint - 1, outputLeft, reversed,
+                                sequentialCutoff),
+                        new LongMergeTask(source, destination, firstSplit, firstRight,
+                                secondMidPoint + 1, secondRight, outputMidPoint + 1, reversed,
+                                sequentialCutoff));
+            }
+        }
+
+        /**
+         * Merges both ranges into the destination on the current thread.
+         */
+        private void mergeSequentially() {
+            int first = firstLeft;
+            int second = secondLeft;
+            int output = outputLeft;
+
+            while (first <= firstRight && second <= secondRight) {
+                if (SortingAlgorithms.precedes(source[second], source[first], reversed)) {
+                    destination[output++] = source[second++];
+                } else {
+                    destination[output++] = source[first++];
+                }
+            }
+
+            int firstRemaining = firstRight + 1 - first;
+            System.arraycopy(source, first, destination, output, firstRemaining);
+            System.arraycopy(source, second, destination, output + firstRemaining,
+                    secondRight + 1 - second);
+        }
+    }
+
+    /**
+     * Sorts a range of doubles by sorting each half in parallel and then merging the halves. As in
+     * the sequential merge sort, both arrays hold the same elements within the range when the
+     * task starts, and the sorted range is written to the destination. The source holds them
+     * sourceOffset places further along, which lets the buffer be only as long as the range.
+     */
+    @SuppressWarnings("serial")
+    private static final class DoubleSortTask extends RecursiveAction {
+
+        /** The array the halves are merged from. */
+        private final double[] source;
+
+        /** The array the sorted range is written to. */
+        private final double[] destination;
+
+        /** The destination index of the left-most element. */
+        private final int left;
+
+        /** The destination index of the right-most element. */
+        private final int right;
+
+        /** The source index of each element less its destination index. */
+        private final int sourceOffset;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Ranges no longer than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /** Whether halves longer than the cutoff are merged in parallel. */
+        private final boolean parallelMerge;
+
+        /**
+         * Creates a task to sort the given range into the destination array.
+         *
+         * @param source The array the halves are merged from
+         * @param destination The array the sorted range is written to
+         * @param left The destination index of the left-most element
+         * @param right The destination index of the right-most element
+         * @param sourceOffset The source index of each element less its destination index
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Ranges no longer than this are sorted sequentially
+         * @param parallelMerge Whether halves longer than the cutoff are merged in parallel
+         */
+        DoubleSortTask(double[] source, double[] destination, int left, int right, int sourceOffset,
+                boolean reversed, int sequentialCutoff, boolean parallelMerge) {
+            this.source = source;
+            this.destination = destination;
+            this.left = left;
+            this.right = right;
+            this.sourceOffset = sourceOffset;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+            this.parallelMerge = parallelMerge;
+        }
+
+        @Override
+        protected void compute() {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.mergeSort(source, destination, left, right, sourceOffset,
+                        reversed);
+                return;
+            }
+            // The halves are sorted into the source, so are indexed as it is
+            int sourceLeft = left + sourceOffset;
+            int sourceMidPoint = ((left + right) >>> 1) + sourceOffset;
+            int sourceRight = right + sourceOffset;
+            invokeAll(new DoubleSortTask(destination, source, sourceLeft, sourceMidPoint,
+                            -sourceOffset, reversed, sequentialCutoff, parallelMerge),
+                    new DoubleSortTask(destination, source, sourceMidPoint + 1, sourceRight,
+                            -sourceOffset, reversed, sequentialCutoff, parallelMerge));
+
+            if (parallelMerge) {
+                new DoubleMergeTask(source, destination, sourceLeft, sourceMidPoint,
+                        sourceMidPoint + 1, sourceRight, left, reversed, sequentialCutoff)
+                        .invoke();
+            } else {
+                SortingAlgorithms.merge(source, destination, sourceLeft, sourceMidPoint,
+                        sourceRight, left, reversed);
+            }
+        }
+    }
+
+    /**
+     * Merges two sorted ranges of doubles into the destination array. Long merges are split by
+     * taking the middle element of the longer range, binary searching for its position in the
+     * shorter range, and merging the two resulting pairs of sub-ranges in parallel. Equal
+     * elements from the first range are always placed before those from the second, so the
+     * merge is stable.
+     */
+    @SuppressWarnings("serial")
+    private static final class DoubleMergeTask extends RecursiveAction {
+
+        /** The array holding both sorted ranges. */
+        private final double[] source;
+
+        /** The array to write the merged ranges to. */
+        private final double[] destination;
+
+        /** The index of the first element of the first range. */
+        private final int firstLeft;
+
+        /** The index of the last element of the first range. */
+        private final int firstRight;
+
+        /** The index of the first element of the second range. */
+        private final int secondLeft;
+
+        /** The index of the last element of the second range. */
+        private final int secondRight;
+
+        /** The destination index of the first merged element. */
+        private final int outputLeft;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Merges of no more than this many elements are performed sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to merge the given sorted ranges into the destination array.
+         *
+         * @param source The array holding both sorted ranges
+         * @param destination The array to write the merged ranges to
+         * @param firstLeft The index of the first element of the first range
+         * @param firstRight The index of the last element of the first range
+         * @param secondLeft The index of the first element of the second range
+         * @param secondRight The index of the last element of the second range
+         * @param outputLeft The destination index of the first merged element
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Merges of no more than this many elements are sequential
+         */
+        DoubleMergeTask(double[] source, double[] destination, int firstLeft, int firstRight,
+                int secondLeft, int secondRight, int outputLeft, boolean reversed,
+                int sequentialCutoff) {
+            this.source = source;
+            this.destination = destination;
+            this.firstLeft = firstLeft;
+            this.firstRight = firstRight;
+            this.secondLeft = secondLeft;
+            this.secondRight = secondRight;
+            this.outputLeft = outputLeft;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            int firstLength = firstRight - firstLeft + 1;
+            int secondLength = secondRight - secondLeft + 1;
+            if (firstLength + secondLength <= sequentialCutoff) {
+                mergeSequentially();
+                return;
+            }
+
+            if (firstLength >= secondLength) {
+                // Elements of the second range equal to the split key belong after it
+                int firstMidPoint = (firstLeft + firstRight) >>> 1;
+                double key = source[firstMidPoint];
+                int secondSplit = secondLeft;
+                int high = secondRight + 1;
+                while (secondSplit < high) {
+                    int midPoint = (secondSplit + high) >>> 1;
+                    if (SortingAlgorithms.precedes(source[midPoint], key, reversed)) {
+                        secondSplit = midPoint + 1;
+                    } else {
+                        high = midPoint;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstMidPoint - firstLeft)
+                        + (secondSplit - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new DoubleMergeTask(source, destination, firstLeft, firstMidPoint - 1,
+                                secondLeft, secondSplit - 1, outputLeft, reversed,
+                                sequentialCutoff),
+                        new DoubleMergeTask(source, destination, firstMidPoint + 1, firstRight,
+                                secondSplit, secondRight, outputMidPoint + 1, reversed,
+                                sequentialCutoff));
+            } else {
+                // Elements of the first range equal to the split key belong before it
+                int secondMidPoint = (secondLeft + secondRight) >>> 1;
+                double key = source[secondMidPoint];
+                int firstSplit = firstLeft;
+                int high = firstRight + 1;
+                while (firstSplit < high) {
+                    int midPoint = (firstSplit + high) >>> 1;
+                    if (SortingAlgorithms.precedes(key, source[midPoint], reversed)) {
+                        high = midPoint;
+                    } else {
+                        firstSplit = midPoint + 1;
+                    }
+                }
+                int outputMidPoint = outputLeft + (firstSplit - firstLeft)
+                        + (secondMidPoint - secondLeft);
+                destination[outputMidPoint] = key;
+                invokeAll(new DoubleMergeTask(source, destination, firstLeft, firstSplit - 1,
+                                secondLeft, secondMidPoint - 1, outputLeft, reversed,
+                                sequentialCutoff),
+                        new DoubleMergeTask(source, destination, firstSplit, firstRight,
+                                secondMidPoint + 1, secondRight, outputMidPoint + 1, reversed,
+                                sequentialCutoff));
+            }
+        }
+
+        /**
+         * Merges both ranges into the destination on the current thread.
+         */
+        private void mergeSequentially() {
+            int first = firstLeft;
+            int second = secondLeft;
+            int output = outputLeft;
+
+            while (first <= firstRight && second <= secondRight) {
+                if (SortingAlgorithms.precedes(source[second], source[first], reversed)) {
+                    destination[output++] = source[second++];
+                } else {
+                    destination[output++] = source[first++];
+                }
+            }
+
+            int firstRemaining = firstRight + 1 - first;
+            System.arraycopy(source, first, destination, output, firstRemaining);
+            System.arraycopy(source, second, destination, output + firstRemaining,
+                    secondRight + 1 - second);
+        }
+    }
+}
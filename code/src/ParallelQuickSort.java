@@ -0,0 +1,505 @@
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join implementations of quick sort. Partitioning is identical to the sequential
+ * comparator and primitive quick sorts in SortingAlgorithms (the middle element is the pivot and
+ * the array is modified in-place), but the larger side of each partition above the sequential
+ * cutoff is handed to another thread. As in introsort, each chain of partition steps is limited
+ * to {@link SortingAlgorithms#depthLimit(int)} steps, after which the rest of the range is heap
+ * sorted, and ranges below the cutoff are finished by the sequential introsort with whatever
+ * depth remains. No auxiliary array is allocated, and since every task a thread joins inline is
+ * one partition step further down its chain, the stack depth stays O(log n) per thread.
+ */
+final class ParallelQuickSort {
+
+    /** Default length below which ranges are sorted sequentially. */
+    static final int DEFAULT_SEQUENTIAL_CUTOFF = 1 << 13;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private ParallelQuickSort() {}
+
+    /**
+     * Sorts the given range of an array in comparator order using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param comparator The ordering to sort by
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && comparator != null && pool != null
+     *           && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static <T> void sort(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, ForkJoinPool pool, int sequentialCutoff)
+            throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        pool.invoke(new ComparatorTask<>(input, fromIndex, toIndex - 1,
+                SortingAlgorithms.depthLimit(toIndex - fromIndex), comparator, sequentialCutoff));
+    }
+
+    /**
+     * Sorts the given range of an array of integers using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(int[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff) throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        pool.invoke(new IntTask(input, fromIndex, toIndex - 1,
+                SortingAlgorithms.depthLimit(toIndex - fromIndex), reversed, sequentialCutoff));
+    }
+
+    /**
+     * Sorts the given range of an array of longs using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(long[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff) throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        pool.invoke(new LongTask(input, fromIndex, toIndex - 1,
+                SortingAlgorithms.depthLimit(toIndex - fromIndex), reversed, sequentialCutoff));
+    }
+
+    /**
+     * Sorts the given range of an array of doubles using the given pool.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(double[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff) throws IllegalArgumentException {
+        checkCutoff(sequentialCutoff);
+        pool.invoke(new DoubleTask(input, fromIndex, toIndex - 1,
+                SortingAlgorithms.depthLimit(toIndex - fromIndex), reversed, sequentialCutoff));
+    }
+
+    /**
+     * Checks that the given sequential cutoff is usable.
+     *
+     * @param sequentialCutoff The cutoff to check
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     */
+    private static void checkCutoff(int sequentialCutoff) throws IllegalArgumentException {
+        if (sequentialCutoff < 1) {
+            throw new IllegalArgumentException("Sequential cutoff must be positive.");
+        }
+    }
+
+    /**
+     * Quick sorts a range of objects in place. Each partition step forks the larger side
+     * as a new task (if it is above the cutoff) and carries on with the smaller side. Both sides
+     * are left one fewer partition step, and ranges which exhaust the depth limit are heap
+     * sorted, so at most O(log n) tasks are outstanding or joined inline per thread.
+     */
+    @SuppressWarnings("serial")
+    private static final class ComparatorTask<T> extends RecursiveAction {
+
+        /** The array being sorted. */
+        private final T[] input;
+
+        /** The index of the left-most element. */
+        private final int left;
+
+        /** The index of the right-most element. */
+        private final int right;
+
+        /** The number of partitioning steps allowed before switching to heap sort. */
+        private final int depthLimit;
+
+        /** The ordering to sort by. */
+        private final Comparator<? super T> comparator;
+
+        /** Ranges shorter than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to sort the given range.
+         *
+         * @param input The array being sorted
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @param comparator The ordering to sort by
+         * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+         */
+        ComparatorTask(T[] input, int left, int right, int depthLimit,
+                Comparator<? super T> comparator, int sequentialCutoff) {
+            this.input = input;
+            this.left = left;
+            this.right = right;
+            this.depthLimit = depthLimit;
+            this.comparator = comparator;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            List<ComparatorTask<T>> forked = new ArrayList<>();
+            int left = this.left;
+            int right = this.right;
+            int depthLimit = this.depthLimit;
+
+            while (right - left >= sequentialCutoff && depthLimit > 0) {
+                depthLimit--;
+                int newBound = SortingAlgorithms.partition(input, left, right, comparator);
+                if (newBound - left > right - newBound - 1) {
+                    forked.add(forkOrSort(left, newBound, depthLimit));
+                    left = newBound + 1;
+                } else {
+                    forked.add(forkOrSort(newBound + 1, right, depthLimit));
+                    right = newBound;
+                }
+            }
+            SortingAlgorithms.introSort(input, left, right, depthLimit, comparator);
+
+            for (ComparatorTask<T> task : forked) {
+                if (task != null) {
+                    task.join();
+                }
+            }
+        }
+
+        /**
+         * Forks a task to sort the given range if it is long enough to be worth it, and
+         * otherwise sorts it on the current thread.
+         *
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @return The forked task, or null if the range has already been sorted
+         */
+        private ComparatorTask<T> forkOrSort(int left, int right, int depthLimit) {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.introSort(input, left, right, depthLimit, comparator);
+                return null;
+            }
+            ComparatorTask<T> task = new ComparatorTask<>(input, left, right, depthLimit,
+                    comparator, sequentialCutoff);
+            task.fork();
+            return task;
+        }
+    }
+
+    /**
+     * Quick sorts a range of integers in place. Each partition step forks the larger side
+     * as a new task (if it is above the cutoff) and carries on with the smaller side. Both sides
+     * are left one fewer partition step, and ranges which exhaust the depth limit are heap
+     * sorted, so at most O(log n) tasks are outstanding or joined inline per thread.
+     */
+    @SuppressWarnings("serial")
+    private static final class IntTask extends RecursiveAction {
+
+        /** The array being sorted. */
+        private final int[] input;
+
+        /** The index of the left-most element. */
+        private final int left;
+
+        /** The index of the right-most element. */
+        private final int right;
+
+        /** The number of partitioning steps allowed before switching to heap sort. */
+        private final int depthLimit;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Ranges shorter than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to sort the given range.
+         *
+         * @param input The array being sorted
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+         */
+        IntTask(int[] input, int left, int right, int depthLimit, boolean reversed,
+                int sequentialCutoff) {
+            this.input = input;
+            this.left = left;
+            this.right = right;
+            this.depthLimit = depthLimit;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            List<IntTask> forked = new ArrayList<>();
+            int left = this.left;
+            int right = this.right;
+            int depthLimit = this.depthLimit;
+
+            while (right - left >= sequentialCutoff && depthLimit > 0) {
+                depthLimit--;
+                int newBound = SortingAlgorithms.partition(input, left, right, reversed);
+                if (newBound - left > right - newBound - 1) {
+                    forked.add(forkOrSort(left, newBound, depthLimit));
+                    left = newBound + 1;
+                } else {
+                    forked.add(forkOrSort(newBound + 1, right, depthLimit));
+                    right = newBound;
+                }
+            }
+            SortingAlgorithms.introSort(input, left, right, depthLimit, reversed);
+
+            for (IntTask task : forked) {
+                if (task != null) {
+                    task.join();
+                }
+            }
+        }
+
+        /**
+         * Forks a task to sort the given range if it is long enough to be worth it, and
+         * otherwise sorts it on the current thread.
+         *
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @return The forked task, or null if the range has already been sorted
+         */
+        private IntTask forkOrSort(int left, int right, int depthLimit) {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.introSort(input, left, right, depthLimit, reversed);
+                return null;
+            }
+            IntTask task = new IntTask(input, left, right, depthLimit, reversed,
+                    sequentialCutoff);
+            task.fork();
+            return task;
+        }
+    }
+
+    /**
+     * Quick sorts a range of longs in place. Each partition step forks the larger side
+     * as a new task (if it is above the cutoff) and carries on with the smaller side. Both sides
+     * are left one fewer partition step, and ranges which exhaust the depth limit are heap
+     * sorted, so at most O(log n) tasks are outstanding or joined inline per thread.
+     */
+    @SuppressWarnings("serial")
+    private static final class LongTask extends RecursiveAction {
+
+        /** The array being sorted. */
+        private final long[] input;
+
+        /** The index of the left-most element. */
+        private final int left;
+
+        /** The index of the right-most element. */
+        private final int right;
+
+        /** The number of partitioning steps allowed before switching to heap sort. */
+        private final int depthLimit;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Ranges shorter than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to sort the given range.
+         *
+         * @param input The array being sorted
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+         */
+        LongTask(long[] input, int left, int right, int depthLimit, boolean reversed,
+                int sequentialCutoff) {
+            this.input = input;
+            this.left = left;
+            this.right = right;
+            this.depthLimit = depthLimit;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            List<LongTask> forked = new ArrayList<>();
+            int left = this.left;
+            int right = this.right;
+            int depthLimit = this.depthLimit;
+
+            while (right - left >= sequentialCutoff && depthLimit > 0) {
+                depthLimit--;
+                int newBound = SortingAlgorithms.partition(input, left, right, reversed);
+                if (newBound - left > right - newBound - 1) {
+                    forked.add(forkOrSort(left, newBound, depthLimit));
+                    left = newBound + 1;
+                } else {
+                    forked.add(forkOrSort(newBound + 1, right, depthLimit));
+                    right = newBound;
+                }
+            }
+            SortingAlgorithms.introSort(input, left, right, depthLimit, reversed);
+
+            for (LongTask task : forked) {
+                if (task != null) {
+                    task.join();
+                }
+            }
+        }
+
+        /**
+         * Forks a task to sort the given range if it is long enough to be worth it, and
+         * otherwise sorts it on the current thread.
+         *
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @return The forked task, or null if the range has already been sorted
+         */
+        private LongTask forkOrSort(int left, int right, int depthLimit) {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.introSort(input, left, right, depthLimit, reversed);
+                return null;
+            }
+            LongTask task = new LongTask(input, left, right, depthLimit, reversed,
+                    sequentialCutoff);
+            task.fork();
+            return task;
+        }
+    }
+
+    /**
+     * Quick sorts a range of doubles in place. Each partition step forks the larger side
+     * as a new task (if it is above the cutoff) and carries on with the smaller side. Both sides
+     * are left one fewer partition step, and ranges which exhaust the depth limit are heap
+     * sorted, so at most O(log n) tasks are outstanding or joined inline per thread.
+     */
+    @SuppressWarnings("serial")
+    private static final class DoubleTask extends RecursiveAction {
+
+        /** The array being sorted. */
+        private final double[] input;
+
+        /** The index of the left-most element. */
+        private final int left;
+
+        /** The index of the right-most element. */
+        private final int right;
+
+        /** The number of partitioning steps allowed before switching to heap sort. */
+        private final int depthLimit;
+
+        /** Whether the range should be sorted in reverse order. */
+        private final boolean reversed;
+
+        /** Ranges shorter than this are sorted sequentially. */
+        private final int sequentialCutoff;
+
+        /**
+         * Creates a task to sort the given range.
+         *
+         * @param input The array being sorted
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @param reversed Whether the range should be sorted in reverse order
+         * @param sequentialCutoff Ranges shorter than this are sorted sequentially
+         */
+        DoubleTask(double[] input, int left, int right, int depthLimit, boolean reversed,
+                int sequentialCutoff) {
+            this.input = input;
+            this.left = left;
+            this.right = right;
+            this.depthLimit = depthLimit;
+            this.reversed = reversed;
+            this.sequentialCutoff = sequentialCutoff;
+        }
+
+        @Override
+        protected void compute() {
+            List<DoubleTask> forked = new ArrayList<>();
+            int left = this.left;
+            int right = this.right;
+            int depthLimit = this.depthLimit;
+
+            while (right - left >= sequentialCutoff && depthLimit > 0) {
+                depthLimit--;
+                int newBound = SortingAlgorithms.partition(input, left, right, reversed);
+                if (newBound - left > right - newBound - 1) {
+                    forked.add(forkOrSort(left, newBound, depthLimit));
+                    left = newBound + 1;
+                } else {
+                    forked.add(forkOrSort(newBound + 1, right, depthLimit));
+                    right = newBound;
+                }
+            }
+            SortingAlgorithms.introSort(input, left, right, depthLimit, reversed);
+
+            for (DoubleTask task : forked) {
+                if (task != null) {
+                    task.join();
+                }
+            }
+        }
+
+        /**
+         * Forks a task to sort the given range if it is long enough to be worth it, and
+         * otherwise sorts it on the current thread.
+         *
+         * @param left The index of the left-most element
+         * @param right The index of the right-most element
+         * @param depthLimit The number of partitioning steps allowed before switching to heap
+         *                   sort
+         * @return The forked task, or null if the range has already been sorted
+         */
+        private DoubleTask forkOrSort(int left, int right, int depthLimit) {
+            if (right - left < sequentialCutoff) {
+                SortingAlgorithms.introSort(input, left, right, depthLimit, reversed);
+                return null;
+            }
+            DoubleTask task = new DoubleTask(input, left, right, depthLimit, reversed,
+                    sequentialCutoff);
+            task.fork();
+            return task;
+        }
+    }
+}
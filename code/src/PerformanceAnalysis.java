@@ -1,10 +1,37 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Properties;
 import java.util.Random;
 import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 public class PerformanceAnalysis {
 
+    // Where the calibrated insertion sort cutoffs are kept between runs. Leaves of objects and
+    // of primitives are sorted very differently, so each gets its own cutoff
+    private static final Path CALIBRATION_FILE = Paths.get("sorting-calibration.properties");
+    private static final String CUTOFF_PROPERTY = "insertionSortCutoff";
+    private static final String PRIMITIVE_CUTOFF_PROPERTY = "primitiveInsertionSortCutoff";
+
+    // Insertion sort cutoffs tried when calibrating the hybrid sorts
+    private static final int[] CANDIDATE_CUTOFFS = {1, 4, 8, 12, 16, 24, 32, 48, 64};
+
+    // Defaults for the length of the arrays the newer sorts are timed on (--length=N), and for
+    // the number of untimed runs each gets first so that the JIT has compiled it (--warm-up=N)
+    private static final int DEFAULT_BENCHMARK_LENGTH = 5000000;
+    private static final int DEFAULT_WARM_UP_RUNS = 3;
+
+    // Default length for the sorts meant for short and mid-sized arrays (--small-length=N),
+    // whose running times grow too quickly to finish on the full benchmark length
+    private static final int DEFAULT_SMALL_BENCHMARK_LENGTH = 1000;
+
     public static Integer[][] generateArrays(Random generator, boolean sorted, boolean reverse,
             int length) {
         // Make 4 copies of array to be sorted (one for each algorithm to sort)
@@ -35,9 +62,158 @@ public class PerformanceAnalysis {
         return end - start;
     }
 
-    public static void main(String[] args) {
+    public static Integer[] randomIntegers(Random generator, int length) {
+        return generator.ints(length).boxed().toArray(Integer[]::new);
+    }
+
+    // Sorts fresh copies of the input the given number of times without timing them
+    public static <A> void warmUp(A input, UnaryOperator<A> copy, Consumer<A> algorithm,
+            int runs) {
+        for (int run = 0; run < runs; run++) {
+            algorithm.accept(copy.apply(input));
+        }
+    }
+
+    // Times a sort of a fresh copy of the input, after the given number of warm-up runs
+    public static <A> long timeSort(A input, UnaryOperator<A> copy, Consumer<A> algorithm,
+            int warmUps) {
+        warmUp(input, copy, algorithm, warmUps);
+        A toSort = copy.apply(input);
+        long start = System.nanoTime();
+        algorithm.accept(toSort);
+        return System.nanoTime() - start;
+    }
+
+    // Reads an option given as --name=value, or returns the default if it was not given
+    private static int intOption(String[] args, String name, int defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Integer.parseInt(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+
+    public static int calibrateInsertionSortCutoff(Random generator, int length, int trials) {
+        // Warm up every candidate first so that JIT compilation isn't charged to the earliest
+        for (int cutoff : CANDIDATE_CUTOFFS) {
+            timeHybridSorts(generator, length, cutoff);
+        }
+
+        // Keep the fastest trial per candidate, as noise only ever adds time
+        int bestCutoff = SortingAlgorithms.DEFAULT_INSERTION_SORT_CUTOFF;
+        long bestElapsed = Long.MAX_VALUE;
+        for (int cutoff : CANDIDATE_CUTOFFS) {
+            long elapsed = Long.MAX_VALUE;
+            for (int trial = 0; trial < trials; trial++) {
+                elapsed = Math.min(elapsed, timeHybridSorts(generator, length, cutoff));
+            }
+            if (elapsed < bestElapsed) {
+                bestElapsed = elapsed;
+                bestCutoff = cutoff;
+            }
+        }
+        return bestCutoff;
+    }
+
+    private static long timeHybridSorts(Random generator, int length, int cutoff) {
+        Integer[][] toSort = generateArrays(generator, false, false, length);
+        return testSort(toSort[0], (input, reversed) ->
+                        SortingAlgorithms.hybridMergeSort(input, reversed, cutoff))
+                + testSort(toSort[1], (input, reversed) ->
+                        SortingAlgorithms.hybridQuickSort(input, reversed, cutoff));
+    }
+
+    public static int calibratePrimitiveInsertionSortCutoff(Random generator, int length,
+            int trials) {
+        for (int cutoff : CANDIDATE_CUTOFFS) {
+            timePrimitiveHybridSorts(generator, length, cutoff);
+        }
+
+        int bestCutoff = SortingAlgorithms.DEFAULT_PRIMITIVE_INSERTION_SORT_CUTOFF;
+        long bestElapsed = Long.MAX_VALUE;
+        for (int cutoff : CANDIDATE_CUTOFFS) {
+            long elapsed = Long.MAX_VALUE;
+            for (int trial = 0; trial < trials; trial++) {
+                elapsed = Math.min(elapsed, timePrimitiveHybridSorts(generator, length, cutoff));
+            }
+            if (elapsed < bestElapsed) {
+                bestElapsed = elapsed;
+                bestCutoff = cutoff;
+            }
+        }
+        return bestCutoff;
+    }
+
+    private static long timePrimitiveHybridSorts(Random generator, int length, int cutoff) {
+        int[] keys = generator.ints(length).toArray();
+        int[] toMergeSort = keys.clone();
+        long start = System.nanoTime();
+        SortingAlgorithms.hybridMergeSort(toMergeSort, false, cutoff);
+        long elapsed = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        SortingAlgorithms.hybridQuickSort(keys, false, cutoff);
+        return elapsed + System.nanoTime() - start;
+    }
+
+    public static void saveInsertionSortCutoffs(Path file, int cutoff, int primitiveCutoff)
+            throws IOException {
+        Properties calibration = new Properties();
+        calibration.setProperty(CUTOFF_PROPERTY, Integer.toString(cutoff));
+        calibration.setProperty(PRIMITIVE_CUTOFF_PROPERTY, Integer.toString(primitiveCutoff));
+        try (Writer writer = Files.newBufferedWriter(file)) {
+            calibration.store(writer, "Calibrated by PerformanceAnalysis");
+        }
+    }
+
+    public static boolean loadInsertionSortCutoffs(Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        // A corrupt file (a malformed escape, a value which is not a number or is out of range)
+        // keeps the current cutoffs rather than failing the run or applying only one of them
+        int previousCutoff = SortingAlgorithms.getInsertionSortCutoff();
+        int previousPrimitiveCutoff = SortingAlgorithms.getPrimitiveInsertionSortCutoff();
+        try {
+            Properties calibration = new Properties();
+            try (Reader reader = Files.newBufferedReader(file)) {
+                calibration.load(reader);
+            }
+            String cutoff = calibration.getProperty(CUTOFF_PROPERTY);
+            String primitiveCutoff = calibration.getProperty(PRIMITIVE_CUTOFF_PROPERTY);
+            if (cutoff == null || primitiveCutoff == null) {
+                return false;
+            }
+            SortingAlgorithms.setInsertionSortCutoff(Integer.parseInt(cutoff.trim()));
+            SortingAlgorithms.setPrimitiveInsertionSortCutoff(
+                    Integer.parseInt(primitiveCutoff.trim()));
+            return true;
+        } catch (IllegalArgumentException e) {
+            SortingAlgorithms.setInsertionSortCutoff(previousCutoff);
+            SortingAlgorithms.setPrimitiveInsertionSortCutoff(previousPrimitiveCutoff);
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
         Random generator = new Random();
 
+        // Re-measure the hybrid sorts' insertion sort cutoffs if asked to, otherwise reuse the
+        // cutoffs measured by an earlier run (if any)
+        if (Arrays.asList(args).contains("--calibrate")) {
+            int cutoff = calibrateInsertionSortCutoff(generator, 100000, 5);
+            int primitiveCutoff = calibratePrimitiveInsertionSortCutoff(generator, 1000000, 5);
+            saveInsertionSortCutoffs(CALIBRATION_FILE, cutoff, primitiveCutoff);
+            SortingAlgorithms.setInsertionSortCutoff(cutoff);
+            SortingAlgorithms.setPrimitiveInsertionSortCutoff(primitiveCutoff);
+            System.out.println("Calibrated insertion sort cutoff: " + cutoff);
+            System.out.println("Calibrated primitive insertion sort cutoff: " + primitiveCutoff);
+        } else {
+            loadInsertionSortCutoffs(CALIBRATION_FILE);
+        }
+
         // Change these parameters per test
         Integer[][] toSort = generateArrays(generator, false, false, 5);
         
@@ -63,5 +239,63 @@ public class PerformanceAnalysis {
 
         elapsed = testSort(toSort[3], SortingAlgorithms::quickSort);
         System.out.println("Quick Sort: " + elapsed);
+
+        // The newer sorts are meant for far longer arrays than the ones above, so time them on
+        // random arrays of a realistic length instead, each after a few untimed runs
+        int length = intOption(args, "length", DEFAULT_BENCHMARK_LENGTH);
+        int warmUps = intOption(args, "warm-up", DEFAULT_WARM_UP_RUNS);
+        Integer[] benchmark = randomIntegers(generator, length);
+
+        // Compare the sorts for short arrays against plain insertion sort on a shorter array
+        Integer[] smallBenchmark = randomIntegers(generator,
+                intOption(args, "small-length", DEFAULT_SMALL_BENCHMARK_LENGTH));
+        elapsed = timeSort(smallBenchmark, Integer[]::clone,
+                input -> SortingAlgorithms.insertionSort(input, false), warmUps);
+        System.out.println("Insertion Sort (small): " + elapsed);
+
+        elapsed = timeSort(smallBenchmark, Integer[]::clone,
+                input -> SortingAlgorithms.binaryInsertionSort(input, false), warmUps);
+        System.out.println("Binary Insertion Sort (small): " + elapsed);
+
+        elapsed = timeSort(smallBenchmark, Integer[]::clone,
+                input -> SortingAlgorithms.shellSort(input, false), warmUps);
+        System.out.println("Shell Sort (small): " + elapsed);
+
+        elapsed = timeSort(benchmark, Integer[]::clone,
+                input -> SortingAlgorithms.blockMergeSort(input, false), warmUps);
+        System.out.println("Block Merge Sort: " + elapsed);
+
+        // Report how long each phase of the sample sort took alongside its total
+        warmUp(benchmark, Integer[]::clone, input -> SortingAlgorithms.sampleSort(input, false),
+                warmUps);
+        SampleSort.Timings timings = SortingAlgorithms.sampleSort(benchmark.clone(), false);
+        System.out.println("Sample Sort: " + timings.totalNanos() + " (" + timings + ")");
+
+        // Report which algorithm the automatic sort picked for this input alongside its time
+        warmUp(benchmark, Integer[]::clone, input -> SortingAlgorithms.autoSort(input, false),
+                warmUps);
+        Integer[] toAutoSort = benchmark.clone();
+        long start = System.nanoTime();
+        AutoSort.Strategy strategy = SortingAlgorithms.autoSort(toAutoSort, false);
+        elapsed = System.nanoTime() - start;
+        System.out.println("Auto Sort (" + strategy + "): " + elapsed);
+
+        // Compare the branch-free primitive sorts against the hybrid sorts they stand in for
+        int[] keys = generator.ints(length).toArray();
+        elapsed = timeSort(keys, int[]::clone,
+                input -> SortingAlgorithms.hybridQuickSort(input, false), warmUps);
+        System.out.println("Hybrid Quick Sort (int): " + elapsed);
+
+        elapsed = timeSort(keys, int[]::clone,
+                input -> SortingAlgorithms.blockQuickSort(input, false), warmUps);
+        System.out.println("Block Quick Sort (int): " + elapsed);
+
+        elapsed = timeSort(keys, int[]::clone,
+                input -> SortingAlgorithms.hybridMergeSort(input, false), warmUps);
+        System.out.println("Hybrid Merge Sort (int): " + elapsed);
+
+        elapsed = timeSort(keys, int[]::clone,
+                input -> SortingAlgorithms.branchlessMergeSort(input, false), warmUps);
+        System.out.println("Branchless Merge Sort (int): " + elapsed);
     }
 }
@@ -0,0 +1,352 @@
+/**
+ * Least significant digit (LSD) radix sorts for integer keys. Keys are sorted 11 bits at a time
+ * by stable counting passes, so 32 bit keys take at most 3 passes and 64 bit keys at most 6.
+ * The histograms for every digit are gathered in a single initial pass, which also reveals any
+ * digit that is identical across all keys; such passes are skipped entirely. When the keys span
+ * no more values than there are keys, a single counting sort is used instead.
+ *
+ * Signed keys are handled by flipping their sign bit before extracting digits, so that negative
+ * keys order before positive ones. Descending order is obtained by also flipping every other bit,
+ * which reverses the digit order without any extra passes.
+ */
+final class RadixSort {
+
+    /** Number of bits sorted per pass. */
+    private static final int DIGIT_BITS = 11;
+
+    /** Number of distinct values a digit may take. */
+    private static final int RADIX = 1 << DIGIT_BITS;
+
+    /** Mask selecting the lowest digit of a key. */
+    private static final int DIGIT_MASK = RADIX - 1;
+
+    /** Number of passes needed to sort 32 bit keys. */
+    private static final int INT_PASSES = (Integer.SIZE + DIGIT_BITS - 1) / DIGIT_BITS;
+
+    /** Number of passes needed to sort 64 bit keys. */
+    private static final int LONG_PASSES = (Long.SIZE + DIGIT_BITS - 1) / DIGIT_BITS;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private RadixSort() {}
+
+    /**
+     * Sorts the given array of integers.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void sort(int[] input, boolean reversed) {
+        sort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of integers. Keys are distributed back and forth between
+     * the range and a buffer as long as the range, and only copied back into the range if the
+     * last pass left them in the buffer.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(int[] input, int fromIndex, int toIndex, boolean reversed) {
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return;
+        }
+
+        int min = input[fromIndex];
+        int max = input[fromIndex];
+        for (int index = fromIndex; index < toIndex; index++) {
+            min = Math.min(min, input[index]);
+            max = Math.max(max, input[index]);
+        }
+        if ((long) max - min < length) {
+            countingSort(input, fromIndex, toIndex, min, max, reversed);
+            return;
+        }
+
+        // Flipping the sign bit orders signed keys as unsigned; flipping the rest reverses them
+        int flip = reversed ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        int[][] counts = new int[INT_PASSES][RADIX];
+        for (int index = fromIndex; index < toIndex; index++) {
+            int key = input[index] ^ flip;
+            for (int pass = 0; pass < INT_PASSES; pass++) {
+                counts[pass][(key >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+
+        // Each array holds the keys from its own start index: fromIndex in the input, and 0 in
+        // the buffer
+        int[] source = input;
+        int sourceStart = fromIndex;
+        int[] destination = new int[length];
+        int destinationStart = 0;
+        int firstKey = input[fromIndex] ^ flip;
+        for (int pass = 0; pass < INT_PASSES; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] count = counts[pass];
+
+            // Every key has the same digit here, so this pass would not move anything
+            if (count[(firstKey >>> shift) & DIGIT_MASK] == length) {
+                continue;
+            }
+
+            toOffsets(count);
+            for (int index = sourceStart; index < sourceStart + length; index++) {
+                int value = source[index];
+                int digit = ((value ^ flip) >>> shift) & DIGIT_MASK;
+                destination[destinationStart + count[digit]++] = value;
+            }
+            int[] tempSwap = source;
+            source = destination;
+            destination = tempSwap;
+            int tempStart = sourceStart;
+            sourceStart = destinationStart;
+            destinationStart = tempStart;
+        }
+
+        if (source != input) {
+            System.arraycopy(source, 0, input, fromIndex, length);
+        }
+    }
+
+    /**
+     * Sorts the given array of longs.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null
+     */
+    static void sort(long[] input, boolean reversed) {
+        sort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of longs. Keys are distributed back and forth between
+     * the range and a buffer as long as the range, and only copied back into the range if the
+     * last pass left them in the buffer.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static void sort(long[] input, int fromIndex, int toIndex, boolean reversed) {
+        int length = toIndex - fromIndex;
+        if (length < 2) {
+            return;
+        }
+
+        long min = input[fromIndex];
+        long max = input[fromIndex];
+        for (int index = fromIndex; index < toIndex; index++) {
+            min = Math.min(min, input[index]);
+            max = Math.max(max, input[index]);
+        }
+        // The difference may overflow a signed long, but is always correct when unsigned
+        if (Long.compareUnsigned(max - min, length) < 0) {
+            countingSort(input, fromIndex, toIndex, min, max, reversed);
+            return;
+        }
+
+        long flip = reversed ? Long.MAX_VALUE : Long.MIN_VALUE;
+        int[][] counts = new int[LONG_PASSES][RADIX];
+        for (int index = fromIndex; index < toIndex; index++) {
+            long key = input[index] ^ flip;
+            for (int pass = 0; pass < LONG_PASSES; pass++) {
+                counts[pass][(int) (key >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+
+        // Each array holds the keys from its own start index: fromIndex in the input, and 0 in
+        // the buffer
+        long[] source = input;
+        int sourceStart = fromIndex;
+        long[] destination = new long[length];
+        int destinationStart = 0;
+        long firstKey = input[fromIndex] ^ flip;
+        for (int pass = 0; pass < LONG_PASSES; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] count = counts[pass];
+
+            if (count[(int) (firstKey >>> shift) & DIGIT_MASK] == length) {
+                continue;
+            }
+
+            toOffsets(count);
+            for (int index = sourceStart; index < sourceStart + length; index++) {
+                long value = source[index];
+                int digit = (int) ((value ^ flip) >>> shift) & DIGIT_MASK;
+                destination[destinationStart + count[digit]++] = value;
+            }
+            long[] tempSwap = source;
+            source = destination;
+            destination = tempSwap;
+            int tempStart = sourceStart;
+            sourceStart = destinationStart;
+            destinationStart = tempStart;
+        }
+
+        if (source != input) {
+            System.arraycopy(source, 0, input, fromIndex, length);
+        }
+    }
+
+    /**
+     * Finds the order in which the given keys would be sorted, without moving them. Keys are
+     * radix sorted together with their original indices; as each pass is stable, equal keys keep
+     * their original relative order.
+     *
+     * @param keys The keys to order, which are left unmodified
+     * @param reversed Whether the keys should be ordered in reverse
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] sortedIndices(long[] keys, boolean reversed) {
+        return sortedIndices(keys, reversed, false);
+    }
+
+    /**
+     * Finds the order in which the given keys would be sorted, as above. If the keys may be
+     * overwritten, they are used as one of the two key buffers the passes alternate between,
+     * so only one further array of keys is allocated rather than two.
+     *
+     * @param keys The keys to order
+     * @param reversed Whether the keys should be ordered in reverse
+     * @param overwriteKeys Whether keys may be left in an unspecified order on return
+     * @return An array whose i-th element is the index of the key that sorts to position i
+     * @requires keys != null
+     */
+    static int[] sortedIndices(long[] keys, boolean reversed, boolean overwriteKeys) {
+        int length = keys.length;
+        int[] indices = new int[length];
+        for (int index = 0; index < length; index++) {
+            indices[index] = index;
+        }
+        if (length < 2) {
+            return indices;
+        }
+
+        long flip = reversed ? Long.MAX_VALUE : Long.MIN_VALUE;
+        int[][] counts = new int[LONG_PASSES][RADIX];
+        for (long value : keys) {
+            long key = value ^ flip;
+            for (int pass = 0; pass < LONG_PASSES; pass++) {
+                counts[pass][(int) (key >>> (pass * DIGIT_BITS)) & DIGIT_MASK]++;
+            }
+        }
+
+        long[] sourceKeys = keys;
+        long[] destinationKeys = new long[length];
+        int[] sourceIndices = indices;
+        int[] destinationIndices = new int[length];
+        long firstKey = keys[0] ^ flip;
+        for (int pass = 0; pass < LONG_PASSES; pass++) {
+            int shift = pass * DIGIT_BITS;
+            int[] count = counts[pass];
+
+            if (count[(int) (firstKey >>> shift) & DIGIT_MASK] == length) {
+                continue;
+            }
+
+            toOffsets(count);
+            for (int position = 0; position < length; position++) {
+                long value = sourceKeys[position];
+                int target = count[(int) ((value ^ flip) >>> shift) & DIGIT_MASK]++;
+                destinationKeys[target] = value;
+                destinationIndices[target] = sourceIndices[position];
+            }
+
+            // Unless the caller's keys are disposable, swap in a fresh buffer in their place
+            if (sourceKeys == keys && !overwriteKeys) {
+                sourceKeys = new long[length];
+            }
+            long[] tempKeys = sourceKeys;
+            sourceKeys = destinationKeys;
+            destinationKeys = tempKeys;
+            int[] tempIndices = sourceIndices;
+            sourceIndices = destinationIndices;
+            destinationIndices = tempIndices;
+        }
+        return sourceIndices;
+    }
+
+    /**
+     * Sorts the given range of an array of integers by counting the occurrences of each value
+     * between the given bounds and writing them back out in order.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param min The smallest value in the range
+     * @param max The largest value in the range
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires max - min < toIndex - fromIndex
+     */
+    private static void countingSort(int[] input, int fromIndex, int toIndex, int min, int max,
+            boolean reversed) {
+        int[] counts = new int[max - min + 1];
+        for (int index = fromIndex; index < toIndex; index++) {
+            counts[input[index] - min]++;
+        }
+
+        int position = fromIndex;
+        for (int offset = 0; offset < counts.length; offset++) {
+            int bucket = reversed ? counts.length - 1 - offset : offset;
+            int value = min + bucket;
+            for (int count = counts[bucket]; count > 0; count--) {
+                input[position++] = value;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given range of an array of longs by counting the occurrences of each value
+     * between the given bounds and writing them back out in order.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param min The smallest value in the range
+     * @param max The largest value in the range
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires max - min < toIndex - fromIndex
+     */
+    private static void countingSort(long[] input, int fromIndex, int toIndex, long min,
+            long max, boolean reversed) {
+        int[] counts = new int[(int) (max - min) + 1];
+        for (int index = fromIndex; index < toIndex; index++) {
+            counts[(int) (input[index] - min)]++;
+        }
+
+        int position = fromIndex;
+        for (int offset = 0; offset < counts.length; offset++) {
+            int bucket = reversed ? counts.length - 1 - offset : offset;
+            long value = min + bucket;
+            for (int count = counts[bucket]; count > 0; count--) {
+                input[position++] = value;
+            }
+        }
+    }
+
+    /**
+     * Converts a digit histogram into the index at which each digit's first key belongs, i.e.
+     * an exclusive prefix sum.
+     *
+     * @param count The number of keys with each digit, replaced by each digit's first index
+     */
+    private static void toOffsets(int[] count) {
+        int total = 0;
+        for (int digit = 0; digit < count.length; digit++) {
+            int digitCount = count[digit];
+            count[digit] = total;
+            total += digitCount;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.nio.ByteBuffer;
+
+/**
+ * The layout of fixed-width binary records: how many bytes each record takes, and where within
+ * it the key to sort by lies and how it is encoded. Keys are read with the byte order of
+ * whichever buffer holds the records.
+ *
+ * Every key type is read as a long whose signed order is the key's order, so records of any
+ * layout can be sorted by the same primitive routines.
+ */
+final class RecordLayout {
+
+    /**
+     * The encodings a record's key may have.
+     */
+    enum KeyType {
+        /** A signed 32 bit integer. */
+        INT(Integer.BYTES),
+        /** A signed 64 bit integer. */
+        LONG(Long.BYTES),
+        /** A 64 bit floating point number, ordered as by {@link Double#compare}. */
+        DOUBLE(Double.BYTES);
+
+        /** The number of bytes a key of this type takes. */
+        final int width;
+
+        /**
+         * Creates a key type.
+         *
+         * @param width The number of bytes a key of this type takes
+         */
+        KeyType(int width) {
+            this.width = width;
+        }
+    }
+
+    /** The number of bytes each record takes. */
+    final int recordLength;
+
+    /** The offset of the key from the start of each record, in bytes. */
+    final int keyOffset;
+
+    /** The encoding of each record's key. */
+    final KeyType keyType;
+
+    /**
+     * Creates a record layout.
+     *
+     * @param recordLength The number of bytes each record takes
+     * @param keyOffset The offset of the key from the start of each record, in bytes
+     * @param keyType The encoding of each record's key
+     * @throws IllegalArgumentException if recordLength < 1 or the key does not lie within a
+     *                                  record
+     * @requires keyType != null
+     */
+    RecordLayout(int recordLength, int keyOffset, KeyType keyType)
+            throws IllegalArgumentException {
+        if (recordLength < 1) {
+            throw new IllegalArgumentException("Record length must be positive.");
+        }
+        if (keyOffset < 0 || keyOffset > recordLength - keyType.width) {
+            throw new IllegalArgumentException("Key must lie within a record.");
+        }
+        this.recordLength = recordLength;
+        this.keyOffset = keyOffset;
+        this.keyType = keyType;
+    }
+
+    /**
+     * Reads the key of the record starting at the given position, as a long ordered as the key
+     * is. Integer keys are offset to be non-negative, which keeps the upper radix digits of every
+     * key equal.
+     *
+     * @param buffer The buffer holding the record
+     * @param recordStart The index of the record's first byte in the buffer
+     * @return The record's key, as an order-preserving long
+     * @requires buffer != null && the record lies within the buffer
+     */
+    long key(ByteBuffer buffer, int recordStart) {
+        int index = recordStart + keyOffset;
+        switch (keyType) {
+            case INT:
+                return (long) buffer.getInt(index) - Integer.MIN_VALUE;
+            case LONG:
+                return buffer.getLong(index);
+            default:
+                return SortingAlgorithms.sortableBits(buffer.getDouble(index));
+        }
+    }
+}
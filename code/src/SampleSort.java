@@ -0,0 +1,518 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+/**
+ * Sample sorts, which spread the work across threads from the very first step rather than
+ * waiting on a single-threaded top-level partition as quick sort does. Each sort runs in three
+ * phases:
+ *
+ * 1. Sampling: a random sample, several times larger than the number of buckets, is sorted, and
+ *    evenly spaced elements of it are taken as splitters between buckets. Oversampling keeps the
+ *    buckets close to equal in size.
+ * 2. Scattering: the input is cut into one block per thread. In parallel, each block finds every
+ *    element's bucket by binary search over the splitters and counts its elements per bucket;
+ *    prefix sums of those counts then tell each block exactly where to write each element, so
+ *    every block scatters into a shared buffer in parallel without any synchronization.
+ * 3. Sorting buckets: each bucket is an independent range of the buffer, so all of them are
+ *    copied back and sorted in parallel, after which the array is sorted.
+ *
+ * Elements equal to a splitter all land in the same bucket, so heavily duplicated input may leave
+ * one bucket far larger than the rest; it is still sorted correctly, just with less parallelism.
+ * The time spent in each phase is returned so that the balance between them can be tuned.
+ */
+final class SampleSort {
+
+    /** Number of buckets per thread, so that threads finishing early can take on others. */
+    static final int BUCKETS_PER_THREAD = 4;
+
+    /** Number of sampled elements per bucket. */
+    static final int OVERSAMPLING = 32;
+
+    /** Smallest average bucket length worth sorting on its own thread. */
+    static final int MIN_BUCKET_LENGTH = 1 << 12;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private SampleSort() {}
+
+    /**
+     * The time a sample sort spent in each of its phases.
+     */
+    static final class Timings {
+
+        /** Nanoseconds spent sorting the sample and choosing splitters. */
+        final long samplingNanos;
+
+        /** Nanoseconds spent finding each element's bucket and scattering it there. */
+        final long scatterNanos;
+
+        /** Nanoseconds spent sorting the buckets. */
+        final long bucketSortNanos;
+
+        /**
+         * Records the time spent in each phase.
+         *
+         * @param samplingNanos Nanoseconds spent sorting the sample and choosing splitters
+         * @param scatterNanos Nanoseconds spent finding each element's bucket and scattering it
+         * @param bucketSortNanos Nanoseconds spent sorting the buckets
+         */
+        Timings(long samplingNanos, long scatterNanos, long bucketSortNanos) {
+            this.samplingNanos = samplingNanos;
+            this.scatterNanos = scatterNanos;
+            this.bucketSortNanos = bucketSortNanos;
+        }
+
+        /**
+         * Gets the time spent in all phases together.
+         *
+         * @return The total number of nanoseconds the sort took
+         */
+        long totalNanos() {
+            return samplingNanos + scatterNanos + bucketSortNanos;
+        }
+
+        @Override
+        public String toString() {
+            return "sampling " + samplingNanos + ", scatter " + scatterNanos + ", bucket sort "
+                    + bucketSortNanos;
+        }
+    }
+
+    /**
+     * Sorts the given range of an array in comparator order using the given pool. Buckets are
+     * merge sorted, and scattering keeps elements of the same bucket in their original order, so
+     * the sort is stable. The buffer the range is scattered into is only as long as the range.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param comparator The ordering to sort by
+     * @param pool The pool to run the sort's tasks in
+     * @param <T> Array element type to be sorted.
+     * @return The time spent in each phase
+     * @requires input != null && comparator != null && pool != null &&
+     *           0 <= fromIndex <= toIndex <= input.length
+     */
+    static <T> Timings sort(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        int length = toIndex - fromIndex;
+        int buckets = bucketCount(length, pool);
+        if (buckets < 2) {
+            T[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+            SortingAlgorithms.mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex,
+                    comparator);
+            return new Timings(0, 0, System.nanoTime() - start);
+        }
+
+        T[] sample = Arrays.copyOf(input, buckets * OVERSAMPLING);
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = input[fromIndex + random.nextInt(length)];
+        }
+        SortingAlgorithms.mergeSort(sample, comparator);
+        T[] splitters = Arrays.copyOf(sample, buckets - 1);
+        for (int splitter = 0; splitter < splitters.length; splitter++) {
+            splitters[splitter] = sample[(splitter + 1) * OVERSAMPLING];
+        }
+        long sampled = System.nanoTime();
+
+        int blocks = Math.min(pool.getParallelism(), buckets);
+        int[] bucketOf = new int[length];
+        int[][] counts = new int[blocks][buckets];
+        forEach(pool, blocks, block -> {
+            int[] count = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                int bucket = bucketOf(input[fromIndex + index], splitters, comparator);
+                bucketOf[index] = bucket;
+                count[bucket]++;
+            }
+        });
+        int[] bucketStarts = toWritePositions(counts, buckets);
+        T[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        forEach(pool, blocks, block -> {
+            int[] next = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                buffer[next[bucketOf[index]]++] = input[fromIndex + index];
+            }
+        });
+        long scattered = System.nanoTime();
+
+        // Each bucket is copied back so both arrays hold it, as the merge sort alternates them
+        forEach(pool, buckets, bucket -> {
+            int left = bucketStarts[bucket];
+            int right = bucketStarts[bucket + 1] - 1;
+            System.arraycopy(buffer, left, input, fromIndex + left, right - left + 1);
+            SortingAlgorithms.mergeSort(buffer, input, fromIndex + left, fromIndex + right,
+                    -fromIndex, comparator);
+        });
+        return new Timings(sampled - start, scattered - sampled, System.nanoTime() - scattered);
+    }
+
+    /**
+     * Sorts the given range of an array of integers using the given pool. Buckets are introsorted.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @return The time spent in each phase
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static Timings sort(int[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool) {
+        long start = System.nanoTime();
+        int length = toIndex - fromIndex;
+        int buckets = bucketCount(length, pool);
+        if (buckets < 2) {
+            SortingAlgorithms.introSort(input, fromIndex, toIndex - 1,
+                    SortingAlgorithms.depthLimit(length), reversed);
+            return new Timings(0, 0, System.nanoTime() - start);
+        }
+
+        int[] sample = new int[buckets * OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = input[fromIndex + random.nextInt(length)];
+        }
+        SortingAlgorithms.introSort(sample, reversed);
+        int[] splitters = new int[buckets - 1];
+        for (int splitter = 0; splitter < splitters.length; splitter++) {
+            splitters[splitter] = sample[(splitter + 1) * OVERSAMPLING];
+        }
+        long sampled = System.nanoTime();
+
+        int blocks = Math.min(pool.getParallelism(), buckets);
+        int[] bucketOf = new int[length];
+        int[][] counts = new int[blocks][buckets];
+        forEach(pool, blocks, block -> {
+            int[] count = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                int bucket = bucketOf(input[fromIndex + index], splitters, reversed);
+                bucketOf[index] = bucket;
+                count[bucket]++;
+            }
+        });
+        int[] bucketStarts = toWritePositions(counts, buckets);
+        int[] buffer = new int[length];
+        forEach(pool, blocks, block -> {
+            int[] next = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                buffer[next[bucketOf[index]]++] = input[fromIndex + index];
+            }
+        });
+        long scattered = System.nanoTime();
+
+        forEach(pool, buckets, bucket -> {
+            int left = bucketStarts[bucket];
+            int right = bucketStarts[bucket + 1] - 1;
+            System.arraycopy(buffer, left, input, fromIndex + left, right - left + 1);
+            SortingAlgorithms.introSort(input, fromIndex + left, fromIndex + right,
+                    SortingAlgorithms.depthLimit(right - left + 1), reversed);
+        });
+        return new Timings(sampled - start, scattered - sampled, System.nanoTime() - scattered);
+    }
+
+    /**
+     * Sorts the given range of an array of longs using the given pool. Buckets are introsorted.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @return The time spent in each phase
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static Timings sort(long[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool) {
+        long start = System.nanoTime();
+        int length = toIndex - fromIndex;
+        int buckets = bucketCount(length, pool);
+        if (buckets < 2) {
+            SortingAlgorithms.introSort(input, fromIndex, toIndex - 1,
+                    SortingAlgorithms.depthLimit(length), reversed);
+            return new Timings(0, 0, System.nanoTime() - start);
+        }
+
+        long[] sample = new long[buckets * OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = input[fromIndex + random.nextInt(length)];
+        }
+        SortingAlgorithms.introSort(sample, reversed);
+        long[] splitters = new long[buckets - 1];
+        for (int splitter = 0; splitter < splitters.length; splitter++) {
+            splitters[splitter] = sample[(splitter + 1) * OVERSAMPLING];
+        }
+        long sampled = System.nanoTime();
+
+        int blocks = Math.min(pool.getParallelism(), buckets);
+        int[] bucketOf = new int[length];
+        int[][] counts = new int[blocks][buckets];
+        forEach(pool, blocks, block -> {
+            int[] count = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                int bucket = bucketOf(input[fromIndex + index], splitters, reversed);
+                bucketOf[index] = bucket;
+                count[bucket]++;
+            }
+        });
+        int[] bucketStarts = toWritePositions(counts, buckets);
+        long[] buffer = new long[length];
+        forEach(pool, blocks, block -> {
+            int[] next = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                buffer[next[bucketOf[index]]++] = input[fromIndex + index];
+            }
+        });
+        long scattered = System.nanoTime();
+
+        forEach(pool, buckets, bucket -> {
+            int left = bucketStarts[bucket];
+            int right = bucketStarts[bucket + 1] - 1;
+            System.arraycopy(buffer, left, input, fromIndex + left, right - left + 1);
+            SortingAlgorithms.introSort(input, fromIndex + left, fromIndex + right,
+                    SortingAlgorithms.depthLimit(right - left + 1), reversed);
+        });
+        return new Timings(sampled - start, scattered - sampled, System.nanoTime() - scattered);
+    }
+
+    /**
+     * Sorts the given range of an array of doubles using the given pool. Buckets are introsorted.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first element to sort
+     * @param toIndex The index after the last element to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @param pool The pool to run the sort's tasks in
+     * @return The time spent in each phase
+     * @requires input != null && pool != null && 0 <= fromIndex <= toIndex <= input.length
+     */
+    static Timings sort(double[] input, int fromIndex, int toIndex, boolean reversed,
+            ForkJoinPool pool) {
+        long start = System.nanoTime();
+        int length = toIndex - fromIndex;
+        int buckets = bucketCount(length, pool);
+        if (buckets < 2) {
+            SortingAlgorithms.introSort(input, fromIndex, toIndex - 1,
+                    SortingAlgorithms.depthLimit(length), reversed);
+            return new Timings(0, 0, System.nanoTime() - start);
+        }
+
+        double[] sample = new double[buckets * OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int index = 0; index < sample.length; index++) {
+            sample[index] = input[fromIndex + random.nextInt(length)];
+        }
+        SortingAlgorithms.introSort(sample, reversed);
+        double[] splitters = new double[buckets - 1];
+        for (int splitter = 0; splitter < splitters.length; splitter++) {
+            splitters[splitter] = sample[(splitter + 1) * OVERSAMPLING];
+        }
+        long sampled = System.nanoTime();
+
+        int blocks = Math.min(pool.getParallelism(), buckets);
+        int[] bucketOf = new int[length];
+        int[][] counts = new int[blocks][buckets];
+        forEach(pool, blocks, block -> {
+            int[] count = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                int bucket = bucketOf(input[fromIndex + index], splitters, reversed);
+                bucketOf[index] = bucket;
+                count[bucket]++;
+            }
+        });
+        int[] bucketStarts = toWritePositions(counts, buckets);
+        double[] buffer = new double[length];
+        forEach(pool, blocks, block -> {
+            int[] next = counts[block];
+            for (int index = blockStart(block, blocks, length);
+                    index < blockStart(block + 1, blocks, length); index++) {
+                buffer[next[bucketOf[index]]++] = input[fromIndex + index];
+            }
+        });
+        long scattered = System.nanoTime();
+
+        forEach(pool, buckets, bucket -> {
+            int left = bucketStarts[bucket];
+            int right = bucketStarts[bucket + 1] - 1;
+            System.arraycopy(buffer, left, input, fromIndex + left, right - left + 1);
+            SortingAlgorithms.introSort(input, fromIndex + left, fromIndex + right,
+                    SortingAlgorithms.depthLimit(right - left + 1), reversed);
+        });
+        return new Timings(sampled - start, scattered - sampled, System.nanoTime() - scattered);
+    }
+
+    /**
+     * Chooses how many buckets to scatter an array into: a few per thread, unless that would
+     * make the buckets too short to be worth sorting separately.
+     *
+     * @param length The length of the array
+     * @param pool The pool the sort runs in
+     * @return The number of buckets, where fewer than 2 means the array should be sorted
+     *         sequentially
+     */
+    private static int bucketCount(int length, ForkJoinPool pool) {
+        return Math.min(pool.getParallelism() * BUCKETS_PER_THREAD, length / MIN_BUCKET_LENGTH);
+    }
+
+    /**
+     * Finds the index of the first element of the given block, when an array is cut into
+     * blocks of as near equal length as possible.
+     *
+     * @param block The block, or blocks for the index just past the array's end
+     * @param blocks The number of blocks
+     * @param length The length of the array
+     * @return The index at which the block starts
+     */
+    private static int blockStart(int block, int blocks, int length) {
+        return (int) ((long) length * block / blocks);
+    }
+
+    /**
+     * Converts each block's per-bucket counts into the index at which the block should write
+     * its first element of each bucket. Buckets are laid out in order and, within a bucket,
+     * blocks are laid out in order, so elements of a bucket keep their relative order.
+     *
+     * @param counts The number of elements of each block in each bucket, replaced by each
+     *               block's first write index for each bucket
+     * @param buckets The number of buckets
+     * @return The index at which each bucket starts, followed by the array's length
+     */
+    private static int[] toWritePositions(int[][] counts, int buckets) {
+        int[] bucketStarts = new int[buckets + 1];
+        int total = 0;
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            bucketStarts[bucket] = total;
+            for (int[] count : counts) {
+                int blockCount = count[bucket];
+                count[bucket] = total;
+                total += blockCount;
+            }
+        }
+        bucketStarts[buckets] = total;
+        return bucketStarts;
+    }
+
+    /**
+     * Runs the given action once for each index below the given count, in parallel in the given
+     * pool, and waits for all of them to finish.
+     *
+     * @param pool The pool to run the actions in
+     * @param count The number of actions to run
+     * @param action The action to run, given each index in turn
+     */
+    private static void forEach(ForkJoinPool pool, int count, IntConsumer action) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(count);
+        for (int index = 0; index < count; index++) {
+            int task = index;
+            tasks.add(ForkJoinTask.adapt(() -> action.accept(task)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Finds the bucket an element belongs to: the number of splitters it does not precede.
+     *
+     * @param element The element to place
+     * @param splitters The sorted splitters between buckets
+     * @param comparator The ordering being sorted by
+     * @param <T> Array element type to be sorted.
+     * @return The element's bucket
+     */
+    private static <T> int bucketOf(T element, T[] splitters, Comparator<? super T> comparator) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (comparator.compare(element, splitters[middle]) < 0) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the bucket an integer belongs to: the number of splitters it does not precede.
+     *
+     * @param element The element to place
+     * @param splitters The sorted splitters between buckets
+     * @param reversed Whether the array is being sorted in reverse order
+     * @return The element's bucket
+     */
+    private static int bucketOf(int element, int[] splitters, boolean reversed) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (SortingAlgorithms.precedes(element, splitters[middle], reversed)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the bucket a long belongs to: the number of splitters it does not precede.
+     *
+     * @param element The element to place
+     * @param splitters The sorted splitters between buckets
+     * @param reversed Whether the array is being sorted in reverse order
+     * @return The element's bucket
+     */
+    private static int bucketOf(long element, long[] splitters, boolean reversed) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (SortingAlgorithms.precedes(element, splitters[middle], reversed)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Finds the bucket a double belongs to: the number of splitters it does not precede.
+     *
+     * @param element The element to place
+     * @param splitters The sorted splitters between buckets
+     * @param reversed Whether the array is being sorted in reverse order
+     * @return The element's bucket
+     */
+    private static int bucketOf(double element, double[] splitters, boolean reversed) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (SortingAlgorithms.precedes(element, splitters[middle], reversed)) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -1,7 +1,49 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
 /**
  * A set of sorting algorithm implementations.
  */
 public class SortingAlgorithms {
+
+    /** Ranges at least this long choose their quick sort pivot from nine samples, not three. */
+    private static final int NINTHER_THRESHOLD = 128;
+
+    /** Insertion sort cutoff used by the hybrid sorts until one is set or calibrated. */
+    static final int DEFAULT_INSERTION_SORT_CUTOFF = 16;
+
+    /** Ranges at or below this length are insertion sorted by the hybrid sorts of objects. */
+    private static volatile int insertionSortCutoff = DEFAULT_INSERTION_SORT_CUTOFF;
+
+    /**
+     * Leaf cutoff used by the hybrid and branch-free sorts of primitives until one is set or
+     * calibrated.
+     */
+    static final int DEFAULT_PRIMITIVE_INSERTION_SORT_CUTOFF = 16;
+
+    /**
+     * Ranges at or below this length are sorted as leaves, by a sorting network where one fits,
+     * by the hybrid and branch-free sorts of primitives. Leaves of primitives are far cheaper to
+     * sort than leaves of objects, so this is calibrated separately.
+     */
+    private static volatile int primitiveInsertionSortCutoff =
+            DEFAULT_PRIMITIVE_INSERTION_SORT_CUTOFF;
+
+    /**
+     * Shell sort gaps, largest last: Ciura's experimentally tuned sequence, extended
+     * geometrically by a ratio of 2.25 so that long arrays also start from a large gap.
+     */
+    private static final int[] SHELL_SORT_GAPS = shellSortGaps();
+
     /**
      * Sorts the given array using the selection sort algorithm.
      * This should modify the array in-place.
@@ -59,10 +101,40 @@ public class SortingAlgorithms {
             input[insertPosition + 1] = toInsert;
         }
     }
+
+    /**
+     * Sorts the given array using binary insertion sort. This should modify the array in-place
+     * and is stable. See {@link #binaryInsertionSort(Object[], Comparator, boolean)}.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static <T extends Comparable> void binaryInsertionSort(T[] input, boolean reversed) {
+        binaryInsertionSort(input, 0, input.length - 1, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array using Shell sort. This should modify the array in-place, but is not
+     * stable. See {@link #shellSort(Object[], Comparator, boolean)}.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static <T extends Comparable> void shellSort(T[] input, boolean reversed) {
+        shellSort(input, 0, input.length - 1, naturalOrder(reversed));
+    }
     
     /**
      * Sorts the given array using the merge sort algorithm.
      * This should modify the array in-place.
+     *
+     * A single auxiliary buffer of the same length is allocated once per sort (rather than per
+     * merge). Use {@link #mergeSort(Comparable[], Comparable[], boolean)} to reuse a buffer across
+     * sorts instead.
      * 
      * @param input An array of comparable objects.
      * @param reversed If false, the array should be sorted ascending.
@@ -70,78 +142,119 @@ public class SortingAlgorithms {
      * @requires input != null
      */
     static <T extends Comparable> void mergeSort(T[] input, boolean reversed) {
-        mergeSort(input, 0, input.length - 1, reversed);
+        mergeSort(input, (T[]) new Comparable[input.length], reversed);
     }
 
     /**
-     * Recursively partitions given array into halves, sorts each half, and merges halves.
+     * Sorts the given array using the merge sort algorithm, using the given buffer as the only
+     * auxiliary storage. No allocation occurs, so the same buffer may be reused across sorts.
+     * The buffer's contents are overwritten, and it may retain references to input elements
+     * afterwards.
      *
-     * @param input The given array of comparable objects
+     * @param input An array of comparable objects.
+     * @param buffer Scratch space at least as long as input.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if buffer is shorter than input
+     * @requires input != null && buffer != null && input != buffer
+     */
+    static <T extends Comparable> void mergeSort(T[] input, T[] buffer, boolean reversed)
+            throws IllegalArgumentException {
+        if (buffer.length < input.length) {
+            throw new IllegalArgumentException("Buffer must be at least as long as input.");
+        }
+        System.arraycopy(input, 0, buffer, 0, input.length);
+        mergeSort(buffer, input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Sorts the given array using a block merge sort. This should modify the array in-place and
+     * is stable, like {@link #mergeSort(Comparable[], boolean)}, but allocates only O(1) extra
+     * memory, at the cost of more element moves.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static <T extends Comparable> void blockMergeSort(T[] input, boolean reversed) {
+        BlockMergeSort.sort(input, naturalOrder(reversed), 0);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves. Both
+     * arrays must hold the same elements within the range on entry; the sorted range is written
+     * to destination. The roles of the two arrays alternate at each level, so no level has to
+     * copy its halves out before merging.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
      * @param left The index of the left-most element
      * @param right The index of the right-most element
      * @param reversed Whether the array should be sorted in reverse order
      * @param <T> Array element type to be sorted.
      */
-    private static <T extends Comparable> void mergeSort(T[] input, int left, int right,
-            boolean reversed) {
+    private static <T extends Comparable> void mergeSort(T[] source, T[] destination, int left,
+            int right, boolean reversed) {
         if (left < right) {
-            int midPoint = (left + right) / 2;
-            mergeSort(input, left, midPoint, reversed);
-            mergeSort(input, midPoint + 1, right, reversed);
-            merge(input, left, midPoint, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            mergeSort(destination, source, left, midPoint, reversed);
+            mergeSort(destination, source, midPoint + 1, right, reversed);
+            merge(source, destination, left, midPoint, right, reversed);
         }
     }
 
     /**
-     * Takes partitions of the given array and merges them together in ascending order (descending
-     * if reversed flag is set).
+     * Takes sorted partitions of the source array and merges them together into the same range
+     * of the destination array in ascending order (descending if reversed flag is set).
      *
-     * @param input The given array of comparable objects
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
      * @param left The index of the left-most element
-     * @param midPoint The middle index of the given array
+     * @param midPoint The index of the last element of the first half
      * @param right The index of the right-most element
      * @param reversed Whether the array should be sorted in reverse order
      * @param <T> Array element type to be sorted.
      */
-    private static <T extends Comparable> void merge(T[] input, int left, int midPoint, int right,
-            boolean reversed) {
-        int firstHalfLength = midPoint - left + 1;
-        int secondHalfLength = right - midPoint;
-        
-        // Copy first and second half of input array
-        T[] firstHalf = (T[]) new Comparable[firstHalfLength];
-        T[] secondHalf = (T[]) new Comparable[secondHalfLength];
-        for (int position = left; position < right + 1; position++) {
-            if (position - left < firstHalfLength) {
-                firstHalf[position - left] = input[position];
-            } else {
-                secondHalf[position - firstHalfLength - left] = input[position];
-            }
-        }
+    private static <T extends Comparable> void merge(T[] source, T[] destination, int left,
+            int midPoint, int right, boolean reversed) {
+        merge(source, destination, left, midPoint, right, left, reversed);
+    }
 
-        int firstPosition = 0;
-        int secondPosition = 0;
-        int inputPosition = left;
+    /**
+     * Merges sorted partitions of the source array as above, writing them to the destination
+     * from the given index rather than from the same range.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T extends Comparable> void merge(T[] source, T[] destination, int left,
+            int midPoint, int right, int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
 
-        // Compare each half and re-order input array accordingly
-        while (firstPosition < firstHalfLength && secondPosition < secondHalfLength) {
-            if (((firstHalf[firstPosition]).compareTo(secondHalf[secondPosition]) <= 0 &&
-                    !reversed) ||
-                    ((firstHalf[firstPosition]).compareTo(secondHalf[secondPosition]) >= 0 &&
-                    reversed)) {
-                input[inputPosition++] = firstHalf[firstPosition++];
+        // Compare each half and re-order into the destination accordingly
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (precedes(source[secondPosition], source[firstPosition], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
             } else {
-                input[inputPosition++] = secondHalf[secondPosition++];
+                destination[outputPosition++] = source[firstPosition++];
             }
         }
-        
+
         // Restore any remaining elements
-        while (firstPosition < firstHalfLength) {
-            input[inputPosition++] = firstHalf[firstPosition++];
-        }
-        while (secondPosition < secondHalfLength) {
-            input[inputPosition++] = secondHalf[secondPosition++];
-        }
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
     }
     
     /**
@@ -181,7 +294,9 @@ public class SortingAlgorithms {
     }
 
     /**
-     * Partitions the array via the median element of the provided left and right indices.
+     * Partitions the array via the median element of the provided left and right indices. The
+     * pivot's value is captured once, so elements may be swapped past the middle without
+     * restarting the scan.
      *
      * @param input The given array to partition
      * @param left The left-most array index element to focus on
@@ -199,23 +314,14 @@ public class SortingAlgorithms {
         int currentRight = right + 1;
 
         while (true) {
-            // If pivot has been swapped, obtain new pivot and start over (pivot must always be
-            // midpoint)
-            if (pivot != input[midPoint]) {
-                pivot = input[midPoint];
-                currentLeft = left;
-                currentRight = right;
-            }
             // Find first left and right positions out of order (with respect to the pivot)
             do {
                 (currentRight)--;
-            } while ((((input[currentRight]).compareTo(pivot) > 0 &&
-                    !reversed) || ((input[currentRight]).compareTo(pivot) < 0 && reversed)));
+            } while (precedes(pivot, input[currentRight], reversed));
 
             do {
                 (currentLeft)++;
-            } while ((((input[currentLeft]).compareTo(pivot) < 0 &&
-                    !reversed) || ((input[currentLeft]).compareTo(pivot) > 0 && reversed)));
+            } while (precedes(input[currentLeft], pivot, reversed));
 
             // Swap to partition array based on the current median element (i.e. pivot)
             if (currentLeft < currentRight) {
@@ -229,4 +335,6203 @@ public class SortingAlgorithms {
             }
         }
     }
+
+    /**
+     * Sorts the given array using a hybrid merge sort, which insertion sorts any range no longer
+     * than the current insertion sort cutoff rather than recursing down to single elements.
+     * This should modify the array in-place and is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridMergeSort(T[] input, boolean reversed) {
+        hybridMergeSort(input, reversed, insertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array using a hybrid merge sort with the given insertion sort cutoff.
+     * This should modify the array in-place and is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are insertion sorted.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridMergeSort(T[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        T[] buffer = Arrays.copyOf(input, input.length);
+        hybridMergeSort(buffer, input, 0, input.length - 1, 0, reversed, cutoff);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves, as in
+     * the buffered merge sort, except that short ranges are insertion sorted in place. The source
+     * holds the range's elements sourceOffset places further along than the destination, as in
+     * {@link #mergeSort(Object[], Object[], int, int, int, Comparator)}.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are insertion sorted
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T extends Comparable> void hybridMergeSort(T[] source, T[] destination,
+            int left, int right, int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            insertionSort(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        hybridMergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        hybridMergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Sorts the given array using a hybrid quick sort, which insertion sorts any range no longer
+     * than the current insertion sort cutoff rather than partitioning it further. As with quick
+     * sort, the middle element is used as the pivot and the array is modified in-place.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridQuickSort(T[] input, boolean reversed) {
+        hybridQuickSort(input, reversed, insertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array using a hybrid quick sort with the given insertion sort cutoff.
+     * This should modify the array in-place.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are insertion sorted.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridQuickSort(T[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridQuickSort(input, 0, input.length - 1, reversed, cutoff);
+    }
+
+    /**
+     * Recursively partitions the given range using the median element as a pivot, insertion
+     * sorting it instead once it is no longer than the cutoff.
+     *
+     * @param input The given array of comparable objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are insertion sorted
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T extends Comparable> void hybridQuickSort(T[] input, int left, int right,
+            boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            insertionSort(input, left, right, reversed);
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        hybridQuickSort(input, left, newBound, reversed, cutoff);
+        hybridQuickSort(input, newBound + 1, right, reversed, cutoff);
+    }
+
+    /**
+     * Insertion sorts the given range. This is stable.
+     *
+     * @param input The given array of comparable objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T extends Comparable> void insertionSort(T[] input, int left, int right,
+            boolean reversed) {
+        for (int current = left + 1; current <= right; current++) {
+            T toInsert = input[current];
+            int insertPosition = current - 1;
+
+            while (insertPosition >= left && precedes(toInsert, input[insertPosition], reversed)) {
+                input[insertPosition + 1] = input[insertPosition];
+                insertPosition--;
+            }
+            input[insertPosition + 1] = toInsert;
+        }
+    }
+
+    /**
+     * Gets the length at or below which the hybrid sorts of objects switch to insertion sort.
+     *
+     * @return The current insertion sort cutoff
+     */
+    static int getInsertionSortCutoff() {
+        return insertionSortCutoff;
+    }
+
+    /**
+     * Sets the length at or below which the hybrid sorts of objects switch to insertion sort,
+     * e.g. to a value measured by {@link PerformanceAnalysis#calibrateInsertionSortCutoff}.
+     *
+     * @param cutoff The new insertion sort cutoff
+     * @throws IllegalArgumentException if cutoff < 1
+     */
+    static void setInsertionSortCutoff(int cutoff) throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        insertionSortCutoff = cutoff;
+    }
+
+    /**
+     * Gets the length at or below which the hybrid and branch-free sorts of primitives sort
+     * ranges as leaves.
+     *
+     * @return The current primitive insertion sort cutoff
+     */
+    static int getPrimitiveInsertionSortCutoff() {
+        return primitiveInsertionSortCutoff;
+    }
+
+    /**
+     * Sets the length at or below which the hybrid and branch-free sorts of primitives sort
+     * ranges as leaves, e.g. to a value measured by
+     * {@link PerformanceAnalysis#calibratePrimitiveInsertionSortCutoff}.
+     *
+     * @param cutoff The new primitive insertion sort cutoff
+     * @throws IllegalArgumentException if cutoff < 1
+     */
+    static void setPrimitiveInsertionSortCutoff(int cutoff) throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        primitiveInsertionSortCutoff = cutoff;
+    }
+
+    /**
+     * Checks that the given insertion sort cutoff is usable.
+     *
+     * @param cutoff The cutoff to check
+     * @throws IllegalArgumentException if cutoff < 1
+     */
+    private static void checkInsertionSortCutoff(int cutoff) throws IllegalArgumentException {
+        if (cutoff < 1) {
+            throw new IllegalArgumentException("Insertion sort cutoff must be positive.");
+        }
+    }
+
+    /**
+     * Sorts the given array using the selection sort algorithm, ordering elements by the given
+     * comparator. This should modify the array in-place.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by. Descending orders should be expressed through
+     *                   the comparator itself (e.g. {@link Comparator#reversed()}).
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void selectionSort(T[] input, Comparator<? super T> comparator) {
+        selectionSort(input, 0, input.length - 1, comparator);
+    }
+
+    /**
+     * Selection sorts the given range.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void selectionSort(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        for (int current = left; current < right; current++) {
+            int minMax = current;
+
+            for (int next = current + 1; next <= right; next++) {
+                if (comparator.compare(input[next], input[minMax]) < 0) {
+                    minMax = next;
+                }
+            }
+            if (minMax != current) {
+                T tempSwap = input[minMax];
+                input[minMax] = input[current];
+                input[current] = tempSwap;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array using the selection sort algorithm, ordering elements by the given
+     * comparator. The reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void selectionSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        selectionSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the given array using the insertion sort algorithm, ordering elements by the given
+     * comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void insertionSort(T[] input, Comparator<? super T> comparator) {
+        insertionSort(input, 0, input.length - 1, comparator);
+    }
+
+    /**
+     * Insertion sorts the given range. This is stable.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void insertionSort(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        for (int current = left + 1; current <= right; current++) {
+            T toInsert = input[current];
+            int insertPosition = current - 1;
+
+            while (insertPosition >= left
+                    && comparator.compare(toInsert, input[insertPosition]) < 0) {
+                input[insertPosition + 1] = input[insertPosition];
+                insertPosition--;
+            }
+            input[insertPosition + 1] = toInsert;
+        }
+    }
+
+    /**
+     * Sorts the given array using the insertion sort algorithm, ordering elements by the given
+     * comparator. The reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void insertionSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        insertionSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the given array using binary insertion sort, ordering elements by the given
+     * comparator. This should modify the array in-place and is stable.
+     *
+     * Each element's position is binary searched rather than scanned for, so the sort makes
+     * O(n log n) comparisons rather than O(n^2), and the elements after that position are shifted
+     * along in one array copy. Moves remain quadratic, but are cheap next to an expensive
+     * comparator, which makes this suit arrays of up to a few hundred such elements.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void binaryInsertionSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        binaryInsertionSort(input, 0, input.length - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Binary insertion sorts the given range. This is stable.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void binaryInsertionSort(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        for (int current = left + 1; current <= right; current++) {
+            T toInsert = input[current];
+
+            // Insert after any elements equal to this one, which keeps the sort stable
+            int low = left;
+            int high = current;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparator.compare(toInsert, input[mid]) < 0) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            System.arraycopy(input, low, input, low + 1, current - low);
+            input[low] = toInsert;
+        }
+    }
+
+    /**
+     * Sorts the given array using Shell sort, ordering elements by the given comparator. This
+     * should modify the array in-place, but is not stable.
+     *
+     * The array is insertion sorted over elements a gap apart, for each gap of
+     * {@link #SHELL_SORT_GAPS} shorter than the array, down to a final ordinary insertion sort.
+     * Moves and comparisons both grow only a little faster than n log n in practice, without the
+     * recursion or scratch memory of the O(n log n) sorts, which makes this suit mid-sized arrays
+     * with expensive comparators.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void shellSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        shellSort(input, 0, input.length - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Shell sorts the given range with the gaps of {@link #SHELL_SORT_GAPS}.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void shellSort(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        int length = right - left + 1;
+        int gapIndex = SHELL_SORT_GAPS.length - 1;
+        while (gapIndex > 0 && SHELL_SORT_GAPS[gapIndex] >= length) {
+            gapIndex--;
+        }
+        for (; gapIndex >= 0; gapIndex--) {
+            int gap = SHELL_SORT_GAPS[gapIndex];
+            for (int current = left + gap; current <= right; current++) {
+                T toInsert = input[current];
+                int insertPosition = current;
+                while (insertPosition - gap >= left
+                        && comparator.compare(toInsert, input[insertPosition - gap]) < 0) {
+                    input[insertPosition] = input[insertPosition - gap];
+                    insertPosition -= gap;
+                }
+                input[insertPosition] = toInsert;
+            }
+        }
+    }
+
+    /**
+     * Builds the Shell sort gap sequence: Ciura's gaps, then each following gap 2.25 times the
+     * previous one for as long as it fits in an int.
+     *
+     * @return The gaps, in ascending order
+     */
+    private static int[] shellSortGaps() {
+        int[] ciura = {1, 4, 10, 23, 57, 132, 301, 701, 1750};
+        int length = ciura.length;
+        for (long gap = ciura[length - 1]; gap * 9 / 4 < Integer.MAX_VALUE; gap = gap * 9 / 4) {
+            length++;
+        }
+
+        int[] gaps = Arrays.copyOf(ciura, length);
+        for (int index = ciura.length; index < length; index++) {
+            gaps[index] = (int) ((long) gaps[index - 1] * 9 / 4);
+        }
+        return gaps;
+    }
+
+    /**
+     * Sorts the given array using the merge sort algorithm, ordering elements by the given
+     * comparator. This should modify the array in-place and is stable. A single auxiliary buffer
+     * is allocated once per sort.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void mergeSort(T[] input, Comparator<? super T> comparator) {
+        mergeSort(input, Arrays.copyOf(input, input.length), comparator);
+    }
+
+    /**
+     * Sorts the given array using the merge sort algorithm, ordering elements by the given
+     * comparator and using the given buffer as the only auxiliary storage. No allocation occurs,
+     * so the same buffer may be reused across sorts. The buffer's contents are overwritten, and
+     * it may retain references to input elements afterwards.
+     *
+     * @param input An array of objects.
+     * @param buffer Scratch space at least as long as input.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if buffer is shorter than input
+     * @requires input != null && buffer != null && input != buffer && comparator != null
+     */
+    static <T> void mergeSort(T[] input, T[] buffer, Comparator<? super T> comparator)
+            throws IllegalArgumentException {
+        if (buffer.length < input.length) {
+            throw new IllegalArgumentException("Buffer must be at least as long as input.");
+        }
+        System.arraycopy(input, 0, buffer, 0, input.length);
+        mergeSort(buffer, input, 0, input.length - 1, comparator);
+    }
+
+    /**
+     * Sorts the given array using the merge sort algorithm, ordering elements by the given
+     * comparator. The reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void mergeSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        mergeSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the given array using a block merge sort, ordering elements by the given comparator.
+     * This should modify the array in-place and is stable, and allocates only O(1) extra memory.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void blockMergeSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        BlockMergeSort.sort(input, orderOf(comparator, reversed), 0);
+    }
+
+    /**
+     * Sorts the given array using a block merge sort, ordering elements by the given comparator
+     * and merging through a fixed buffer of the given length. Even a small buffer, such as
+     * {@link BlockMergeSort#DEFAULT_BUFFER_LENGTH} elements, saves most of the element moves
+     * the strictly in-place sort makes, while memory use stays independent of the input length.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param bufferLength The length of the buffer, or 0 to sort strictly in place.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if bufferLength is negative
+     * @requires input != null && comparator != null
+     */
+    static <T> void blockMergeSort(T[] input, Comparator<? super T> comparator, boolean reversed,
+            int bufferLength) throws IllegalArgumentException {
+        BlockMergeSort.sort(input, orderOf(comparator, reversed), bufferLength);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The index of the left-most element
+     * @param right The index of the right-most element
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void mergeSort(T[] source, T[] destination, int left, int right,
+            Comparator<? super T> comparator) {
+        mergeSort(source, destination, left, right, 0, comparator);
+    }
+
+    /**
+     * Merge sorts the given range of the destination as above, except that the source holds the
+     * range's elements sourceOffset places further along. This lets a range of a long array be
+     * sorted through a buffer only as long as the range. Each level's source is the level
+     * below's destination, so the offset is negated at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void mergeSort(T[] source, T[] destination, int left, int right, int sourceOffset,
+            Comparator<? super T> comparator) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                    -sourceOffset, comparator);
+            mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                    -sourceOffset, comparator);
+            merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                    right + sourceOffset, left, comparator);
+        }
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the destination
+     * in comparator order, making exactly one comparison per element placed while both halves
+     * are non-empty.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The index of the left-most element
+     * @param midPoint The index of the last element of the first half
+     * @param right The index of the right-most element
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void merge(T[] source, T[] destination, int left, int midPoint, int right,
+            Comparator<? super T> comparator) {
+        merge(source, destination, left, midPoint, right, left, comparator);
+    }
+
+    /**
+     * Merges sorted partitions of the source array as above, writing them to the destination
+     * from the given index rather than from the same range.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void merge(T[] source, T[] destination, int left, int midPoint, int right,
+            int outputLeft, Comparator<? super T> comparator) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (comparator.compare(source[secondPosition], source[firstPosition]) < 0) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Sorts the given array using the quick sort algorithm, ordering elements by the given
+     * comparator. This should modify the array in-place, using the value at the middle of the
+     * input array (i.e. floor(n/2)) as the pivot at each step.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void quickSort(T[] input, Comparator<? super T> comparator) {
+        quickSort(input, 0, input.length - 1, comparator);
+    }
+
+    /**
+     * Sorts the given array using the quick sort algorithm, ordering elements by the given
+     * comparator. The reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void quickSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        quickSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Recursively partitions the given array using the median element as a pivot and sorts said
+     * partitions.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void quickSort(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        if (left >= right) {
+            return;
+        }
+        int newBound = partition(input, left, right, comparator);
+        quickSort(input, left, newBound, comparator);
+        quickSort(input, newBound + 1, right, comparator);
+    }
+
+    /**
+     * Partitions the array around the value of its middle element. The pivot is captured once,
+     * so elements may be swapped past the middle without restarting the scan.
+     *
+     * @param input The given array to partition
+     * @param left The left-most array index element to focus on
+     * @param right The right-most array index element to focus on
+     * @param comparator The ordering to partition by
+     * @param <T> Array element type to be sorted.
+     * @return The left/right position of the subarray to focus on
+     */
+    static <T> int partition(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        T pivot = input[(left + right) >>> 1];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (comparator.compare(pivot, input[currentRight]) < 0);
+
+            do {
+                currentLeft++;
+            } while (comparator.compare(input[currentLeft], pivot) < 0);
+
+            if (currentLeft < currentRight) {
+                T tempSwap = input[currentLeft];
+                input[currentLeft] = input[currentRight];
+                input[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array using introspective sort: a quick sort whose pivot is the median of
+     * three (or, for longer ranges, of nine) sampled elements, which falls back to heap sort for
+     * any range that has been partitioned more than about 2 log2(n) times. This guarantees
+     * O(n log n) time and O(log n) stack depth whatever the input. This should modify the array
+     * in-place.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void introSort(T[] input, boolean reversed) {
+        introSort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array using introspective sort, ordering elements by the given comparator.
+     * This should modify the array in-place.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void introSort(T[] input, Comparator<? super T> comparator) {
+        introSort(input, 0, input.length - 1, depthLimit(input.length), comparator);
+    }
+
+    /**
+     * Sorts the given array using introspective sort, ordering elements by the given comparator.
+     * The reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void introSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        introSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Partitions the given range and sorts the smaller side recursively, looping on the larger
+     * side instead of recursing, so that the stack depth is O(log n). Ranges which exhaust the
+     * depth limit are heap sorted.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void introSort(T[] input, int left, int right, int depthLimit,
+            Comparator<? super T> comparator) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, comparator);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, comparator);
+            int midPoint = (left + right) >>> 1;
+            T tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, comparator);
+            if (newBound - left < right - newBound) {
+                introSort(input, left, newBound, depthLimit, comparator);
+                left = newBound + 1;
+            } else {
+                introSort(input, newBound + 1, right, depthLimit, comparator);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Finds the element that would be at the given index were the given array sorted, using
+     * introspective selection: a quick select that only goes on to partition the side holding the
+     * index, falling back to heap sort should partitioning make too little progress. This takes
+     * O(n) expected time and should modify the array in-place, leaving the element at the given
+     * index with nothing before it that sorts after it, and nothing after it that sorts before it.
+     *
+     * @param input An array of comparable objects.
+     * @param index The sorted position of the element to find.
+     * @param reversed If false, positions follow ascending order.
+     *                 Otherwise, they follow descending order.
+     * @param <T> Array element type.
+     * @return The element that sorts to the given index.
+     * @throws IllegalArgumentException if index is not within the array
+     * @requires input != null
+     */
+    static <T extends Comparable> T select(T[] input, int index, boolean reversed)
+            throws IllegalArgumentException {
+        return select(input, index, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Finds the element that would be at the given index were the given array sorted by the
+     * given comparator, using introspective selection. This takes O(n) expected time and should
+     * modify the array in-place, leaving the element at the given index with nothing before it
+     * that sorts after it, and nothing after it that sorts before it.
+     *
+     * @param input An array of objects.
+     * @param index The sorted position of the element to find.
+     * @param comparator The ordering of the elements.
+     * @param reversed If false, positions follow the comparator's order.
+     *                 Otherwise, they follow its reverse.
+     * @param <T> Array element type.
+     * @return The element that sorts to the given index.
+     * @throws IllegalArgumentException if index is not within the array
+     * @requires input != null && comparator != null
+     */
+    static <T> T select(T[] input, int index, Comparator<? super T> comparator,
+            boolean reversed) throws IllegalArgumentException {
+        checkSelectIndex(index, input.length);
+        introSelect(input, 0, input.length - 1, index, depthLimit(input.length),
+                orderOf(comparator, reversed));
+        return input[index];
+    }
+
+    /**
+     * Partially sorts the given array, so that its first k elements are the k which sort first,
+     * in sorted order; the rest are left in no particular order. The k-th element is found by
+     * introspective selection and only the elements before it are then sorted, taking
+     * O(n + k log k) time. This should modify the array in-place.
+     *
+     * @param input An array of comparable objects.
+     * @param k The number of leading elements to sort.
+     * @param reversed If false, the leading elements should be the smallest, sorted ascending.
+     *                 Otherwise, they should be the largest, sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static <T extends Comparable> void partialSort(T[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        partialSort(input, k, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Partially sorts the given array by the given comparator, so that its first k elements are
+     * the k which sort first, in sorted order; the rest are left in no particular order. This
+     * takes O(n + k log k) time and should modify the array in-place.
+     *
+     * @param input An array of objects.
+     * @param k The number of leading elements to sort.
+     * @param comparator The ordering of the elements.
+     * @param reversed If false, the leading elements should follow the comparator's order.
+     *                 Otherwise, they should follow its reverse.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null && comparator != null
+     */
+    static <T> void partialSort(T[] input, int k, Comparator<? super T> comparator,
+            boolean reversed) throws IllegalArgumentException {
+        checkSelectCount(k, input.length);
+        if (k > 0) {
+            Comparator<? super T> order = orderOf(comparator, reversed);
+            introSelect(input, 0, input.length - 1, k - 1, depthLimit(input.length), order);
+            introSort(input, 0, k - 1, depthLimit(k), order);
+        }
+    }
+
+    /**
+     * Finds the k elements of the given array which sort first, as a partial sort of a copy
+     * would. The input is left untouched. This takes O(n + k log k) time.
+     *
+     * @param input An array of comparable objects.
+     * @param k The number of elements to find.
+     * @param reversed If false, the k smallest elements should be found, sorted ascending.
+     *                 Otherwise, the k largest, sorted descending.
+     * @param <T> Array element type.
+     * @return A new array holding the k elements which sort first, in sorted order.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static <T extends Comparable> T[] topK(T[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        return topK(input, k, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Finds the k elements of the given array which sort first by the given comparator, as a
+     * partial sort of a copy would. The input is left untouched. This takes O(n + k log k) time.
+     *
+     * @param input An array of objects.
+     * @param k The number of elements to find.
+     * @param comparator The ordering of the elements.
+     * @param reversed If false, the elements should follow the comparator's order.
+     *                 Otherwise, they should follow its reverse.
+     * @param <T> Array element type.
+     * @return A new array holding the k elements which sort first, in sorted order.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null && comparator != null
+     */
+    static <T> T[] topK(T[] input, int k, Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        T[] copy = input.clone();
+        partialSort(copy, k, comparator, reversed);
+        return Arrays.copyOf(copy, k);
+    }
+
+    /**
+     * Rearranges the given range so that the element at the given index is the one which would be
+     * there were the range sorted, partitioning only the side holding the index. A range which
+     * has been partitioned depthLimit times is heap sorted instead.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param index The index whose element should be placed
+     * @param depthLimit The number of partitioning steps allowed before heap sorting
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void introSelect(T[] input, int left, int right, int index, int depthLimit,
+            Comparator<? super T> comparator) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, comparator);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, comparator);
+            int midPoint = (left + right) >>> 1;
+            T tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, comparator);
+            if (index <= newBound) {
+                right = newBound;
+            } else {
+                left = newBound + 1;
+            }
+        }
+    }
+
+    /**
+     * Chooses the index of a pivot for the given range: the median of the first, middle and last
+     * elements, or for long ranges the median of three such medians taken across the range
+     * (Tukey's ninther).
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     * @return The index of the chosen pivot
+     */
+    private static <T> int choosePivot(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        int midPoint = (left + right) >>> 1;
+        if (right - left < NINTHER_THRESHOLD) {
+            return medianOfThree(input, left, midPoint, right, comparator);
+        }
+        int step = (right - left) >>> 3;
+        int first = medianOfThree(input, left, left + step, left + 2 * step, comparator);
+        int middle = medianOfThree(input, midPoint - step, midPoint, midPoint + step, comparator);
+        int last = medianOfThree(input, right - 2 * step, right - step, right, comparator);
+        return medianOfThree(input, first, middle, last, comparator);
+    }
+
+    /**
+     * Finds the index of the median of three elements.
+     *
+     * @param input The given array of objects
+     * @param first The index of the first element
+     * @param second The index of the second element
+     * @param third The index of the third element
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     * @return The index of whichever element lies between the other two
+     */
+    private static <T> int medianOfThree(T[] input, int first, int second, int third,
+            Comparator<? super T> comparator) {
+        if (comparator.compare(input[first], input[second]) < 0) {
+            if (comparator.compare(input[second], input[third]) < 0) {
+                return second;
+            }
+            return comparator.compare(input[first], input[third]) < 0 ? third : first;
+        }
+        if (comparator.compare(input[second], input[third]) > 0) {
+            return second;
+        }
+        return comparator.compare(input[first], input[third]) > 0 ? third : first;
+    }
+
+    /**
+     * Sorts the given array using heap sort. This should modify the array in-place, allocates
+     * nothing, and takes O(n log n) time whatever the input.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void heapSort(T[] input, boolean reversed) {
+        heapSort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array using heap sort, ordering elements by the given comparator. This
+     * should modify the array in-place.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void heapSort(T[] input, Comparator<? super T> comparator) {
+        heapSort(input, 0, input.length - 1, comparator);
+    }
+
+    /**
+     * Sorts the given array using heap sort, ordering elements by the given comparator. The
+     * reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void heapSort(T[] input, Comparator<? super T> comparator, boolean reversed) {
+        heapSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the given range using heap sort. A heap is built over the range with the element to
+     * be placed last at its root, which is then repeatedly swapped to the end of the shrinking
+     * heap.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void heapSort(T[] input, int left, int right, Comparator<? super T> comparator) {
+        int length = right - left + 1;
+        for (int root = (length >>> 1) - 1; root >= 0; root--) {
+            siftDown(input, left, root, length, comparator);
+        }
+        for (int end = length - 1; end > 0; end--) {
+            T tempSwap = input[left];
+            input[left] = input[left + end];
+            input[left + end] = tempSwap;
+            siftDown(input, left, 0, end, comparator);
+        }
+    }
+
+    /**
+     * Moves the element at the given heap position down to where neither of its children belongs
+     * after it. This sifts bottom-up: it first descends all the way to a leaf along the path of
+     * children which belong later (one comparison per level), then climbs back up to the element's
+     * final position. As elements sifted down from the root usually belong near the bottom, this
+     * takes about half the comparisons of a conventional top-down sift.
+     *
+     * @param input The given array of objects
+     * @param offset The array index of the heap's root
+     * @param root The heap position of the element to move down
+     * @param length The number of elements in the heap
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void siftDown(T[] input, int offset, int root, int length,
+            Comparator<? super T> comparator) {
+        T toSift = input[offset + root];
+        int start = root;
+
+        // Descend to a leaf, moving each later child up into the vacated position
+        while (root < (length >>> 1)) {
+            int child = 2 * root + 1;
+            if (child + 1 < length
+                    && comparator.compare(input[offset + child], input[offset + child + 1]) < 0) {
+                child++;
+            }
+            input[offset + root] = input[offset + child];
+            root = child;
+        }
+
+        // Climb back up, moving elements back down, until the sifted element fits
+        while (root > start) {
+            int parent = (root - 1) >>> 1;
+            if (comparator.compare(toSift, input[offset + parent]) <= 0) {
+                break;
+            }
+            input[offset + root] = input[offset + parent];
+            root = parent;
+        }
+        input[offset + root] = toSift;
+    }
+
+    /**
+     * Sorts the given array using quick sort with three-way (Dutch national flag) partitioning.
+     * Each step splits the range into elements before, equal to, and after the middle element in
+     * a single pass, and never revisits the elements equal to it. Inputs with k distinct values
+     * are therefore sorted in O(nk) time, which is close to linear when k is small. This should
+     * modify the array in-place.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void threeWayQuickSort(T[] input, boolean reversed) {
+        threeWayQuickSort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array using quick sort with three-way partitioning, ordering elements by
+     * the given comparator. This should modify the array in-place.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void threeWayQuickSort(T[] input, Comparator<? super T> comparator) {
+        threeWayQuickSort(input, 0, input.length - 1, comparator);
+    }
+
+    /**
+     * Sorts the given array using quick sort with three-way partitioning, ordering elements by
+     * the given comparator. The reversed flag is folded into the comparator once, before sorting
+     * begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void threeWayQuickSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        threeWayQuickSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Partitions the given range three ways around the value of its middle element, then sorts
+     * the smaller outer part recursively and loops on the larger one.
+     *
+     * @param input The given array of objects
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param comparator The ordering to sort by
+     * @param <T> Array element type to be sorted.
+     */
+    static <T> void threeWayQuickSort(T[] input, int left, int right,
+            Comparator<? super T> comparator) {
+        while (left < right) {
+            T pivot = input[(left + right) >>> 1];
+
+            // Invariant: [left, lessEnd) < pivot, [lessEnd, current) == pivot,
+            // (greaterStart, right] > pivot, and [current, greaterStart] is unexamined
+            int lessEnd = left;
+            int current = left;
+            int greaterStart = right;
+            while (current <= greaterStart) {
+                int comparison = comparator.compare(input[current], pivot);
+                if (comparison < 0) {
+                    T tempSwap = input[lessEnd];
+                    input[lessEnd++] = input[current];
+                    input[current++] = tempSwap;
+                } else if (comparison > 0) {
+                    T tempSwap = input[greaterStart];
+                    input[greaterStart--] = input[current];
+                    input[current] = tempSwap;
+                } else {
+                    current++;
+                }
+            }
+
+            if (lessEnd - left < right - greaterStart) {
+                threeWayQuickSort(input, left, lessEnd - 1, comparator);
+                left = greaterStart + 1;
+            } else {
+                threeWayQuickSort(input, greaterStart + 1, right, comparator);
+                right = lessEnd - 1;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of strings using three-way radix quick sort, which partitions on one
+     * character at a time rather than comparing whole strings. Each character of a prefix shared
+     * by many strings is therefore examined about once per string, rather than once per
+     * comparison. Strings are ordered as by {@link String#compareTo}. This should modify the
+     * array in-place.
+     *
+     * @param input An array of strings.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null && no element of input is null
+     */
+    static void stringSort(String[] input, boolean reversed) {
+        StringSort.sort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array using an adaptive natural merge sort, which detects and merges runs
+     * that are already ascending or descending. Sorted and reverse sorted input is sorted in
+     * O(n) time, and any input in O(n log n) time. This should modify the array in-place and
+     * is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void naturalMergeSort(T[] input, boolean reversed) {
+        NaturalMergeSort.sort(input, 0, input.length, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array using an adaptive natural merge sort, ordering elements by the given
+     * comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void naturalMergeSort(T[] input, Comparator<? super T> comparator) {
+        NaturalMergeSort.sort(input, 0, input.length, comparator);
+    }
+
+    /**
+     * Sorts the given array using an adaptive natural merge sort, ordering elements by the given
+     * comparator. The reversed flag is folded into the comparator once, before sorting begins.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void naturalMergeSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        naturalMergeSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the given array using a parallel merge sort in the common fork/join pool. This should
+     * modify the array in-place and is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void parallelMergeSort(T[] input, boolean reversed) {
+        parallelMergeSort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array using a parallel merge sort in the common fork/join pool, ordering
+     * elements by the given comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void parallelMergeSort(T[] input, Comparator<? super T> comparator) {
+        ParallelMergeSort.sort(input, 0, input.length, comparator, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the given array using a parallel merge sort, ordering elements by the given
+     * comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges no longer than this are sorted on a single thread.
+     * @param parallelMerge If true, merges of ranges longer than the cutoff are also split
+     *                      across threads. Otherwise, each merge runs on a single thread.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && comparator != null && pool != null
+     */
+    static <T> void parallelMergeSort(T[] input, Comparator<? super T> comparator,
+            ForkJoinPool pool, int sequentialCutoff, boolean parallelMerge)
+            throws IllegalArgumentException {
+        ParallelMergeSort.sort(input, 0, input.length, comparator, pool, sequentialCutoff,
+                parallelMerge);
+    }
+
+    /**
+     * Sorts the given array using a parallel quick sort in the common fork/join pool. This should
+     * modify the array in-place.
+     *
+     * Ranges at least as long as the sequential cutoff are partitioned around their middle
+     * element, and the larger side is handed to another thread. Shorter ranges are finished by
+     * {@link #introSort(Object[], int, int, int, Comparator)}, which samples its pivots, and any
+     * range whose chain of partition steps reaches {@link #depthLimit(int)} is heap sorted.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null
+     */
+    static <T extends Comparable> void parallelQuickSort(T[] input, boolean reversed) {
+        parallelQuickSort(input, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the given array using a parallel quick sort in the given fork/join pool. This should
+     * modify the array in-place.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges shorter than this are sorted on a single thread.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static <T extends Comparable> void parallelQuickSort(T[] input, boolean reversed,
+            ForkJoinPool pool, int sequentialCutoff) throws IllegalArgumentException {
+        ParallelQuickSort.sort(input, 0, input.length, naturalOrder(reversed), pool,
+                sequentialCutoff);
+    }
+
+    /**
+     * Sorts the given array using a parallel quick sort in the common fork/join pool, ordering
+     * elements by the given comparator. This should modify the array in-place. Pivots are chosen
+     * as described for {@link #parallelQuickSort(Comparable[], boolean)}.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && comparator != null
+     */
+    static <T> void parallelQuickSort(T[] input, Comparator<? super T> comparator) {
+        parallelQuickSort(input, comparator, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the given array using a parallel quick sort in the given fork/join pool, ordering
+     * elements by the given comparator. This should modify the array in-place.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges shorter than this are sorted on a single thread.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && comparator != null && pool != null
+     */
+    static <T> void parallelQuickSort(T[] input, Comparator<? super T> comparator,
+            ForkJoinPool pool, int sequentialCutoff) throws IllegalArgumentException {
+        ParallelQuickSort.sort(input, 0, input.length, comparator, pool, sequentialCutoff);
+    }
+
+    /**
+     * Sorts the given array using a parallel sample sort in the common fork/join pool. Splitters
+     * chosen from a random sample divide the array into buckets, every element is scattered to
+     * its bucket in a single parallel pass, and the buckets are then sorted in parallel, so no
+     * step waits on a single thread. This should modify the array in-place and is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null
+     */
+    static <T extends Comparable> SampleSort.Timings sampleSort(T[] input, boolean reversed) {
+        return sampleSort(input, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the given array using a parallel sample sort in the given fork/join pool. This should
+     * modify the array in-place and is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && pool != null
+     */
+    static <T extends Comparable> SampleSort.Timings sampleSort(T[] input, boolean reversed,
+            ForkJoinPool pool) {
+        return sampleSort(input, naturalOrder(reversed), pool);
+    }
+
+    /**
+     * Sorts the given array using a parallel sample sort in the common fork/join pool, ordering
+     * elements by the given comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && comparator != null
+     */
+    static <T> SampleSort.Timings sampleSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        return sampleSort(input, comparator, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the given array using a parallel sample sort in the given fork/join pool, ordering
+     * elements by the given comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && comparator != null && pool != null
+     */
+    static <T> SampleSort.Timings sampleSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed, ForkJoinPool pool) {
+        return sampleSort(input, orderOf(comparator, reversed), pool);
+    }
+
+    /**
+     * Sorts the given array using a parallel sample sort in the given fork/join pool, ordering
+     * elements by the given comparator. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && comparator != null && pool != null
+     */
+    static <T> SampleSort.Timings sampleSort(T[] input, Comparator<? super T> comparator,
+            ForkJoinPool pool) {
+        return SampleSort.sort(input, 0, input.length, comparator, pool);
+    }
+
+    /**
+     * Sorts the given array with whichever algorithm suits it best, judging by a cheap profile of
+     * its length, runs, and a sample of its elements: insertion sort for short input, natural
+     * merge sort for input that is mostly sorted or reverse sorted, three-way quick sort for input
+     * with many duplicates, and otherwise a merge sort, run in parallel for long input. This
+     * should modify the array in-place, but is not guaranteed to be stable.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @return The strategy chosen to sort the array.
+     * @requires input != null
+     */
+    static <T extends Comparable> AutoSort.Strategy autoSort(T[] input, boolean reversed) {
+        return AutoSort.sort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Sorts the given array by the given comparator with whichever algorithm suits it best, as
+     * {@link #autoSort(Comparable[], boolean)} does. This should modify the array in-place, but
+     * is not guaranteed to be stable.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the array should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @return The strategy chosen to sort the array.
+     * @requires input != null && comparator != null
+     */
+    static <T> AutoSort.Strategy autoSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        return AutoSort.sort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the given array by an integer key extracted from each element. The key is extracted
+     * exactly once per element, and the keys are then radix sorted along with the elements'
+     * original positions, so expensive keys are never recomputed and no comparisons are made.
+     * This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param key Extracts the integer to sort each element by.
+     * @param reversed If false, the array should be sorted ascending by key.
+     *                 Otherwise, it should be sorted descending by key.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && key != null
+     */
+    static <T> void sortByIntKey(T[] input, ToIntFunction<? super T> key, boolean reversed) {
+        long[] keys = new long[input.length];
+        for (int index = 0; index < input.length; index++) {
+            // Offsetting into the non-negative range leaves the upper radix digits all equal
+            keys[index] = (long) key.applyAsInt(input[index]) - Integer.MIN_VALUE;
+        }
+        sortByKeys(input, keys, reversed);
+    }
+
+    /**
+     * Sorts the given array by a long key extracted from each element. The key is extracted
+     * exactly once per element, and the keys are then radix sorted along with the elements'
+     * original positions. This should modify the array in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param key Extracts the long to sort each element by.
+     * @param reversed If false, the array should be sorted ascending by key.
+     *                 Otherwise, it should be sorted descending by key.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && key != null
+     */
+    static <T> void sortByLongKey(T[] input, ToLongFunction<? super T> key, boolean reversed) {
+        long[] keys = new long[input.length];
+        for (int index = 0; index < input.length; index++) {
+            keys[index] = key.applyAsLong(input[index]);
+        }
+        sortByKeys(input, keys, reversed);
+    }
+
+    /**
+     * Sorts the given array by a double key extracted from each element, with keys ordered as by
+     * {@link Double#compare}. The key is extracted exactly once per element, and the keys are
+     * then radix sorted along with the elements' original positions. This should modify the array
+     * in-place and is stable.
+     *
+     * @param input An array of objects.
+     * @param key Extracts the double to sort each element by.
+     * @param reversed If false, the array should be sorted ascending by key.
+     *                 Otherwise, it should be sorted descending by key.
+     * @param <T> Array element type to be sorted.
+     * @requires input != null && key != null
+     */
+    static <T> void sortByDoubleKey(T[] input, ToDoubleFunction<? super T> key,
+            boolean reversed) {
+        long[] keys = new long[input.length];
+        for (int index = 0; index < input.length; index++) {
+            keys[index] = sortableBits(key.applyAsDouble(input[index]));
+        }
+        sortByKeys(input, keys, reversed);
+    }
+
+    /**
+     * Rearranges the given array into the order of the given keys, one key per element.
+     *
+     * @param input The array to rearrange
+     * @param keys The key of each element of input, which are left in an unspecified order
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param <T> Array element type to be sorted.
+     */
+    private static <T> void sortByKeys(T[] input, long[] keys, boolean reversed) {
+        int[] order = RadixSort.sortedIndices(keys, reversed, true);
+        T[] original = input.clone();
+        for (int position = 0; position < input.length; position++) {
+            input[position] = original[order[position]];
+        }
+    }
+
+    /**
+     * Maps a double to a long such that comparing the longs orders the doubles as
+     * {@link Double#compare} does: negative zero before positive zero, and NaN after everything.
+     * Negative doubles have every bit but the sign flipped, as their magnitude bits order them
+     * backwards.
+     *
+     * @param value The double to map
+     * @return A long ordered as the double is
+     */
+    static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    /**
+     * Finds the order that would sort the given array using merge sort, without moving any
+     * element. Equal elements keep their original relative order, so the result is stable. The
+     * input is left untouched, so the permutation can be used to reorder parallel arrays.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @param <T> Array element type to be ordered.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static <T extends Comparable> int[] argMergeSort(T[] input, boolean reversed) {
+        return ArgSort.mergeSort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Finds the order that would sort the given array by the given comparator using merge sort,
+     * without moving any element. The result is stable and the input is left untouched.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering of the elements.
+     * @param reversed If false, the order should follow the comparator.
+     *                 Otherwise, it should be reversed.
+     * @param <T> Array element type to be ordered.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null && comparator != null
+     */
+    static <T> int[] argMergeSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        return ArgSort.mergeSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Finds the order that would sort the given array using quick sort, without moving any
+     * element. Equal elements may be ordered arbitrarily. The input is left untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @param <T> Array element type to be ordered.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static <T extends Comparable> int[] argQuickSort(T[] input, boolean reversed) {
+        return ArgSort.quickSort(input, naturalOrder(reversed));
+    }
+
+    /**
+     * Finds the order that would sort the given array by the given comparator using quick sort,
+     * without moving any element. Equal elements may be ordered arbitrarily. The input is left
+     * untouched.
+     *
+     * @param input An array of objects.
+     * @param comparator The ordering of the elements.
+     * @param reversed If false, the order should follow the comparator.
+     *                 Otherwise, it should be reversed.
+     * @param <T> Array element type to be ordered.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null && comparator != null
+     */
+    static <T> int[] argQuickSort(T[] input, Comparator<? super T> comparator,
+            boolean reversed) {
+        return ArgSort.quickSort(input, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Finds the order that would sort rows held as parallel key columns, comparing rows by each
+     * column in turn. Rows are sorted by the first column, then only runs of rows tied on it are
+     * sorted by the next, so no row objects are ever built. Each column is created with its own
+     * reversed flag by {@link ColumnarSort#column}. The sort is stable and the columns are left
+     * untouched; {@link ColumnarSort#permute} brings any column into the returned order.
+     *
+     * @param keys The key columns, most significant first.
+     * @return A permutation whose i-th element is the index of the row that sorts to position i.
+     * @throws IllegalArgumentException if no key is given or the keys differ in length
+     * @requires keys != null && no element of keys is null
+     */
+    static int[] columnarSort(ColumnarSort.Column... keys) throws IllegalArgumentException {
+        return ColumnarSort.sort(keys);
+    }
+
+    /**
+     * Sorts a file of fixed-width binary records that may be too large to hold in memory, using
+     * the default memory budget and fan-in and spilling sorted runs to the system's temporary
+     * directory. The sort is stable.
+     *
+     * @param input The file of records to sort.
+     * @param output The file to write the sorted records to, replacing any existing contents.
+     * @param layout The width of each record and the offset and type of its key.
+     * @param reversed If false, the records should be sorted ascending.
+     *                 Otherwise, they should be sorted descending.
+     * @throws IllegalArgumentException if the input is not made of whole records
+     * @throws IOException if the input cannot be read, or the output or a run cannot be written
+     * @requires all arguments are non-null && input and output are different files
+     */
+    static void externalSort(Path input, Path output, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException, IOException {
+        externalSort(input, output, layout, reversed, ExternalSort.DEFAULT_MEMORY_BUDGET,
+                ExternalSort.DEFAULT_FAN_IN, Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    /**
+     * Sorts a file of fixed-width binary records that may be too large to hold in memory. Chunks
+     * that fit the memory budget are radix sorted by key and spilled to temporary runs, which
+     * are then merged at most fanIn at a time with a loser tree. The sort is stable.
+     *
+     * @param input The file of records to sort.
+     * @param output The file to write the sorted records to, replacing any existing contents.
+     * @param layout The width of each record and the offset and type of its key.
+     * @param reversed If false, the records should be sorted ascending.
+     *                 Otherwise, they should be sorted descending.
+     * @param memoryBudget The number of bytes the sort may use for records and their keys.
+     * @param fanIn The largest number of runs to merge at once.
+     * @param tempDirectory The directory to spill sorted runs to.
+     * @throws IllegalArgumentException if fanIn < 2, the budget cannot hold a record for every
+     *                                  run being merged, or the input is not made of whole
+     *                                  records
+     * @throws IOException if the input cannot be read, or the output or a run cannot be written
+     * @requires all arguments are non-null && input and output are different files
+     */
+    static void externalSort(Path input, Path output, RecordLayout layout, boolean reversed,
+            long memoryBudget, int fanIn, Path tempDirectory)
+            throws IllegalArgumentException, IOException {
+        ExternalSort.sort(input, output, layout, reversed, memoryBudget, fanIn, tempDirectory);
+    }
+
+    /**
+     * Sorts fixed-width binary records held in a buffer, such as a direct or memory-mapped one,
+     * without creating an object per record. The records span the buffer's remaining bytes. An
+     * index of each record's key and number is radix sorted, then the records are moved into
+     * place along the cycles of the resulting permutation. The sort is stable.
+     *
+     * @param records The buffer holding the records.
+     * @param layout The width of each record and the offset and type of its key.
+     * @param reversed If false, the records should be sorted ascending.
+     *                 Otherwise, they should be sorted descending.
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     * @requires records != null && layout != null && records is not read-only
+     */
+    static void sortRecords(ByteBuffer records, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException {
+        OffHeapSort.sort(records, layout, reversed);
+    }
+
+    /**
+     * Finds the order in which fixed-width binary records held in a buffer would be sorted,
+     * without moving them. The records span the buffer's remaining bytes. Equal keys keep their
+     * original relative order.
+     *
+     * @param records The buffer holding the records, which is left unmodified.
+     * @param layout The width of each record and the offset and type of its key.
+     * @param reversed If false, the records should be ordered ascending.
+     *                 Otherwise, they should be ordered descending.
+     * @return A permutation whose i-th element is the number of the record that sorts to
+     *         position i.
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     * @requires records != null && layout != null
+     */
+    static int[] recordOrder(ByteBuffer records, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException {
+        return OffHeapSort.order(records, layout, reversed);
+    }
+
+    /**
+     * Sorts fixed-width binary records held in a buffer by heap sort, swapping whole records in
+     * place. Unlike {@link #sortRecords} no index is built, so only two records' worth of scratch
+     * space is used, but the sort is not stable.
+     *
+     * @param records The buffer holding the records.
+     * @param layout The width of each record and the offset and type of its key.
+     * @param reversed If false, the records should be sorted ascending.
+     *                 Otherwise, they should be sorted descending.
+     * @throws IllegalArgumentException if the buffer does not hold a whole number of records
+     * @requires records != null && layout != null && records is not read-only
+     */
+    static void heapSortRecords(ByteBuffer records, RecordLayout layout, boolean reversed)
+            throws IllegalArgumentException {
+        OffHeapSort.heapSort(records, layout, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using selection sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void selectionSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        selectionSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using selection sort, ordering elements by the given comparator, leaving the rest of the
+     * array untouched.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void selectionSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        selectionSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using insertion sort, leaving the rest of the array untouched. This is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void insertionSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        insertionSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using insertion sort, ordering elements by the given comparator, leaving the rest of the
+     * array untouched. This is stable.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void insertionSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        insertionSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using binary insertion sort, leaving the rest of the array untouched. This is stable.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void binaryInsertionSortRange(T[] input, int fromIndex,
+            int toIndex, boolean reversed) throws IllegalArgumentException {
+        binaryInsertionSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using binary insertion sort, ordering elements by the given comparator, leaving the rest of
+     * the array untouched. This is stable.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void binaryInsertionSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        binaryInsertionSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using Shell sort, leaving the rest of the array untouched. This is not stable.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void shellSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        shellSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using Shell sort, ordering elements by the given comparator, leaving the rest of the array
+     * untouched. This is not stable.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void shellSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        shellSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using merge sort, leaving the rest of the array untouched. This is stable. The range is
+     * merged back and forth between the array and a buffer only as long as the range, so the
+     * scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void mergeSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        mergeSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using merge sort, ordering elements by the given comparator, leaving the rest of the array
+     * untouched. This is stable. The range is merged back and forth between the array and a buffer
+     * only as long as the range, so the scratch space allocated is proportional to the range
+     * rather than the whole array.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void mergeSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        T[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex,
+                orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using quick sort, pivoting on the middle element of each sub-range, leaving the rest of the
+     * array untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void quickSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        quickSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using quick sort, pivoting on the middle element of each sub-range, ordering elements by the
+     * given comparator, leaving the rest of the array untouched.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void quickSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        quickSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using introspective sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void introSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        introSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using introspective sort, ordering elements by the given comparator, leaving the rest of the
+     * array untouched.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void introSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        introSort(input, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex),
+                orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using heap sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void heapSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        heapSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using heap sort, ordering elements by the given comparator, leaving the rest of the array
+     * untouched.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void heapSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        heapSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using three-way quick sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void threeWayQuickSortRange(T[] input, int fromIndex,
+            int toIndex, boolean reversed) throws IllegalArgumentException {
+        threeWayQuickSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using three-way quick sort, ordering elements by the given comparator, leaving the rest of
+     * the array untouched.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void threeWayQuickSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        threeWayQuickSort(input, fromIndex, toIndex - 1, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a hybrid merge sort with the current insertion sort cutoff, leaving the rest of the
+     * array untouched. This is stable. The range is merged back and forth between the array and a
+     * buffer only as long as the range, so the scratch space allocated is proportional to the
+     * range rather than the whole array.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridMergeSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        T[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        hybridMergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                insertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a hybrid quick sort with the current insertion sort cutoff, leaving the rest of the
+     * array untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void hybridQuickSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        hybridQuickSort(input, fromIndex, toIndex - 1, reversed, insertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using an adaptive natural merge sort, leaving the rest of the array untouched. This is
+     * stable.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void naturalMergeSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        naturalMergeSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using an adaptive natural merge sort, ordering elements by the given comparator, leaving the
+     * rest of the array untouched. This is stable.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void naturalMergeSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        NaturalMergeSort.sort(input, fromIndex, toIndex, orderOf(comparator, reversed));
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a block merge sort, leaving the rest of the array untouched. This is stable, and
+     * allocates only O(1) extra memory.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void blockMergeSortRange(T[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        blockMergeSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a block merge sort, ordering elements by the given comparator, leaving the rest of the
+     * array untouched. This is stable, and allocates only O(1) extra memory.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void blockMergeSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BlockMergeSort.sort(input, fromIndex, toIndex, orderOf(comparator, reversed), 0);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a parallel merge sort in the common fork/join pool, leaving the rest of the array
+     * untouched. This is stable. The range is merged back and forth between the array and a buffer
+     * only as long as the range, so the scratch space allocated is proportional to the range
+     * rather than the whole array.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void parallelMergeSortRange(T[] input, int fromIndex,
+            int toIndex, boolean reversed) throws IllegalArgumentException {
+        parallelMergeSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a parallel merge sort in the common fork/join pool, ordering elements by the given
+     * comparator, leaving the rest of the array untouched. This is stable. The range is merged
+     * back and forth between the array and a buffer only as long as the range, so the scratch
+     * space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void parallelMergeSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelMergeSort.sort(input, fromIndex, toIndex, orderOf(comparator, reversed),
+                ForkJoinPool.commonPool(), ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a parallel quick sort in the common fork/join pool, leaving the rest of the array
+     * untouched.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> void parallelQuickSortRange(T[] input, int fromIndex,
+            int toIndex, boolean reversed) throws IllegalArgumentException {
+        parallelQuickSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a parallel quick sort in the common fork/join pool, ordering elements by the given
+     * comparator, leaving the rest of the array untouched.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> void parallelQuickSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelQuickSort.sort(input, fromIndex, toIndex, orderOf(comparator, reversed),
+                ForkJoinPool.commonPool(), ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a parallel sample sort in the common fork/join pool, leaving the rest of the array
+     * untouched. This is stable. The range is scattered into a buffer only as long as the range,
+     * so the scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of comparable objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static <T extends Comparable> SampleSort.Timings sampleSortRange(T[] input, int fromIndex,
+            int toIndex, boolean reversed) throws IllegalArgumentException {
+        return sampleSortRange(input, fromIndex, toIndex, naturalOrder(reversed), false);
+    }
+
+    /**
+     * Sorts the elements of the given array from fromIndex (inclusive) to toIndex (exclusive)
+     * using a parallel sample sort in the common fork/join pool, ordering elements by the given
+     * comparator, leaving the rest of the array untouched. This is stable. The range is scattered
+     * into a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of objects.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param comparator The ordering to sort by.
+     * @param reversed If false, the range should be sorted by the comparator's order.
+     *                 Otherwise, it should be sorted in the opposite order.
+     * @param <T> Array element type to be sorted.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && comparator != null
+     */
+    static <T> SampleSort.Timings sampleSortRange(T[] input, int fromIndex, int toIndex,
+            Comparator<? super T> comparator, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        return SampleSort.sort(input, fromIndex, toIndex, orderOf(comparator, reversed),
+                ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the elements of the given array of strings from fromIndex (inclusive) to toIndex
+     * (exclusive) using three-way radix quick sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of strings.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null && no string in the range is null
+     */
+    static void stringSortRange(String[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        StringSort.sort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Checks that the given range lies within an array of the given length.
+     *
+     * @param length The length of the array
+     * @param fromIndex The index of the first element of the range
+     * @param toIndex The index after the last element of the range
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or toIndex > length
+     */
+    private static void checkRange(int length, int fromIndex, int toIndex)
+            throws IllegalArgumentException {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > length) {
+            throw new IllegalArgumentException("Range must lie within the array, in order.");
+        }
+    }
+
+    /**
+     * Folds the reversed flag into the given comparator, so that sorting loops never need to
+     * consult the flag (or compare twice) per decision.
+     *
+     * @param comparator The base ordering
+     * @param reversed Whether the base ordering should be reversed
+     * @param <T> Type of element being compared.
+     * @return The ordering to sort by
+     */
+    private static <T> Comparator<? super T> orderOf(Comparator<? super T> comparator,
+            boolean reversed) {
+        return reversed ? Collections.reverseOrder(comparator) : comparator;
+    }
+
+    /**
+     * Produces the natural ordering of comparable objects, reversed if requested.
+     *
+     * @param reversed Whether the natural ordering should be reversed
+     * @param <T> Type of element being compared.
+     * @return The ordering to sort by
+     */
+    private static <T extends Comparable> Comparator<T> naturalOrder(boolean reversed) {
+        return reversed ? (first, second) -> second.compareTo(first)
+                : (first, second) -> first.compareTo(second);
+    }
+
+    /**
+     * Checks that the given index lies within an array of the given length.
+     *
+     * @param index The index to check
+     * @param length The length of the array
+     * @throws IllegalArgumentException if index < 0 || index >= length
+     */
+    private static void checkSelectIndex(int index, int length) throws IllegalArgumentException {
+        if (index < 0 || index >= length) {
+            throw new IllegalArgumentException("Index must lie within the array.");
+        }
+    }
+
+    /**
+     * Checks that the given number of elements can be taken from an array of the given length.
+     *
+     * @param k The number of elements to check
+     * @param length The length of the array
+     * @throws IllegalArgumentException if k < 0 || k > length
+     */
+    private static void checkSelectCount(int k, int length) throws IllegalArgumentException {
+        if (k < 0 || k > length) {
+            throw new IllegalArgumentException("k must be between 0 and the array's length.");
+        }
+    }
+
+    /**
+     * Computes the number of partitioning steps introspective sort allows before switching to
+     * heap sort, namely 2 floor(log2(n)).
+     *
+     * @param length The length of the array being sorted
+     * @return The depth limit
+     */
+    static int depthLimit(int length) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(Math.max(length, 1)));
+    }
+
+    /**
+     * Sorts the given array of integers using the selection sort algorithm, without boxing.
+     * This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void selectionSort(int[] input, boolean reversed) {
+        selectionSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Selection sorts the given range.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void selectionSort(int[] input, int left, int right, boolean reversed) {
+        for (int current = left; current < right; current++) {
+            int minMax = current;
+
+            for (int next = current + 1; next <= right; next++) {
+                if (precedes(input[next], input[minMax], reversed)) {
+                    minMax = next;
+                }
+            }
+            if (minMax != current) {
+                int tempSwap = input[minMax];
+                input[minMax] = input[current];
+                input[current] = tempSwap;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of integers using the insertion sort algorithm, without boxing.
+     * This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void insertionSort(int[] input, boolean reversed) {
+        insertionSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Sorts the given array of integers using the merge sort algorithm, without boxing.
+     * This should modify the array in-place. A single auxiliary buffer is allocated once per
+     * sort.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void mergeSort(int[] input, boolean reversed) {
+        mergeSort(input, new int[input.length], reversed);
+    }
+
+    /**
+     * Sorts the given array of integers using the merge sort algorithm, using the given buffer as
+     * the only auxiliary storage. No allocation occurs, so the same buffer may be reused across
+     * sorts. The buffer's contents are overwritten.
+     *
+     * @param input An array of integers.
+     * @param buffer Scratch space at least as long as input.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if buffer is shorter than input
+     * @requires input != null && buffer != null && input != buffer
+     */
+    static void mergeSort(int[] input, int[] buffer, boolean reversed)
+            throws IllegalArgumentException {
+        if (buffer.length < input.length) {
+            throw new IllegalArgumentException("Buffer must be at least as long as input.");
+        }
+        System.arraycopy(input, 0, buffer, 0, input.length);
+        mergeSort(buffer, input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The index of the left-most element
+     * @param right The index of the right-most element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void mergeSort(int[] source, int[] destination, int left, int right,
+            boolean reversed) {
+        mergeSort(source, destination, left, right, 0, reversed);
+    }
+
+    /**
+     * Merge sorts the given range of the destination as above, except that the source holds the
+     * range's elements sourceOffset places further along, as in
+     * {@link #mergeSort(Object[], Object[], int, int, int, Comparator)}.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void mergeSort(int[] source, int[] destination, int left, int right,
+            int sourceOffset, boolean reversed) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                    -sourceOffset, reversed);
+            mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                    -sourceOffset, reversed);
+            merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                    right + sourceOffset, left, reversed);
+        }
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the same range
+     * of the destination array in ascending order (descending if reversed flag is set).
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The index of the left-most element
+     * @param midPoint The index of the last element of the first half
+     * @param right The index of the right-most element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(int[] source, int[] destination, int left, int midPoint, int right,
+            boolean reversed) {
+        merge(source, destination, left, midPoint, right, left, reversed);
+    }
+
+    /**
+     * Merges sorted partitions of the source array as above, writing them to the destination
+     * from the given index rather than from the same range.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(int[] source, int[] destination, int left, int midPoint, int right,
+            int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (precedes(source[secondPosition], source[firstPosition], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Sorts the given array of integers using the quick sort algorithm, without boxing.
+     * This should modify the array in-place, using the value at the middle of the input array
+     * (i.e. floor(n/2)) as the pivot at each step.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void quickSort(int[] input, boolean reversed) {
+        quickSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Recursively partitions the given array using the median element as a pivot and sorts said
+     * partitions.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void quickSort(int[] input, int left, int right, boolean reversed) {
+        if (left >= right) {
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        quickSort(input, left, newBound, reversed);
+        quickSort(input, newBound + 1, right, reversed);
+    }
+
+    /**
+     * Partitions the array around the value of its middle element. As primitives are compared by
+     * value, the pivot value is captured once and never needs to be re-read.
+     *
+     * @param input The given array to partition
+     * @param left The left-most array index element to focus on
+     * @param right The right-most array index element to focus on
+     * @param reversed Whether the array is to be partitioned into ascending or descending
+     *                 sub-arrays
+     * @return The left/right position of the subarray to focus on
+     */
+    static int partition(int[] input, int left, int right, boolean reversed) {
+        int pivot = input[(left + right) >>> 1];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (precedes(pivot, input[currentRight], reversed));
+
+            do {
+                currentLeft++;
+            } while (precedes(input[currentLeft], pivot, reversed));
+
+            if (currentLeft < currentRight) {
+                int tempSwap = input[currentLeft];
+                input[currentLeft] = input[currentRight];
+                input[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of integers using a parallel merge sort in the common fork/join pool,
+     * without boxing. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void parallelMergeSort(int[] input, boolean reversed) {
+        ParallelMergeSort.sort(input, 0, input.length, reversed, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the given array of integers using a parallel merge sort, without boxing. This should
+     * modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges no longer than this are sorted on a single thread.
+     * @param parallelMerge If true, merges of ranges longer than the cutoff are also split
+     *                      across threads. Otherwise, each merge runs on a single thread.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static void parallelMergeSort(int[] input, boolean reversed, ForkJoinPool pool,
+            int sequentialCutoff, boolean parallelMerge) throws IllegalArgumentException {
+        ParallelMergeSort.sort(input, 0, input.length, reversed, pool, sequentialCutoff,
+                parallelMerge);
+    }
+
+    /**
+     * Sorts the given array of integers using a parallel quick sort in the common fork/join pool,
+     * without boxing. This should modify the array in-place. Pivots are chosen as described for
+     * {@link #parallelQuickSort(Comparable[], boolean)}.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void parallelQuickSort(int[] input, boolean reversed) {
+        parallelQuickSort(input, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the given array of integers using a parallel quick sort in the given fork/join pool,
+     * without boxing. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges shorter than this are sorted on a single thread.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static void parallelQuickSort(int[] input, boolean reversed, ForkJoinPool pool,
+            int sequentialCutoff) throws IllegalArgumentException {
+        ParallelQuickSort.sort(input, 0, input.length, reversed, pool, sequentialCutoff);
+    }
+
+    /**
+     * Sorts the given array of integers using a parallel sample sort in the common fork/join pool.
+     * Splitters chosen from a random sample divide the array into buckets, every element is
+     * scattered to its bucket in a single parallel pass, and the buckets are then sorted in
+     * parallel. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null
+     */
+    static SampleSort.Timings sampleSort(int[] input, boolean reversed) {
+        return sampleSort(input, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the given array of integers using a parallel sample sort in the given fork/join pool.
+     * This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && pool != null
+     */
+    static SampleSort.Timings sampleSort(int[] input, boolean reversed, ForkJoinPool pool) {
+        return SampleSort.sort(input, 0, input.length, reversed, pool);
+    }
+
+    /**
+     * Sorts the given array of integers using introspective sort, without boxing. Pivots are the
+     * median of three (or nine) sampled elements, and any range partitioned more than about
+     * 2 log2(n) times is heap sorted instead, guaranteeing O(n log n) time. This should modify
+     * the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void introSort(int[] input, boolean reversed) {
+        introSort(input, 0, input.length - 1, depthLimit(input.length), reversed);
+    }
+
+    /**
+     * Partitions the given range and sorts the smaller side recursively, looping on the larger
+     * side instead of recursing. Ranges which exhaust the depth limit are heap sorted.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void introSort(int[] input, int left, int right, int depthLimit, boolean reversed) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, reversed);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            int tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, reversed);
+            if (newBound - left < right - newBound) {
+                introSort(input, left, newBound, depthLimit, reversed);
+                left = newBound + 1;
+            } else {
+                introSort(input, newBound + 1, right, depthLimit, reversed);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Finds the element that would be at the given index were the given array of integers sorted,
+     * using introspective selection: a quick select that only goes on to partition the side
+     * holding the index, falling back to heap sort should partitioning make too little progress.
+     * This takes O(n) expected time and should modify the array in-place, leaving the element at
+     * the given index with nothing before it that sorts after it, and nothing after it that sorts
+     * before it.
+     *
+     * @param input An array of integers.
+     * @param index The sorted position of the element to find.
+     * @param reversed If false, positions follow ascending order.
+     *                 Otherwise, they follow descending order.
+     * @return The element that sorts to the given index.
+     * @throws IllegalArgumentException if index is not within the array
+     * @requires input != null
+     */
+    static int select(int[] input, int index, boolean reversed)
+            throws IllegalArgumentException {
+        checkSelectIndex(index, input.length);
+        introSelect(input, 0, input.length - 1, index, depthLimit(input.length), reversed);
+        return input[index];
+    }
+
+    /**
+     * Partially sorts the given array of integers, so that its first k elements are the k which
+     * sort first, in sorted order; the rest are left in no particular order. The k-th element is
+     * found by introspective selection and only the elements before it are then sorted, taking
+     * O(n + k log k) time. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param k The number of leading elements to sort.
+     * @param reversed If false, the leading elements should be the smallest, sorted ascending.
+     *                 Otherwise, they should be the largest, sorted descending.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static void partialSort(int[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        checkSelectCount(k, input.length);
+        if (k > 0) {
+            introSelect(input, 0, input.length - 1, k - 1, depthLimit(input.length), reversed);
+            introSort(input, 0, k - 1, depthLimit(k), reversed);
+        }
+    }
+
+    /**
+     * Finds the k elements of the given array of integers which sort first, as a partial sort of a
+     * copy would. The input is left untouched. This takes O(n + k log k) time.
+     *
+     * @param input An array of integers.
+     * @param k The number of elements to find.
+     * @param reversed If false, the k smallest elements should be found, sorted ascending.
+     *                 Otherwise, the k largest, sorted descending.
+     * @return A new array holding the k elements which sort first, in sorted order.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static int[] topK(int[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        int[] copy = input.clone();
+        partialSort(copy, k, reversed);
+        return Arrays.copyOf(copy, k);
+    }
+
+    /**
+     * Rearranges the given range so that the element at the given index is the one which would be
+     * there were the range sorted, partitioning only the side holding the index. A range which
+     * has been partitioned depthLimit times is heap sorted instead.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param index The index whose element should be placed
+     * @param depthLimit The number of partitioning steps allowed before heap sorting
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void introSelect(int[] input, int left, int right, int index, int depthLimit,
+            boolean reversed) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, reversed);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            int tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, reversed);
+            if (index <= newBound) {
+                right = newBound;
+            } else {
+                left = newBound + 1;
+            }
+        }
+    }
+
+    /**
+     * Chooses the index of a pivot for the given range: the median of the first, middle and last
+     * elements, or for long ranges Tukey's ninther.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @return The index of the chosen pivot
+     */
+    static int choosePivot(int[] input, int left, int right, boolean reversed) {
+        int midPoint = (left + right) >>> 1;
+        if (right - left < NINTHER_THRESHOLD) {
+            return medianOfThree(input, left, midPoint, right, reversed);
+        }
+        int step = (right - left) >>> 3;
+        int first = medianOfThree(input, left, left + step, left + 2 * step, reversed);
+        int middle = medianOfThree(input, midPoint - step, midPoint, midPoint + step, reversed);
+        int last = medianOfThree(input, right - 2 * step, right - step, right, reversed);
+        return medianOfThree(input, first, middle, last, reversed);
+    }
+
+    /**
+     * Finds the index of the median of three elements.
+     *
+     * @param input The given array of integers
+     * @param first The index of the first element
+     * @param second The index of the second element
+     * @param third The index of the third element
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @return The index of whichever element lies between the other two
+     */
+    private static int medianOfThree(int[] input, int first, int second, int third,
+            boolean reversed) {
+        if (precedes(input[first], input[second], reversed)) {
+            if (precedes(input[second], input[third], reversed)) {
+                return second;
+            }
+            return precedes(input[first], input[third], reversed) ? third : first;
+        }
+        if (precedes(input[third], input[second], reversed)) {
+            return second;
+        }
+        return precedes(input[third], input[first], reversed) ? third : first;
+    }
+
+    /**
+     * Sorts the given array of integers using heap sort, without boxing. This should modify the
+     * array in-place, allocates nothing, and takes O(n log n) time whatever the input.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void heapSort(int[] input, boolean reversed) {
+        heapSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Sorts the given array of integers using least significant digit radix sort, which makes no
+     * comparisons and takes O(n) time. Keys are sorted 11 bits per pass, skipping any pass in
+     * which every key has the same digit, and keys spanning no more distinct values than there
+     * are keys are counting sorted in a single pass instead. Negative keys are handled correctly.
+     * This should modify the array in-place, but allocates a buffer of the same length.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void radixSort(int[] input, boolean reversed) {
+        RadixSort.sort(input, reversed);
+    }
+
+    /**
+     * Finds the order that would sort the given array of integers using merge sort, without moving
+     * any element. Equal elements keep their original relative order, so the result is stable.
+     * The input is left untouched.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static int[] argMergeSort(int[] input, boolean reversed) {
+        return ArgSort.mergeSort(input, reversed);
+    }
+
+    /**
+     * Finds the order that would sort the given array of integers using quick sort, without moving
+     * any element. Equal elements may be ordered arbitrarily. The input is left untouched.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static int[] argQuickSort(int[] input, boolean reversed) {
+        return ArgSort.quickSort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array of integers with whichever algorithm suits it best. Short input is
+     * insertion sorted, input which is already sorted is left as it is, reverse sorted input is
+     * reversed, and anything else is radix sorted. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The strategy chosen to sort the array.
+     * @requires input != null
+     */
+    static AutoSort.Strategy autoSort(int[] input, boolean reversed) {
+        return AutoSort.sort(input, reversed);
+    }
+
+    /**
+     * Sorts the given range using heap sort.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void heapSort(int[] input, int left, int right, boolean reversed) {
+        int length = right - left + 1;
+        for (int root = (length >>> 1) - 1; root >= 0; root--) {
+            siftDown(input, left, root, length, reversed);
+        }
+        for (int end = length - 1; end > 0; end--) {
+            int tempSwap = input[left];
+            input[left] = input[left + end];
+            input[left + end] = tempSwap;
+            siftDown(input, left, 0, end, reversed);
+        }
+    }
+
+    /**
+     * Moves the element at the given heap position down to where neither of its children belongs
+     * after it, sifting bottom-up: descend to a leaf along the later children, then climb back up
+     * to the element's final position.
+     *
+     * @param input The given array of integers
+     * @param offset The array index of the heap's root
+     * @param root The heap position of the element to move down
+     * @param length The number of elements in the heap
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    private static void siftDown(int[] input, int offset, int root, int length,
+            boolean reversed) {
+        int toSift = input[offset + root];
+        int start = root;
+
+        // Descend to a leaf, moving each later child up into the vacated position
+        while (root < (length >>> 1)) {
+            int child = 2 * root + 1;
+            if (child + 1 < length
+                    && precedes(input[offset + child], input[offset + child + 1], reversed)) {
+                child++;
+            }
+            input[offset + root] = input[offset + child];
+            root = child;
+        }
+
+        // Climb back up, moving elements back down, until the sifted element fits
+        while (root > start) {
+            int parent = (root - 1) >>> 1;
+            if (!precedes(input[offset + parent], toSift, reversed)) {
+                break;
+            }
+            input[offset + root] = input[offset + parent];
+            root = parent;
+        }
+        input[offset + root] = toSift;
+    }
+
+    /**
+     * Sorts the given array of integers using quick sort with three-way (Dutch national flag)
+     * partitioning, without boxing. Elements equal to each pivot are grouped in a single pass
+     * and never revisited, so inputs with few distinct values sort in close to linear time.
+     * This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void threeWayQuickSort(int[] input, boolean reversed) {
+        threeWayQuickSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Partitions the given range three ways around the value of its middle element, then sorts
+     * the smaller outer part recursively and loops on the larger one.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void threeWayQuickSort(int[] input, int left, int right, boolean reversed) {
+        while (left < right) {
+            int pivot = input[(left + right) >>> 1];
+
+            // Invariant: [left, lessEnd) < pivot, [lessEnd, current) == pivot,
+            // (greaterStart, right] > pivot, and [current, greaterStart] is unexamined
+            int lessEnd = left;
+            int current = left;
+            int greaterStart = right;
+            while (current <= greaterStart) {
+                int toPlace = input[current];
+                if (precedes(toPlace, pivot, reversed)) {
+                    input[current++] = input[lessEnd];
+                    input[lessEnd++] = toPlace;
+                } else if (precedes(pivot, toPlace, reversed)) {
+                    input[current] = input[greaterStart];
+                    input[greaterStart--] = toPlace;
+                } else {
+                    current++;
+                }
+            }
+
+            if (lessEnd - left < right - greaterStart) {
+                threeWayQuickSort(input, left, lessEnd - 1, reversed);
+                left = greaterStart + 1;
+            } else {
+                threeWayQuickSort(input, greaterStart + 1, right, reversed);
+                right = lessEnd - 1;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of integers using a hybrid merge sort, without boxing. Ranges no
+     * longer than the current primitive insertion sort cutoff are sorted by a sorting network (or
+     * insertion sorted, if too long for one) rather than split further. This should modify the
+     * array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void hybridMergeSort(int[] input, boolean reversed) {
+        hybridMergeSort(input, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array of integers using a hybrid merge sort with the given insertion sort
+     * cutoff. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static void hybridMergeSort(int[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridMergeSort(input.clone(), input, 0, input.length - 1, 0, reversed, cutoff);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves, except
+     * that short ranges are sorted in place by {@link #sortLeaf}. The source holds the range's
+     * elements sourceOffset places further along than the destination.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}
+     */
+    private static void hybridMergeSort(int[] source, int[] destination, int left, int right,
+            int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            sortLeaf(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        hybridMergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        hybridMergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Sorts the given array of integers using a hybrid quick sort, without boxing. Ranges no
+     * longer than the current primitive insertion sort cutoff are sorted by a sorting network (or
+     * insertion sorted, if too long for one) rather than partitioned further. This should modify
+     * the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void hybridQuickSort(int[] input, boolean reversed) {
+        hybridQuickSort(input, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array of integers using a hybrid quick sort with the given insertion sort
+     * cutoff. This should modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static void hybridQuickSort(int[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridQuickSort(input, 0, input.length - 1, reversed, cutoff);
+    }
+
+    /**
+     * Sorts the given array of integers using a block quick sort, whose partitioning avoids
+     * branching on comparisons: blocks at either end of each range are scanned for misplaced
+     * elements, whose offsets are buffered and then swapped in bulk. Short ranges are sorted by
+     * sorting networks, and ranges partitioned too many times are heap sorted. This should
+     * modify the array in-place.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void blockQuickSort(int[] input, boolean reversed) {
+        BranchlessSort.quickSort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array of integers using a merge sort whose merges advance through each half
+     * by the outcome of every comparison rather than branching on it. Short ranges are sorted by
+     * sorting networks. This should modify the array in-place and is stable.
+     *
+     * @param input An array of integers.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void branchlessMergeSort(int[] input, boolean reversed) {
+        BranchlessSort.mergeSort(input, reversed);
+    }
+
+    /**
+     * Recursively partitions the given range using the median element as a pivot, sorting it
+     * by {@link #sortLeaf} instead once it is no longer than the cutoff.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}
+     */
+    private static void hybridQuickSort(int[] input, int left, int right, boolean reversed,
+            int cutoff) {
+        if (right - left < cutoff) {
+            sortLeaf(input, left, right, reversed);
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        hybridQuickSort(input, left, newBound, reversed, cutoff);
+        hybridQuickSort(input, newBound + 1, right, reversed, cutoff);
+    }
+
+    /**
+     * Sorts a short range, such as a leaf of the hybrid or branch-free sorts, with a sorting
+     * network if one is built for its length and otherwise by insertion sort.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void sortLeaf(int[] input, int left, int right, boolean reversed) {
+        if (right - left < SortingNetworks.MAX_LENGTH) {
+            SortingNetworks.sort(input, left, right, reversed);
+        } else {
+            insertionSort(input, left, right, reversed);
+        }
+    }
+
+    /**
+     * Insertion sorts the given range.
+     *
+     * @param input The given array of integers
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void insertionSort(int[] input, int left, int right, boolean reversed) {
+        for (int current = left + 1; current <= right; current++) {
+            int toInsert = input[current];
+            int insertPosition = current - 1;
+
+            while (insertPosition >= left && precedes(toInsert, input[insertPosition], reversed)) {
+                input[insertPosition + 1] = input[insertPosition];
+                insertPosition--;
+            }
+            input[insertPosition + 1] = toInsert;
+        }
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using selection sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void selectionSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        selectionSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using insertion sort, leaving the rest of the array untouched. This is stable.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void insertionSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        insertionSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using merge sort, leaving the rest of the array untouched. This is stable. The
+     * range is merged back and forth between the array and a buffer only as long as the range, so
+     * the scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void mergeSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        int[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using quick sort, pivoting on the middle element of each sub-range, leaving the
+     * rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void quickSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        quickSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using introspective sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void introSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        introSort(input, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex), reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using heap sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void heapSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        heapSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using three-way quick sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void threeWayQuickSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        threeWayQuickSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a hybrid merge sort with the current primitive insertion sort cutoff,
+     * leaving the rest of the array untouched. This is stable. The range is merged back and forth
+     * between the array and a buffer only as long as the range, so the scratch space allocated is
+     * proportional to the range rather than the whole array.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void hybridMergeSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        int[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        hybridMergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a hybrid quick sort with the current primitive insertion sort
+     * cutoff, leaving the rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void hybridQuickSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        hybridQuickSort(input, fromIndex, toIndex - 1, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel merge sort in the common fork/join pool, leaving the rest of
+     * the array untouched. This is stable. The range is merged back and forth between the array
+     * and a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void parallelMergeSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelMergeSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel quick sort in the common fork/join pool, leaving the rest of
+     * the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void parallelQuickSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelQuickSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel sample sort in the common fork/join pool, leaving the rest of
+     * the array untouched. The range is scattered into a buffer only as long as the range, so the
+     * scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static SampleSort.Timings sampleSortRange(int[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        return SampleSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a block quick sort, whose partitioning avoids branching on comparisons,
+     * leaving the rest of the array untouched.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void blockQuickSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BranchlessSort.quickSort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using a merge sort whose merges avoid branching on comparisons, leaving the rest
+     * of the array untouched. This is stable. The range is merged back and forth between the array
+     * and a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void branchlessMergeSortRange(int[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BranchlessSort.mergeSort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of integers from fromIndex (inclusive) to toIndex
+     * (exclusive) using least significant digit radix sort, leaving the rest of the array
+     * untouched. Keys are distributed back and forth between the range and a buffer only as long
+     * as it, so the scratch space allocated is proportional to the range rather than the whole
+     * array.
+     *
+     * @param input An array of integers.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void radixSortRange(int[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        RadixSort.sort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the given array of longs using the selection sort algorithm, without boxing.
+     * This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void selectionSort(long[] input, boolean reversed) {
+        selectionSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Selection sorts the given range.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void selectionSort(long[] input, int left, int right, boolean reversed) {
+        for (int current = left; current < right; current++) {
+            int minMax = current;
+
+            for (int next = current + 1; next <= right; next++) {
+                if (precedes(input[next], input[minMax], reversed)) {
+                    minMax = next;
+                }
+            }
+            if (minMax != current) {
+                long tempSwap = input[minMax];
+                input[minMax] = input[current];
+                input[current] = tempSwap;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of longs using the insertion sort algorithm, without boxing.
+     * This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void insertionSort(long[] input, boolean reversed) {
+        insertionSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Sorts the given array of longs using the merge sort algorithm, without boxing.
+     * This should modify the array in-place. A single auxiliary buffer is allocated once per
+     * sort.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void mergeSort(long[] input, boolean reversed) {
+        mergeSort(input, new long[input.length], reversed);
+    }
+
+    /**
+     * Sorts the given array of longs using the merge sort algorithm, using the given buffer as
+     * the only auxiliary storage. No allocation occurs, so the same buffer may be reused across
+     * sorts. The buffer's contents are overwritten.
+     *
+     * @param input An array of longs.
+     * @param buffer Scratch space at least as long as input.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if buffer is shorter than input
+     * @requires input != null && buffer != null && input != buffer
+     */
+    static void mergeSort(long[] input, long[] buffer, boolean reversed)
+            throws IllegalArgumentException {
+        if (buffer.length < input.length) {
+            throw new IllegalArgumentException("Buffer must be at least as long as input.");
+        }
+        System.arraycopy(input, 0, buffer, 0, input.length);
+        mergeSort(buffer, input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The index of the left-most element
+     * @param right The index of the right-most element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void mergeSort(long[] source, long[] destination, int left, int right,
+            boolean reversed) {
+        mergeSort(source, destination, left, right, 0, reversed);
+    }
+
+    /**
+     * Merge sorts the given range of the destination as above, except that the source holds the
+     * range's elements sourceOffset places further along, as in
+     * {@link #mergeSort(Object[], Object[], int, int, int, Comparator)}.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void mergeSort(long[] source, long[] destination, int left, int right,
+            int sourceOffset, boolean reversed) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                    -sourceOffset, reversed);
+            mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                    -sourceOffset, reversed);
+            merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                    right + sourceOffset, left, reversed);
+        }
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the same range
+     * of the destination array in ascending order (descending if reversed flag is set).
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The index of the left-most element
+     * @param midPoint The index of the last element of the first half
+     * @param right The index of the right-most element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(long[] source, long[] destination, int left, int midPoint, int right,
+            boolean reversed) {
+        merge(source, destination, left, midPoint, right, left, reversed);
+    }
+
+    /**
+     * Merges sorted partitions of the source array as above, writing them to the destination
+     * from the given index rather than from the same range.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(long[] source, long[] destination, int left, int midPoint, int right,
+            int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (precedes(source[secondPosition], source[firstPosition], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Sorts the given array of longs using the quick sort algorithm, without boxing.
+     * This should modify the array in-place, using the value at the middle of the input array
+     * (i.e. floor(n/2)) as the pivot at each step.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void quickSort(long[] input, boolean reversed) {
+        quickSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Recursively partitions the given array using the median element as a pivot and sorts said
+     * partitions.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void quickSort(long[] input, int left, int right, boolean reversed) {
+        if (left >= right) {
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        quickSort(input, left, newBound, reversed);
+        quickSort(input, newBound + 1, right, reversed);
+    }
+
+    /**
+     * Partitions the array around the value of its middle element. As primitives are compared by
+     * value, the pivot value is captured once and never needs to be re-read.
+     *
+     * @param input The given array to partition
+     * @param left The left-most array index element to focus on
+     * @param right The right-most array index element to focus on
+     * @param reversed Whether the array is to be partitioned into ascending or descending
+     *                 sub-arrays
+     * @return The left/right position of the subarray to focus on
+     */
+    static int partition(long[] input, int left, int right, boolean reversed) {
+        long pivot = input[(left + right) >>> 1];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (precedes(pivot, input[currentRight], reversed));
+
+            do {
+                currentLeft++;
+            } while (precedes(input[currentLeft], pivot, reversed));
+
+            if (currentLeft < currentRight) {
+                long tempSwap = input[currentLeft];
+                input[currentLeft] = input[currentRight];
+                input[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of longs using a parallel merge sort in the common fork/join pool,
+     * without boxing. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void parallelMergeSort(long[] input, boolean reversed) {
+        ParallelMergeSort.sort(input, 0, input.length, reversed, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the given array of longs using a parallel merge sort, without boxing. This should
+     * modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges no longer than this are sorted on a single thread.
+     * @param parallelMerge If true, merges of ranges longer than the cutoff are also split
+     *                      across threads. Otherwise, each merge runs on a single thread.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static void parallelMergeSort(long[] input, boolean reversed, ForkJoinPool pool,
+            int sequentialCutoff, boolean parallelMerge) throws IllegalArgumentException {
+        ParallelMergeSort.sort(input, 0, input.length, reversed, pool, sequentialCutoff,
+                parallelMerge);
+    }
+
+    /**
+     * Sorts the given array of longs using a parallel quick sort in the common fork/join pool,
+     * without boxing. This should modify the array in-place. Pivots are chosen as described for
+     * {@link #parallelQuickSort(Comparable[], boolean)}.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void parallelQuickSort(long[] input, boolean reversed) {
+        parallelQuickSort(input, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the given array of longs using a parallel quick sort in the given fork/join pool,
+     * without boxing. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges shorter than this are sorted on a single thread.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static void parallelQuickSort(long[] input, boolean reversed, ForkJoinPool pool,
+            int sequentialCutoff) throws IllegalArgumentException {
+        ParallelQuickSort.sort(input, 0, input.length, reversed, pool, sequentialCutoff);
+    }
+
+    /**
+     * Sorts the given array of longs using a parallel sample sort in the common fork/join pool.
+     * Splitters chosen from a random sample divide the array into buckets, every element is
+     * scattered to its bucket in a single parallel pass, and the buckets are then sorted in
+     * parallel. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null
+     */
+    static SampleSort.Timings sampleSort(long[] input, boolean reversed) {
+        return sampleSort(input, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the given array of longs using a parallel sample sort in the given fork/join pool.
+     * This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && pool != null
+     */
+    static SampleSort.Timings sampleSort(long[] input, boolean reversed, ForkJoinPool pool) {
+        return SampleSort.sort(input, 0, input.length, reversed, pool);
+    }
+
+    /**
+     * Sorts the given array of longs using introspective sort, without boxing. Pivots are the
+     * median of three (or nine) sampled elements, and any range partitioned more than about
+     * 2 log2(n) times is heap sorted instead, guaranteeing O(n log n) time. This should modify
+     * the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void introSort(long[] input, boolean reversed) {
+        introSort(input, 0, input.length - 1, depthLimit(input.length), reversed);
+    }
+
+    /**
+     * Partitions the given range and sorts the smaller side recursively, looping on the larger
+     * side instead of recursing. Ranges which exhaust the depth limit are heap sorted.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void introSort(long[] input, int left, int right, int depthLimit, boolean reversed) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, reversed);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            long tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, reversed);
+            if (newBound - left < right - newBound) {
+                introSort(input, left, newBound, depthLimit, reversed);
+                left = newBound + 1;
+            } else {
+                introSort(input, newBound + 1, right, depthLimit, reversed);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Finds the element that would be at the given index were the given array of longs sorted,
+     * using introspective selection: a quick select that only goes on to partition the side
+     * holding the index, falling back to heap sort should partitioning make too little progress.
+     * This takes O(n) expected time and should modify the array in-place, leaving the element at
+     * the given index with nothing before it that sorts after it, and nothing after it that sorts
+     * before it.
+     *
+     * @param input An array of longs.
+     * @param index The sorted position of the element to find.
+     * @param reversed If false, positions follow ascending order.
+     *                 Otherwise, they follow descending order.
+     * @return The element that sorts to the given index.
+     * @throws IllegalArgumentException if index is not within the array
+     * @requires input != null
+     */
+    static long select(long[] input, int index, boolean reversed)
+            throws IllegalArgumentException {
+        checkSelectIndex(index, input.length);
+        introSelect(input, 0, input.length - 1, index, depthLimit(input.length), reversed);
+        return input[index];
+    }
+
+    /**
+     * Partially sorts the given array of longs, so that its first k elements are the k which
+     * sort first, in sorted order; the rest are left in no particular order. The k-th element is
+     * found by introspective selection and only the elements before it are then sorted, taking
+     * O(n + k log k) time. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param k The number of leading elements to sort.
+     * @param reversed If false, the leading elements should be the smallest, sorted ascending.
+     *                 Otherwise, they should be the largest, sorted descending.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static void partialSort(long[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        checkSelectCount(k, input.length);
+        if (k > 0) {
+            introSelect(input, 0, input.length - 1, k - 1, depthLimit(input.length), reversed);
+            introSort(input, 0, k - 1, depthLimit(k), reversed);
+        }
+    }
+
+    /**
+     * Finds the k elements of the given array of longs which sort first, as a partial sort of a
+     * copy would. The input is left untouched. This takes O(n + k log k) time.
+     *
+     * @param input An array of longs.
+     * @param k The number of elements to find.
+     * @param reversed If false, the k smallest elements should be found, sorted ascending.
+     *                 Otherwise, the k largest, sorted descending.
+     * @return A new array holding the k elements which sort first, in sorted order.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static long[] topK(long[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        long[] copy = input.clone();
+        partialSort(copy, k, reversed);
+        return Arrays.copyOf(copy, k);
+    }
+
+    /**
+     * Rearranges the given range so that the element at the given index is the one which would be
+     * there were the range sorted, partitioning only the side holding the index. A range which
+     * has been partitioned depthLimit times is heap sorted instead.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param index The index whose element should be placed
+     * @param depthLimit The number of partitioning steps allowed before heap sorting
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void introSelect(long[] input, int left, int right, int index, int depthLimit,
+            boolean reversed) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, reversed);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            long tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, reversed);
+            if (index <= newBound) {
+                right = newBound;
+            } else {
+                left = newBound + 1;
+            }
+        }
+    }
+
+    /**
+     * Chooses the index of a pivot for the given range: the median of the first, middle and last
+     * elements, or for long ranges Tukey's ninther.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @return The index of the chosen pivot
+     */
+    static int choosePivot(long[] input, int left, int right, boolean reversed) {
+        int midPoint = (left + right) >>> 1;
+        if (right - left < NINTHER_THRESHOLD) {
+            return medianOfThree(input, left, midPoint, right, reversed);
+        }
+        int step = (right - left) >>> 3;
+        int first = medianOfThree(input, left, left + step, left + 2 * step, reversed);
+        int middle = medianOfThree(input, midPoint - step, midPoint, midPoint + step, reversed);
+        int last = medianOfThree(input, right - 2 * step, right - step, right, reversed);
+        return medianOfThree(input, first, middle, last, reversed);
+    }
+
+    /**
+     * Finds the index of the median of three elements.
+     *
+     * @param input The given array of longs
+     * @param first The index of the first element
+     * @param second The index of the second element
+     * @param third The index of the third element
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @return The index of whichever element lies between the other two
+     */
+    private static int medianOfThree(long[] input, int first, int second, int third,
+            boolean reversed) {
+        if (precedes(input[first], input[second], reversed)) {
+            if (precedes(input[second], input[third], reversed)) {
+                return second;
+            }
+            return precedes(input[first], input[third], reversed) ? third : first;
+        }
+        if (precedes(input[third], input[second], reversed)) {
+            return second;
+        }
+        return precedes(input[third], input[first], reversed) ? third : first;
+    }
+
+    /**
+     * Sorts the given array of longs using heap sort, without boxing. This should modify the
+     * array in-place, allocates nothing, and takes O(n log n) time whatever the input.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void heapSort(long[] input, boolean reversed) {
+        heapSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Sorts the given array of longs using least significant digit radix sort, which makes no
+     * comparisons and takes O(n) time. Keys are sorted 11 bits per pass, skipping any pass in
+     * which every key has the same digit, and keys spanning no more distinct values than there
+     * are keys are counting sorted in a single pass instead. Negative keys are handled correctly.
+     * This should modify the array in-place, but allocates a buffer of the same length.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void radixSort(long[] input, boolean reversed) {
+        RadixSort.sort(input, reversed);
+    }
+
+    /**
+     * Finds the order that would sort the given array of longs using merge sort, without moving
+     * any element. Equal elements keep their original relative order, so the result is stable.
+     * The input is left untouched.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static int[] argMergeSort(long[] input, boolean reversed) {
+        return ArgSort.mergeSort(input, reversed);
+    }
+
+    /**
+     * Finds the order that would sort the given array of longs using quick sort, without moving
+     * any element. Equal elements may be ordered arbitrarily. The input is left untouched.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static int[] argQuickSort(long[] input, boolean reversed) {
+        return ArgSort.quickSort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array of longs with whichever algorithm suits it best. Short input is
+     * insertion sorted, input which is already sorted is left as it is, reverse sorted input is
+     * reversed, and anything else is radix sorted. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The strategy chosen to sort the array.
+     * @requires input != null
+     */
+    static AutoSort.Strategy autoSort(long[] input, boolean reversed) {
+        return AutoSort.sort(input, reversed);
+    }
+
+    /**
+     * Sorts the given range using heap sort.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void heapSort(long[] input, int left, int right, boolean reversed) {
+        int length = right - left + 1;
+        for (int root = (length >>> 1) - 1; root >= 0; root--) {
+            siftDown(input, left, root, length, reversed);
+        }
+        for (int end = length - 1; end > 0; end--) {
+            long tempSwap = input[left];
+            input[left] = input[left + end];
+            input[left + end] = tempSwap;
+            siftDown(input, left, 0, end, reversed);
+        }
+    }
+
+    /**
+     * Moves the element at the given heap position down to where neither of its children belongs
+     * after it, sifting bottom-up: descend to a leaf along the later children, then climb back up
+     * to the element's final position.
+     *
+     * @param input The given array of longs
+     * @param offset The array index of the heap's root
+     * @param root The heap position of the element to move down
+     * @param length The number of elements in the heap
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    private static void siftDown(long[] input, int offset, int root, int length,
+            boolean reversed) {
+        long toSift = input[offset + root];
+        int start = root;
+
+        // Descend to a leaf, moving each later child up into the vacated position
+        while (root < (length >>> 1)) {
+            int child = 2 * root + 1;
+            if (child + 1 < length
+                    && precedes(input[offset + child], input[offset + child + 1], reversed)) {
+                child++;
+            }
+            input[offset + root] = input[offset + child];
+            root = child;
+        }
+
+        // Climb back up, moving elements back down, until the sifted element fits
+        while (root > start) {
+            int parent = (root - 1) >>> 1;
+            if (!precedes(input[offset + parent], toSift, reversed)) {
+                break;
+            }
+            input[offset + root] = input[offset + parent];
+            root = parent;
+        }
+        input[offset + root] = toSift;
+    }
+
+    /**
+     * Sorts the given array of longs using quick sort with three-way (Dutch national flag)
+     * partitioning, without boxing. Elements equal to each pivot are grouped in a single pass
+     * and never revisited, so inputs with few distinct values sort in close to linear time.
+     * This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void threeWayQuickSort(long[] input, boolean reversed) {
+        threeWayQuickSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Partitions the given range three ways around the value of its middle element, then sorts
+     * the smaller outer part recursively and loops on the larger one.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void threeWayQuickSort(long[] input, int left, int right, boolean reversed) {
+        while (left < right) {
+            long pivot = input[(left + right) >>> 1];
+
+            // Invariant: [left, lessEnd) < pivot, [lessEnd, current) == pivot,
+            // (greaterStart, right] > pivot, and [current, greaterStart] is unexamined
+            int lessEnd = left;
+            int current = left;
+            int greaterStart = right;
+            while (current <= greaterStart) {
+                long toPlace = input[current];
+                if (precedes(toPlace, pivot, reversed)) {
+                    input[current++] = input[lessEnd];
+                    input[lessEnd++] = toPlace;
+                } else if (precedes(pivot, toPlace, reversed)) {
+                    input[current] = input[greaterStart];
+                    input[greaterStart--] = toPlace;
+                } else {
+                    current++;
+                }
+            }
+
+            if (lessEnd - left < right - greaterStart) {
+                threeWayQuickSort(input, left, lessEnd - 1, reversed);
+                left = greaterStart + 1;
+            } else {
+                threeWayQuickSort(input, greaterStart + 1, right, reversed);
+                right = lessEnd - 1;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of longs using a hybrid merge sort, without boxing. Ranges no longer
+     * than the current primitive insertion sort cutoff are sorted by a sorting network (or
+     * insertion sorted, if too long for one) rather than split further. This should modify the
+     * array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void hybridMergeSort(long[] input, boolean reversed) {
+        hybridMergeSort(input, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array of longs using a hybrid merge sort with the given insertion sort
+     * cutoff. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static void hybridMergeSort(long[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridMergeSort(input.clone(), input, 0, input.length - 1, 0, reversed, cutoff);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves, except
+     * that short ranges are sorted in place by {@link #sortLeaf}. The source holds the range's
+     * elements sourceOffset places further along than the destination.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}
+     */
+    private static void hybridMergeSort(long[] source, long[] destination, int left, int right,
+            int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            sortLeaf(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        hybridMergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        hybridMergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Sorts the given array of longs using a hybrid quick sort, without boxing. Ranges no longer
+     * than the current primitive insertion sort cutoff are sorted by a sorting network (or
+     * insertion sorted, if too long for one) rather than partitioned further. This should modify
+     * the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void hybridQuickSort(long[] input, boolean reversed) {
+        hybridQuickSort(input, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array of longs using a hybrid quick sort with the given insertion sort
+     * cutoff. This should modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static void hybridQuickSort(long[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridQuickSort(input, 0, input.length - 1, reversed, cutoff);
+    }
+
+    /**
+     * Sorts the given array of longs using a block quick sort, whose partitioning avoids
+     * branching on comparisons: blocks at either end of each range are scanned for misplaced
+     * elements, whose offsets are buffered and then swapped in bulk. Short ranges are sorted by
+     * sorting networks, and ranges partitioned too many times are heap sorted. This should
+     * modify the array in-place.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void blockQuickSort(long[] input, boolean reversed) {
+        BranchlessSort.quickSort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array of longs using a merge sort whose merges advance through each half
+     * by the outcome of every comparison rather than branching on it. Short ranges are sorted by
+     * sorting networks. This should modify the array in-place and is stable.
+     *
+     * @param input An array of longs.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void branchlessMergeSort(long[] input, boolean reversed) {
+        BranchlessSort.mergeSort(input, reversed);
+    }
+
+    /**
+     * Recursively partitions the given range using the median element as a pivot, sorting it
+     * by {@link #sortLeaf} instead once it is no longer than the cutoff.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}
+     */
+    private static void hybridQuickSort(long[] input, int left, int right, boolean reversed,
+            int cutoff) {
+        if (right - left < cutoff) {
+            sortLeaf(input, left, right, reversed);
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        hybridQuickSort(input, left, newBound, reversed, cutoff);
+        hybridQuickSort(input, newBound + 1, right, reversed, cutoff);
+    }
+
+    /**
+     * Sorts a short range, such as a leaf of the hybrid or branch-free sorts, with a sorting
+     * network if one is built for its length and otherwise by insertion sort.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void sortLeaf(long[] input, int left, int right, boolean reversed) {
+        if (right - left < SortingNetworks.MAX_LENGTH) {
+            SortingNetworks.sort(input, left, right, reversed);
+        } else {
+            insertionSort(input, left, right, reversed);
+        }
+    }
+
+    /**
+     * Insertion sorts the given range.
+     *
+     * @param input The given array of longs
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void insertionSort(long[] input, int left, int right, boolean reversed) {
+        for (int current = left + 1; current <= right; current++) {
+            long toInsert = input[current];
+            int insertPosition = current - 1;
+
+            while (insertPosition >= left && precedes(toInsert, input[insertPosition], reversed)) {
+                input[insertPosition + 1] = input[insertPosition];
+                insertPosition--;
+            }
+            input[insertPosition + 1] = toInsert;
+        }
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using selection sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void selectionSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        selectionSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using insertion sort, leaving the rest of the array untouched. This is stable.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void insertionSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        insertionSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using merge sort, leaving the rest of the array untouched. This is stable. The
+     * range is merged back and forth between the array and a buffer only as long as the range, so
+     * the scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void mergeSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        long[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using quick sort, pivoting on the middle element of each sub-range, leaving the
+     * rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void quickSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        quickSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using introspective sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void introSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        introSort(input, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex), reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using heap sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void heapSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        heapSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using three-way quick sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void threeWayQuickSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        threeWayQuickSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a hybrid merge sort with the current primitive insertion sort cutoff,
+     * leaving the rest of the array untouched. This is stable. The range is merged back and forth
+     * between the array and a buffer only as long as the range, so the scratch space allocated is
+     * proportional to the range rather than the whole array.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void hybridMergeSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        long[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        hybridMergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a hybrid quick sort with the current primitive insertion sort
+     * cutoff, leaving the rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void hybridQuickSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        hybridQuickSort(input, fromIndex, toIndex - 1, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel merge sort in the common fork/join pool, leaving the rest of
+     * the array untouched. This is stable. The range is merged back and forth between the array
+     * and a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void parallelMergeSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelMergeSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel quick sort in the common fork/join pool, leaving the rest of
+     * the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void parallelQuickSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelQuickSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel sample sort in the common fork/join pool, leaving the rest of
+     * the array untouched. The range is scattered into a buffer only as long as the range, so the
+     * scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static SampleSort.Timings sampleSortRange(long[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        return SampleSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a block quick sort, whose partitioning avoids branching on comparisons,
+     * leaving the rest of the array untouched.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void blockQuickSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BranchlessSort.quickSort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using a merge sort whose merges avoid branching on comparisons, leaving the rest
+     * of the array untouched. This is stable. The range is merged back and forth between the array
+     * and a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void branchlessMergeSortRange(long[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BranchlessSort.mergeSort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of longs from fromIndex (inclusive) to toIndex
+     * (exclusive) using least significant digit radix sort, leaving the rest of the array
+     * untouched. Keys are distributed back and forth between the range and a buffer only as long
+     * as it, so the scratch space allocated is proportional to the range rather than the whole
+     * array.
+     *
+     * @param input An array of longs.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void radixSortRange(long[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        RadixSort.sort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the given array of doubles using the selection sort algorithm, without boxing.
+     * This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void selectionSort(double[] input, boolean reversed) {
+        selectionSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Selection sorts the given range.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void selectionSort(double[] input, int left, int right, boolean reversed) {
+        for (int current = left; current < right; current++) {
+            int minMax = current;
+
+            for (int next = current + 1; next <= right; next++) {
+                if (precedes(input[next], input[minMax], reversed)) {
+                    minMax = next;
+                }
+            }
+            if (minMax != current) {
+                double tempSwap = input[minMax];
+                input[minMax] = input[current];
+                input[current] = tempSwap;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of doubles using the insertion sort algorithm, without boxing.
+     * This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void insertionSort(double[] input, boolean reversed) {
+        insertionSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Sorts the given array of doubles using the merge sort algorithm, without boxing.
+     * This should modify the array in-place. A single auxiliary buffer is allocated once per
+     * sort.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void mergeSort(double[] input, boolean reversed) {
+        mergeSort(input, new double[input.length], reversed);
+    }
+
+    /**
+     * Sorts the given array of doubles using the merge sort algorithm, using the given buffer as
+     * the only auxiliary storage. No allocation occurs, so the same buffer may be reused across
+     * sorts. The buffer's contents are overwritten.
+     *
+     * @param input An array of doubles.
+     * @param buffer Scratch space at least as long as input.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if buffer is shorter than input
+     * @requires input != null && buffer != null && input != buffer
+     */
+    static void mergeSort(double[] input, double[] buffer, boolean reversed)
+            throws IllegalArgumentException {
+        if (buffer.length < input.length) {
+            throw new IllegalArgumentException("Buffer must be at least as long as input.");
+        }
+        System.arraycopy(input, 0, buffer, 0, input.length);
+        mergeSort(buffer, input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves,
+     * alternating the roles of the two arrays at each level.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The index of the left-most element
+     * @param right The index of the right-most element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void mergeSort(double[] source, double[] destination, int left, int right,
+            boolean reversed) {
+        mergeSort(source, destination, left, right, 0, reversed);
+    }
+
+    /**
+     * Merge sorts the given range of the destination as above, except that the source holds the
+     * range's elements sourceOffset places further along, as in
+     * {@link #mergeSort(Object[], Object[], int, int, int, Comparator)}.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void mergeSort(double[] source, double[] destination, int left, int right,
+            int sourceOffset, boolean reversed) {
+        if (left < right) {
+            int midPoint = (left + right) >>> 1;
+            mergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                    -sourceOffset, reversed);
+            mergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                    -sourceOffset, reversed);
+            merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                    right + sourceOffset, left, reversed);
+        }
+    }
+
+    /**
+     * Takes sorted partitions of the source array and merges them together into the same range
+     * of the destination array in ascending order (descending if reversed flag is set).
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The index of the left-most element
+     * @param midPoint The index of the last element of the first half
+     * @param right The index of the right-most element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(double[] source, double[] destination, int left, int midPoint,
+            int right, boolean reversed) {
+        merge(source, destination, left, midPoint, right, left, reversed);
+    }
+
+    /**
+     * Merges sorted partitions of the source array as above, writing them to the destination
+     * from the given index rather than from the same range.
+     *
+     * @param source The array holding both sorted halves
+     * @param destination The array to write the merged range to
+     * @param left The source index of the left-most element
+     * @param midPoint The source index of the last element of the first half
+     * @param right The source index of the right-most element
+     * @param outputLeft The destination index of the first merged element
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    static void merge(double[] source, double[] destination, int left, int midPoint, int right,
+            int outputLeft, boolean reversed) {
+        int firstPosition = left;
+        int secondPosition = midPoint + 1;
+        int outputPosition = outputLeft;
+
+        while (firstPosition <= midPoint && secondPosition <= right) {
+            if (precedes(source[secondPosition], source[firstPosition], reversed)) {
+                destination[outputPosition++] = source[secondPosition++];
+            } else {
+                destination[outputPosition++] = source[firstPosition++];
+            }
+        }
+
+        int firstRemaining = midPoint + 1 - firstPosition;
+        System.arraycopy(source, firstPosition, destination, outputPosition, firstRemaining);
+        System.arraycopy(source, secondPosition, destination, outputPosition + firstRemaining,
+                right + 1 - secondPosition);
+    }
+
+    /**
+     * Sorts the given array of doubles using the quick sort algorithm, without boxing.
+     * This should modify the array in-place, using the value at the middle of the input array
+     * (i.e. floor(n/2)) as the pivot at each step.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void quickSort(double[] input, boolean reversed) {
+        quickSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Recursively partitions the given array using the median element as a pivot and sorts said
+     * partitions.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void quickSort(double[] input, int left, int right, boolean reversed) {
+        if (left >= right) {
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        quickSort(input, left, newBound, reversed);
+        quickSort(input, newBound + 1, right, reversed);
+    }
+
+    /**
+     * Partitions the array around the value of its middle element. As primitives are compared by
+     * value, the pivot value is captured once and never needs to be re-read.
+     *
+     * @param input The given array to partition
+     * @param left The left-most array index element to focus on
+     * @param right The right-most array index element to focus on
+     * @param reversed Whether the array is to be partitioned into ascending or descending
+     *                 sub-arrays
+     * @return The left/right position of the subarray to focus on
+     */
+    static int partition(double[] input, int left, int right, boolean reversed) {
+        double pivot = input[(left + right) >>> 1];
+        int currentLeft = left - 1;
+        int currentRight = right + 1;
+
+        while (true) {
+            do {
+                currentRight--;
+            } while (precedes(pivot, input[currentRight], reversed));
+
+            do {
+                currentLeft++;
+            } while (precedes(input[currentLeft], pivot, reversed));
+
+            if (currentLeft < currentRight) {
+                double tempSwap = input[currentLeft];
+                input[currentLeft] = input[currentRight];
+                input[currentRight] = tempSwap;
+            } else {
+                return currentRight;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of doubles using a parallel merge sort in the common fork/join pool,
+     * without boxing. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void parallelMergeSort(double[] input, boolean reversed) {
+        ParallelMergeSort.sort(input, 0, input.length, reversed, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the given array of doubles using a parallel merge sort, without boxing. This should
+     * modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges no longer than this are sorted on a single thread.
+     * @param parallelMerge If true, merges of ranges longer than the cutoff are also split
+     *                      across threads. Otherwise, each merge runs on a single thread.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static void parallelMergeSort(double[] input, boolean reversed, ForkJoinPool pool,
+            int sequentialCutoff, boolean parallelMerge) throws IllegalArgumentException {
+        ParallelMergeSort.sort(input, 0, input.length, reversed, pool, sequentialCutoff,
+                parallelMerge);
+    }
+
+    /**
+     * Sorts the given array of doubles using a parallel quick sort in the common fork/join pool,
+     * without boxing. This should modify the array in-place. Pivots are chosen as described for
+     * {@link #parallelQuickSort(Comparable[], boolean)}.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void parallelQuickSort(double[] input, boolean reversed) {
+        parallelQuickSort(input, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the given array of doubles using a parallel quick sort in the given fork/join pool,
+     * without boxing. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @param sequentialCutoff Ranges shorter than this are sorted on a single thread.
+     * @throws IllegalArgumentException if sequentialCutoff < 1
+     * @requires input != null && pool != null
+     */
+    static void parallelQuickSort(double[] input, boolean reversed, ForkJoinPool pool,
+            int sequentialCutoff) throws IllegalArgumentException {
+        ParallelQuickSort.sort(input, 0, input.length, reversed, pool, sequentialCutoff);
+    }
+
+    /**
+     * Sorts the given array of doubles using a parallel sample sort in the common fork/join pool.
+     * Splitters chosen from a random sample divide the array into buckets, every element is
+     * scattered to its bucket in a single parallel pass, and the buckets are then sorted in
+     * parallel. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null
+     */
+    static SampleSort.Timings sampleSort(double[] input, boolean reversed) {
+        return sampleSort(input, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the given array of doubles using a parallel sample sort in the given fork/join pool.
+     * This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param pool The fork/join pool to sort in (e.g. {@link ForkJoinPool#commonPool()}).
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @requires input != null && pool != null
+     */
+    static SampleSort.Timings sampleSort(double[] input, boolean reversed, ForkJoinPool pool) {
+        return SampleSort.sort(input, 0, input.length, reversed, pool);
+    }
+
+    /**
+     * Sorts the given array of doubles using introspective sort, without boxing. Pivots are the
+     * median of three (or nine) sampled elements, and any range partitioned more than about
+     * 2 log2(n) times is heap sorted instead, guaranteeing O(n log n) time. This should modify
+     * the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void introSort(double[] input, boolean reversed) {
+        introSort(input, 0, input.length - 1, depthLimit(input.length), reversed);
+    }
+
+    /**
+     * Partitions the given range and sorts the smaller side recursively, looping on the larger
+     * side instead of recursing. Ranges which exhaust the depth limit are heap sorted.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depthLimit The number of partitioning steps allowed before switching to heap sort
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void introSort(double[] input, int left, int right, int depthLimit, boolean reversed) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, reversed);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            double tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, reversed);
+            if (newBound - left < right - newBound) {
+                introSort(input, left, newBound, depthLimit, reversed);
+                left = newBound + 1;
+            } else {
+                introSort(input, newBound + 1, right, depthLimit, reversed);
+                right = newBound;
+            }
+        }
+    }
+
+    /**
+     * Finds the element that would be at the given index were the given array of doubles sorted,
+     * using introspective selection: a quick select that only goes on to partition the side
+     * holding the index, falling back to heap sort should partitioning make too little progress.
+     * This takes O(n) expected time and should modify the array in-place, leaving the element at
+     * the given index with nothing before it that sorts after it, and nothing after it that sorts
+     * before it.
+     *
+     * @param input An array of doubles.
+     * @param index The sorted position of the element to find.
+     * @param reversed If false, positions follow ascending order.
+     *                 Otherwise, they follow descending order.
+     * @return The element that sorts to the given index.
+     * @throws IllegalArgumentException if index is not within the array
+     * @requires input != null
+     */
+    static double select(double[] input, int index, boolean reversed)
+            throws IllegalArgumentException {
+        checkSelectIndex(index, input.length);
+        introSelect(input, 0, input.length - 1, index, depthLimit(input.length), reversed);
+        return input[index];
+    }
+
+    /**
+     * Partially sorts the given array of doubles, so that its first k elements are the k which
+     * sort first, in sorted order; the rest are left in no particular order. The k-th element is
+     * found by introspective selection and only the elements before it are then sorted, taking
+     * O(n + k log k) time. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param k The number of leading elements to sort.
+     * @param reversed If false, the leading elements should be the smallest, sorted ascending.
+     *                 Otherwise, they should be the largest, sorted descending.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static void partialSort(double[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        checkSelectCount(k, input.length);
+        if (k > 0) {
+            introSelect(input, 0, input.length - 1, k - 1, depthLimit(input.length), reversed);
+            introSort(input, 0, k - 1, depthLimit(k), reversed);
+        }
+    }
+
+    /**
+     * Finds the k elements of the given array of doubles which sort first, as a partial sort of a
+     * copy would. The input is left untouched. This takes O(n + k log k) time.
+     *
+     * @param input An array of doubles.
+     * @param k The number of elements to find.
+     * @param reversed If false, the k smallest elements should be found, sorted ascending.
+     *                 Otherwise, the k largest, sorted descending.
+     * @return A new array holding the k elements which sort first, in sorted order.
+     * @throws IllegalArgumentException if k is negative or greater than the array's length
+     * @requires input != null
+     */
+    static double[] topK(double[] input, int k, boolean reversed)
+            throws IllegalArgumentException {
+        double[] copy = input.clone();
+        partialSort(copy, k, reversed);
+        return Arrays.copyOf(copy, k);
+    }
+
+    /**
+     * Rearranges the given range so that the element at the given index is the one which would be
+     * there were the range sorted, partitioning only the side holding the index. A range which
+     * has been partitioned depthLimit times is heap sorted instead.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param index The index whose element should be placed
+     * @param depthLimit The number of partitioning steps allowed before heap sorting
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void introSelect(double[] input, int left, int right, int index, int depthLimit,
+            boolean reversed) {
+        while (left < right) {
+            if (depthLimit-- == 0) {
+                heapSort(input, left, right, reversed);
+                return;
+            }
+
+            // Move the sampled median to the middle, where partition takes its pivot from
+            int pivot = choosePivot(input, left, right, reversed);
+            int midPoint = (left + right) >>> 1;
+            double tempSwap = input[pivot];
+            input[pivot] = input[midPoint];
+            input[midPoint] = tempSwap;
+
+            int newBound = partition(input, left, right, reversed);
+            if (index <= newBound) {
+                right = newBound;
+            } else {
+                left = newBound + 1;
+            }
+        }
+    }
+
+    /**
+     * Chooses the index of a pivot for the given range: the median of the first, middle and last
+     * elements, or for long ranges Tukey's ninther.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @return The index of the chosen pivot
+     */
+    static int choosePivot(double[] input, int left, int right, boolean reversed) {
+        int midPoint = (left + right) >>> 1;
+        if (right - left < NINTHER_THRESHOLD) {
+            return medianOfThree(input, left, midPoint, right, reversed);
+        }
+        int step = (right - left) >>> 3;
+        int first = medianOfThree(input, left, left + step, left + 2 * step, reversed);
+        int middle = medianOfThree(input, midPoint - step, midPoint, midPoint + step, reversed);
+        int last = medianOfThree(input, right - 2 * step, right - step, right, reversed);
+        return medianOfThree(input, first, middle, last, reversed);
+    }
+
+    /**
+     * Finds the index of the median of three elements.
+     *
+     * @param input The given array of doubles
+     * @param first The index of the first element
+     * @param second The index of the second element
+     * @param third The index of the third element
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @return The index of whichever element lies between the other two
+     */
+    private static int medianOfThree(double[] input, int first, int second, int third,
+            boolean reversed) {
+        if (precedes(input[first], input[second], reversed)) {
+            if (precedes(input[second], input[third], reversed)) {
+                return second;
+            }
+            return precedes(input[first], input[third], reversed) ? third : first;
+        }
+        if (precedes(input[third], input[second], reversed)) {
+            return second;
+        }
+        return precedes(input[third], input[first], reversed) ? third : first;
+    }
+
+    /**
+     * Sorts the given array of doubles using heap sort, without boxing. This should modify the
+     * array in-place, allocates nothing, and takes O(n log n) time whatever the input.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void heapSort(double[] input, boolean reversed) {
+        heapSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Finds the order that would sort the given array of doubles using merge sort, without moving
+     * any element. Equal elements keep their original relative order, so the result is stable.
+     * The input is left untouched.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static int[] argMergeSort(double[] input, boolean reversed) {
+        return ArgSort.mergeSort(input, reversed);
+    }
+
+    /**
+     * Finds the order that would sort the given array of doubles using quick sort, without moving
+     * any element. Equal elements may be ordered arbitrarily. The input is left untouched.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the order should be ascending.
+     *                 Otherwise, it should be descending.
+     * @return A permutation whose i-th element is the index of the element that sorts to
+     *         position i.
+     * @requires input != null
+     */
+    static int[] argQuickSort(double[] input, boolean reversed) {
+        return ArgSort.quickSort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array of doubles with whichever algorithm suits it best. Short input is
+     * insertion sorted, input which is already sorted is left as it is, reverse sorted input is
+     * reversed, input with many duplicates is three-way quick sorted, and anything else is intro
+     * sorted, or quick sorted in parallel if long. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The strategy chosen to sort the array.
+     * @requires input != null
+     */
+    static AutoSort.Strategy autoSort(double[] input, boolean reversed) {
+        return AutoSort.sort(input, reversed);
+    }
+
+    /**
+     * Sorts the given range using heap sort.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void heapSort(double[] input, int left, int right, boolean reversed) {
+        int length = right - left + 1;
+        for (int root = (length >>> 1) - 1; root >= 0; root--) {
+            siftDown(input, left, root, length, reversed);
+        }
+        for (int end = length - 1; end > 0; end--) {
+            double tempSwap = input[left];
+            input[left] = input[left + end];
+            input[left + end] = tempSwap;
+            siftDown(input, left, 0, end, reversed);
+        }
+    }
+
+    /**
+     * Moves the element at the given heap position down to where neither of its children belongs
+     * after it, sifting bottom-up: descend to a leaf along the later children, then climb back up
+     * to the element's final position.
+     *
+     * @param input The given array of doubles
+     * @param offset The array index of the heap's root
+     * @param root The heap position of the element to move down
+     * @param length The number of elements in the heap
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    private static void siftDown(double[] input, int offset, int root, int length,
+            boolean reversed) {
+        double toSift = input[offset + root];
+        int start = root;
+
+        // Descend to a leaf, moving each later child up into the vacated position
+        while (root < (length >>> 1)) {
+            int child = 2 * root + 1;
+            if (child + 1 < length
+                    && precedes(input[offset + child], input[offset + child + 1], reversed)) {
+                child++;
+            }
+            input[offset + root] = input[offset + child];
+            root = child;
+        }
+
+        // Climb back up, moving elements back down, until the sifted element fits
+        while (root > start) {
+            int parent = (root - 1) >>> 1;
+            if (!precedes(input[offset + parent], toSift, reversed)) {
+                break;
+            }
+            input[offset + root] = input[offset + parent];
+            root = parent;
+        }
+        input[offset + root] = toSift;
+    }
+
+    /**
+     * Sorts the given array of doubles using quick sort with three-way (Dutch national flag)
+     * partitioning, without boxing. Elements equal to each pivot are grouped in a single pass
+     * and never revisited, so inputs with few distinct values sort in close to linear time.
+     * This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void threeWayQuickSort(double[] input, boolean reversed) {
+        threeWayQuickSort(input, 0, input.length - 1, reversed);
+    }
+
+    /**
+     * Partitions the given range three ways around the value of its middle element, then sorts
+     * the smaller outer part recursively and loops on the larger one.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void threeWayQuickSort(double[] input, int left, int right, boolean reversed) {
+        while (left < right) {
+            double pivot = input[(left + right) >>> 1];
+
+            // Invariant: [left, lessEnd) < pivot, [lessEnd, current) == pivot,
+            // (greaterStart, right] > pivot, and [current, greaterStart] is unexamined
+            int lessEnd = left;
+            int current = left;
+            int greaterStart = right;
+            while (current <= greaterStart) {
+                double toPlace = input[current];
+                if (precedes(toPlace, pivot, reversed)) {
+                    input[current++] = input[lessEnd];
+                    input[lessEnd++] = toPlace;
+                } else if (precedes(pivot, toPlace, reversed)) {
+                    input[current] = input[greaterStart];
+                    input[greaterStart--] = toPlace;
+                } else {
+                    current++;
+                }
+            }
+
+            if (lessEnd - left < right - greaterStart) {
+                threeWayQuickSort(input, left, lessEnd - 1, reversed);
+                left = greaterStart + 1;
+            } else {
+                threeWayQuickSort(input, greaterStart + 1, right, reversed);
+                right = lessEnd - 1;
+            }
+        }
+    }
+
+    /**
+     * Sorts the given array of doubles using a hybrid merge sort, without boxing. Ranges no longer
+     * than the current primitive insertion sort cutoff are sorted by a sorting network (or
+     * insertion sorted, if too long for one) rather than split further. This should modify the
+     * array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void hybridMergeSort(double[] input, boolean reversed) {
+        hybridMergeSort(input, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array of doubles using a hybrid merge sort with the given insertion sort
+     * cutoff. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static void hybridMergeSort(double[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridMergeSort(input.clone(), input, 0, input.length - 1, 0, reversed, cutoff);
+    }
+
+    /**
+     * Recursively partitions given range into halves, sorts each half, and merges halves, except
+     * that short ranges are sorted in place by {@link #sortLeaf}. The source holds the range's
+     * elements sourceOffset places further along than the destination.
+     *
+     * @param source The array the halves are merged from
+     * @param destination The array the sorted range is written to
+     * @param left The destination index of the left-most element
+     * @param right The destination index of the right-most element
+     * @param sourceOffset The source index of each element less its destination index
+     * @param reversed Whether the array should be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}
+     */
+    private static void hybridMergeSort(double[] source, double[] destination, int left, int right,
+            int sourceOffset, boolean reversed, int cutoff) {
+        if (right - left < cutoff) {
+            sortLeaf(destination, left, right, reversed);
+            return;
+        }
+        int midPoint = (left + right) >>> 1;
+        hybridMergeSort(destination, source, left + sourceOffset, midPoint + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        hybridMergeSort(destination, source, midPoint + 1 + sourceOffset, right + sourceOffset,
+                -sourceOffset, reversed, cutoff);
+        merge(source, destination, left + sourceOffset, midPoint + sourceOffset,
+                right + sourceOffset, left, reversed);
+    }
+
+    /**
+     * Sorts the given array of doubles using a hybrid quick sort, without boxing. Ranges no longer
+     * than the current primitive insertion sort cutoff are sorted by a sorting network (or
+     * insertion sorted, if too long for one) rather than partitioned further. This should modify
+     * the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void hybridQuickSort(double[] input, boolean reversed) {
+        hybridQuickSort(input, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the given array of doubles using a hybrid quick sort with the given insertion sort
+     * cutoff. This should modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}.
+     * @throws IllegalArgumentException if cutoff < 1
+     * @requires input != null
+     */
+    static void hybridQuickSort(double[] input, boolean reversed, int cutoff)
+            throws IllegalArgumentException {
+        checkInsertionSortCutoff(cutoff);
+        hybridQuickSort(input, 0, input.length - 1, reversed, cutoff);
+    }
+
+    /**
+     * Sorts the given array of doubles using a block quick sort, whose partitioning avoids
+     * branching on comparisons: blocks at either end of each range are scanned for misplaced
+     * elements, whose offsets are buffered and then swapped in bulk. Short ranges are sorted by
+     * sorting networks, and ranges partitioned too many times are heap sorted. This should
+     * modify the array in-place.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void blockQuickSort(double[] input, boolean reversed) {
+        BranchlessSort.quickSort(input, reversed);
+    }
+
+    /**
+     * Sorts the given array of doubles using a merge sort whose merges advance through each half
+     * by the outcome of every comparison rather than branching on it. Short ranges are sorted by
+     * sorting networks. This should modify the array in-place and is stable.
+     *
+     * @param input An array of doubles.
+     * @param reversed If false, the array should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @requires input != null
+     */
+    static void branchlessMergeSort(double[] input, boolean reversed) {
+        BranchlessSort.mergeSort(input, reversed);
+    }
+
+    /**
+     * Recursively partitions the given range using the median element as a pivot, sorting it
+     * by {@link #sortLeaf} instead once it is no longer than the cutoff.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     * @param cutoff Ranges no longer than this are sorted by {@link #sortLeaf}
+     */
+    private static void hybridQuickSort(double[] input, int left, int right, boolean reversed,
+            int cutoff) {
+        if (right - left < cutoff) {
+            sortLeaf(input, left, right, reversed);
+            return;
+        }
+        int newBound = partition(input, left, right, reversed);
+        hybridQuickSort(input, left, newBound, reversed, cutoff);
+        hybridQuickSort(input, newBound + 1, right, reversed, cutoff);
+    }
+
+    /**
+     * Sorts a short range, such as a leaf of the hybrid or branch-free sorts, with a sorting
+     * network if one is built for its length and otherwise by insertion sort.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void sortLeaf(double[] input, int left, int right, boolean reversed) {
+        if (right - left < SortingNetworks.MAX_LENGTH) {
+            SortingNetworks.sort(input, left, right, reversed);
+        } else {
+            insertionSort(input, left, right, reversed);
+        }
+    }
+
+    /**
+     * Insertion sorts the given range.
+     *
+     * @param input The given array of doubles
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the array is to be sorted in reverse order
+     */
+    static void insertionSort(double[] input, int left, int right, boolean reversed) {
+        for (int current = left + 1; current <= right; current++) {
+            double toInsert = input[current];
+            int insertPosition = current - 1;
+
+            while (insertPosition >= left && precedes(toInsert, input[insertPosition], reversed)) {
+                input[insertPosition + 1] = input[insertPosition];
+                insertPosition--;
+            }
+            input[insertPosition + 1] = toInsert;
+        }
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using selection sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void selectionSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        selectionSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using insertion sort, leaving the rest of the array untouched. This is stable.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void insertionSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        insertionSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using merge sort, leaving the rest of the array untouched. This is stable. The
+     * range is merged back and forth between the array and a buffer only as long as the range, so
+     * the scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void mergeSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        double[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        mergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using quick sort, pivoting on the middle element of each sub-range, leaving the
+     * rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void quickSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        quickSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using introspective sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void introSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        introSort(input, fromIndex, toIndex - 1, depthLimit(toIndex - fromIndex), reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using heap sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void heapSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        heapSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using three-way quick sort, leaving the rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void threeWayQuickSortRange(double[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        threeWayQuickSort(input, fromIndex, toIndex - 1, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a hybrid merge sort with the current primitive insertion sort cutoff,
+     * leaving the rest of the array untouched. This is stable. The range is merged back and forth
+     * between the array and a buffer only as long as the range, so the scratch space allocated is
+     * proportional to the range rather than the whole array.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void hybridMergeSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        double[] buffer = Arrays.copyOfRange(input, fromIndex, toIndex);
+        hybridMergeSort(buffer, input, fromIndex, toIndex - 1, -fromIndex, reversed,
+                primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a hybrid quick sort with the current primitive insertion sort
+     * cutoff, leaving the rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void hybridQuickSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        hybridQuickSort(input, fromIndex, toIndex - 1, reversed, primitiveInsertionSortCutoff);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel merge sort in the common fork/join pool, leaving the rest of
+     * the array untouched. This is stable. The range is merged back and forth between the array
+     * and a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void parallelMergeSortRange(double[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelMergeSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool(),
+                ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF, true);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel quick sort in the common fork/join pool, leaving the rest of
+     * the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void parallelQuickSortRange(double[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        ParallelQuickSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool(),
+                ParallelQuickSort.DEFAULT_SEQUENTIAL_CUTOFF);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a parallel sample sort in the common fork/join pool, leaving the rest of
+     * the array untouched. The range is scattered into a buffer only as long as the range, so the
+     * scratch space allocated is proportional to the range rather than the whole array.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @return The time spent sampling, scattering and sorting buckets.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static SampleSort.Timings sampleSortRange(double[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        return SampleSort.sort(input, fromIndex, toIndex, reversed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a block quick sort, whose partitioning avoids branching on comparisons,
+     * leaving the rest of the array untouched.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void blockQuickSortRange(double[] input, int fromIndex, int toIndex, boolean reversed)
+            throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BranchlessSort.quickSort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Sorts the elements of the given array of doubles from fromIndex (inclusive) to toIndex
+     * (exclusive) using a merge sort whose merges avoid branching on comparisons, leaving the rest
+     * of the array untouched. This is stable. The range is merged back and forth between the array
+     * and a buffer only as long as the range, so the scratch space allocated is proportional to
+     * the range rather than the whole array.
+     *
+     * @param input An array of doubles.
+     * @param fromIndex The index of the first element to sort.
+     * @param toIndex The index after the last element to sort.
+     * @param reversed If false, the range should be sorted ascending.
+     *                 Otherwise, it should be sorted descending.
+     * @throws IllegalArgumentException if fromIndex < 0, fromIndex > toIndex or
+     *                                  toIndex > input.length
+     * @requires input != null
+     */
+    static void branchlessMergeSortRange(double[] input, int fromIndex, int toIndex,
+            boolean reversed) throws IllegalArgumentException {
+        checkRange(input.length, fromIndex, toIndex);
+        BranchlessSort.mergeSort(input, fromIndex, toIndex, reversed);
+    }
+
+    /**
+     * Determines whether the first value must be placed strictly before the second, using a
+     * single comparison regardless of the requested order.
+     *
+     * @param first The value which may need to come first
+     * @param second The value which may need to come second
+     * @param reversed Whether values are being ordered descending
+     * @return true if first belongs strictly before second, otherwise false
+     */
+    static boolean precedes(int first, int second, boolean reversed) {
+        return reversed ? first > second : first < second;
+    }
+
+    /**
+     * Determines whether the first value must be placed strictly before the second, using a
+     * single comparison regardless of the requested order.
+     *
+     * @param first The value which may need to come first
+     * @param second The value which may need to come second
+     * @param reversed Whether values are being ordered descending
+     * @return true if first belongs strictly before second, otherwise false
+     */
+    static boolean precedes(long first, long second, boolean reversed) {
+        return reversed ? first > second : first < second;
+    }
+
+    /**
+     * Determines whether the first value must be placed strictly before the second. Values are
+     * ordered as by {@link Double#compare}, so -0.0 precedes 0.0 and NaN is treated as the
+     * largest value, matching how boxed Double arrays are sorted.
+     *
+     * @param first The value which may need to come first
+     * @param second The value which may need to come second
+     * @param reversed Whether values are being ordered descending
+     * @return true if first belongs strictly before second, otherwise false
+     */
+    static boolean precedes(double first, double second, boolean reversed) {
+        int comparison = Double.compare(first, second);
+        return reversed ? comparison > 0 : comparison < 0;
+    }
+
+    /**
+     * Determines whether the first element must be placed strictly before the second, using a
+     * single comparison regardless of the requested order.
+     *
+     * @param first The element which may need to come first
+     * @param second The element which may need to come second
+     * @param reversed Whether elements are being ordered descending
+     * @param <T> Type of element being compared.
+     * @return true if first belongs strictly before second, otherwise false
+     */
+    private static <T extends Comparable> boolean precedes(T first, T second, boolean reversed) {
+        int comparison = first.compareTo(second);
+        return reversed ? comparison > 0 : comparison < 0;
+    }
 }
@@ -0,0 +1,149 @@
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorting networks for short ranges of primitives. Their only caller is
+ * {@link SortingAlgorithms#sortLeaf(int[], int, int, boolean)} (and its long and double
+ * overloads), which sorts the leaves of both the primitive hybrid merge and quick sorts and the
+ * branch-free sorts, and falls back to insertion sort for ranges longer than {@link #MAX_LENGTH}.
+ * A sorting network is a fixed sequence of compare-exchange steps which sorts any input of its
+ * length, so which steps run never depends on the data. Each compare-exchange writes the smaller
+ * and larger of two elements with conditional moves (or min and max instructions), so a leaf sort
+ * has no data-dependent branches to mispredict, unlike insertion sort, which mispredicts about
+ * once per element on random input.
+ *
+ * The networks are Batcher's merge exchange (Knuth, TAOCP vol. 3, algorithm 5.2.2M), which
+ * works for any length, not just powers of two, and takes O(n log^2 n) comparators. They are
+ * built once for every length up to {@link #MAX_LENGTH}.
+ */
+final class SortingNetworks {
+
+    /** Length of the longest range a network is built for. */
+    static final int MAX_LENGTH = 64;
+
+    /**
+     * The network for each length, as consecutive pairs of offsets to compare-exchange so that
+     * the smaller element ends up at the first offset.
+     */
+    private static final int[][] NETWORKS = new int[MAX_LENGTH + 1][];
+
+    static {
+        for (int length = 0; length <= MAX_LENGTH; length++) {
+            NETWORKS[length] = mergeExchange(length);
+        }
+    }
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private SortingNetworks() {}
+
+    /**
+     * Builds Batcher's merge exchange network for the given length. Each pass p compares
+     * elements d apart whose indices agree with r in bit p, for a shrinking sequence of d, which
+     * merges sorted runs of length p into sorted runs of length 2p.
+     *
+     * @param length The number of elements the network sorts
+     * @return The network's comparators, as consecutive pairs of offsets
+     */
+    private static int[] mergeExchange(int length) {
+        List<Integer> comparators = new ArrayList<>();
+        int top = Integer.highestOneBit(Math.max(length - 1, 1));
+        for (int p = length < 2 ? 0 : top; p > 0; p >>= 1) {
+            int q = top;
+            int r = 0;
+            int d = p;
+            while (true) {
+                for (int index = 0; index < length - d; index++) {
+                    if ((index & p) == r) {
+                        comparators.add(index);
+                        comparators.add(index + d);
+                    }
+                }
+                if (q == p) {
+                    break;
+                }
+                d = q - p;
+                q >>= 1;
+                r = p;
+            }
+        }
+
+        int[] network = new int[comparators.size()];
+        for (int index = 0; index < network.length; index++) {
+            network[index] = comparators.get(index);
+        }
+        return network;
+    }
+
+    /**
+     * Sorts the given range of integers with the network for its length.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires right - left < MAX_LENGTH
+     */
+    static void sort(int[] input, int left, int right, boolean reversed) {
+        int[] network = NETWORKS[Math.max(right - left + 1, 0)];
+        for (int comparator = 0; comparator < network.length; comparator += 2) {
+            int first = left + network[comparator];
+            int second = left + network[comparator + 1];
+            int firstValue = input[first];
+            int secondValue = input[second];
+            input[first] = reversed
+                    ? Math.max(firstValue, secondValue) : Math.min(firstValue, secondValue);
+            input[second] = reversed
+                    ? Math.min(firstValue, secondValue) : Math.max(firstValue, secondValue);
+        }
+    }
+
+    /**
+     * Sorts the given range of longs with the network for its length.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires right - left < MAX_LENGTH
+     */
+    static void sort(long[] input, int left, int right, boolean reversed) {
+        int[] network = NETWORKS[Math.max(right - left + 1, 0)];
+        for (int comparator = 0; comparator < network.length; comparator += 2) {
+            int first = left + network[comparator];
+            int second = left + network[comparator + 1];
+            long firstValue = input[first];
+            long secondValue = input[second];
+            input[first] = reversed
+                    ? Math.max(firstValue, secondValue) : Math.min(firstValue, secondValue);
+            input[second] = reversed
+                    ? Math.min(firstValue, secondValue) : Math.max(firstValue, secondValue);
+        }
+    }
+
+    /**
+     * Sorts the given range of doubles with the network for its length. Math.min and Math.max
+     * would turn a NaN paired with any value into two NaNs, so elements are instead compared as
+     * order-preserving long keys and selected by the outcome.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires right - left < MAX_LENGTH
+     */
+    static void sort(double[] input, int left, int right, boolean reversed) {
+        int[] network = NETWORKS[Math.max(right - left + 1, 0)];
+        for (int comparator = 0; comparator < network.length; comparator += 2) {
+            int first = left + network[comparator];
+            int second = left + network[comparator + 1];
+            double firstValue = input[first];
+            double secondValue = input[second];
+            boolean exchange = SortingAlgorithms.precedes(SortingAlgorithms.sortableBits(
+                    secondValue), SortingAlgorithms.sortableBits(firstValue), reversed);
+            input[first] = exchange ? secondValue : firstValue;
+            input[second] = exchange ? firstValue : secondValue;
+        }
+    }
+}
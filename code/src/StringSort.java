@@ -0,0 +1,159 @@
+/**
+ * Three-way radix quick sort (multikey quick sort) for strings. Rather than comparing whole
+ * strings, each step partitions a range on the character at a single position into strings
+ * whose character there is less than, equal to, or greater than the pivot's. Only the equal
+ * part moves on to the next position, so characters of a long shared prefix are each examined
+ * about once per string instead of once per comparison. Short ranges are insertion sorted,
+ * comparing from the current position onwards only.
+ *
+ * Strings are ordered as by {@link String#compareTo}: by UTF-16 code unit, with a string
+ * placed before any longer string it is a prefix of.
+ */
+final class StringSort {
+
+    /** Ranges shorter than this are insertion sorted. */
+    private static final int INSERTION_SORT_CUTOFF = 12;
+
+    /** The character value used for positions past the end of a string. */
+    private static final int END_OF_STRING = -1;
+
+    /**
+     * This class only holds static sorting routines, so should not be instantiated.
+     */
+    private StringSort() {}
+
+    /**
+     * Sorts the given array of strings.
+     *
+     * @param input The array to sort
+     * @param reversed Whether the array should be sorted in reverse order
+     * @requires input != null && no element of input is null
+     */
+    static void sort(String[] input, boolean reversed) {
+        sort(input, 0, input.length, reversed);
+    }
+
+    /**
+     * Sorts the given range of an array of strings.
+     *
+     * @param input The array to sort
+     * @param fromIndex The index of the first string to sort
+     * @param toIndex The index after the last string to sort
+     * @param reversed Whether the range should be sorted in reverse order
+     * @requires input != null && 0 <= fromIndex <= toIndex <= input.length
+     *           && no string in the range is null
+     */
+    static void sort(String[] input, int fromIndex, int toIndex, boolean reversed) {
+        sort(input, fromIndex, toIndex - 1, 0, reversed);
+    }
+
+    /**
+     * Sorts the given range, where every string in the range shares its first depth characters.
+     * The less and greater parts of each partition are sorted recursively, and the loop carries
+     * on with the equal part one character deeper, so the recursion depth does not grow with
+     * the length of shared prefixes.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depth The index of the first character not known to be shared
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    private static void sort(String[] input, int left, int right, int depth, boolean reversed) {
+        while (right - left >= INSERTION_SORT_CUTOFF) {
+            int pivot = charAt(input[(left + right) >>> 1], depth);
+
+            // Invariant: [left, lessEnd) < pivot, [lessEnd, current) == pivot,
+            // (greaterStart, right] > pivot, and [current, greaterStart] is unexamined
+            int lessEnd = left;
+            int current = left;
+            int greaterStart = right;
+            while (current <= greaterStart) {
+                String toPlace = input[current];
+                int character = charAt(toPlace, depth);
+                if (reversed ? character > pivot : character < pivot) {
+                    input[current++] = input[lessEnd];
+                    input[lessEnd++] = toPlace;
+                } else if (character != pivot) {
+                    input[current] = input[greaterStart];
+                    input[greaterStart--] = toPlace;
+                } else {
+                    current++;
+                }
+            }
+
+            sort(input, left, lessEnd - 1, depth, reversed);
+            sort(input, greaterStart + 1, right, depth, reversed);
+
+            // Strings which have all ended here are equal, so need no further sorting
+            if (pivot == END_OF_STRING) {
+                return;
+            }
+            left = lessEnd;
+            right = greaterStart;
+            depth++;
+        }
+        insertionSort(input, left, right, depth, reversed);
+    }
+
+    /**
+     * Insertion sorts the given range, where every string in the range shares its first depth
+     * characters.
+     *
+     * @param input The array to sort
+     * @param left The left-most array index of interest
+     * @param right The right-most array index of interest
+     * @param depth The index of the first character not known to be shared
+     * @param reversed Whether the array should be sorted in reverse order
+     */
+    private static void insertionSort(String[] input, int left, int right, int depth,
+            boolean reversed) {
+        for (int current = left + 1; current <= right; current++) {
+            String toInsert = input[current];
+            int insertPosition = current - 1;
+
+            while (insertPosition >= left) {
+                int comparison = compareFrom(toInsert, input[insertPosition], depth);
+                if (reversed ? comparison <= 0 : comparison >= 0) {
+                    break;
+                }
+                input[insertPosition + 1] = input[insertPosition];
+                insertPosition--;
+            }
+            input[insertPosition + 1] = toInsert;
+        }
+    }
+
+    /**
+     * Compares two strings lexicographically, starting from the given character index.
+     *
+     * @param first The first string to compare
+     * @param second The second string to compare
+     * @param depth The index of the first character to compare
+     * @return A negative value, zero, or a positive value as the first string orders before,
+     *         equal to, or after the second
+     */
+    private static int compareFrom(String first, String second, int depth) {
+        int limit = Math.min(first.length(), second.length());
+        for (int index = depth; index < limit; index++) {
+            char firstCharacter = first.charAt(index);
+            char secondCharacter = second.charAt(index);
+            if (firstCharacter != secondCharacter) {
+                return firstCharacter - secondCharacter;
+            }
+        }
+        return first.length() - second.length();
+    }
+
+    /**
+     * Gets the character at the given index of a string, treating positions past its end as a
+     * value lower than any character.
+     *
+     * @param string The string to read
+     * @param index The index of the character to read
+     * @return The character, or END_OF_STRING if the string is no longer than index
+     */
+    private static int charAt(String string, int index) {
+        return index < string.length() ? string.charAt(index) : END_OF_STRING;
+    }
+}
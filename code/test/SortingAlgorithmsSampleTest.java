@@ -1,7 +1,15 @@
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import static org.junit.Assert.*;
 
@@ -140,4 +148,1217 @@ public class SortingAlgorithmsSampleTest {
 
         assertArrayEquals(sortedAscending, toSort);
     }
-}
\ No newline at end of file
+
+    /* ----------------------------- PRIMITIVE SORTS ------------------------ */
+
+    @Test
+    public void testPrimitiveIntSortsUnsorted() {
+        int[] expected = new int[]{0, 1, 2, 4, 5, 9, 10};
+        int[] toSort = new int[]{5, 10, 9, 2, 1, 4, 0};
+
+        int[] selection = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.selectionSort(selection, false);
+        assertArrayEquals(expected, selection);
+
+        int[] insertion = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.insertionSort(insertion, false);
+        assertArrayEquals(expected, insertion);
+
+        int[] merge = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.mergeSort(merge, false);
+        assertArrayEquals(expected, merge);
+
+        int[] quick = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.quickSort(quick, false);
+        assertArrayEquals(expected, quick);
+    }
+
+    @Test
+    public void testPrimitiveLongQuickSortUnsortedReverse() {
+        long[] toSort = new long[]{5L, Long.MIN_VALUE, 9L, 2L, Long.MAX_VALUE, 2L, 0L};
+        SortingAlgorithms.quickSort(toSort, true);
+
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 9L, 5L, 2L, 2L, 0L, Long.MIN_VALUE}, toSort);
+    }
+
+    @Test
+    public void testPrimitiveDoubleMergeSortMatchesBoxedOrder() {
+        double[] toSort = new double[]{3.0, Double.NaN, 0.0, -0.0, -1.5};
+        SortingAlgorithms.mergeSort(toSort, false);
+
+        assertArrayEquals(new double[]{-1.5, -0.0, 0.0, 3.0, Double.NaN}, toSort, 0.0);
+    }
+
+    /* ---------------------------- COMPARATOR SORTS ------------------------ */
+
+    @Test
+    public void testComparatorSortsByLength() {
+        String[] toSort = new String[]{"hello", "hi", "elephant", "dog", "fun"};
+        String[] expected = new String[]{"hi", "dog", "fun", "hello", "elephant"};
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+
+        String[] insertion = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.insertionSort(insertion, byLength);
+        assertArrayEquals(expected, insertion);
+
+        String[] merge = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.mergeSort(merge, byLength);
+        assertArrayEquals(expected, merge);
+    }
+
+    @Test
+    public void testComparatorSortsUnsortedReverse() {
+        Integer[] selection = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.selectionSort(selection, Comparator.naturalOrder(), true);
+        Integer[] quick = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.quickSort(quick, Comparator.naturalOrder(), true);
+
+        int j = 0;
+        for (int i = sorted.length - 1; i >= 0; i--, j++) {
+            assertEquals(sorted[i], selection[j]);
+            assertEquals(sorted[i], quick[j]);
+        }
+    }
+
+    /* ------------------------- BUFFERED MERGE SORT ------------------------ */
+
+    @Test
+    public void testMergeSortReusesBuffer() {
+        Integer[] buffer = new Integer[unsorted.length + 3];
+
+        Integer[] first = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.mergeSort(first, buffer, false);
+        assertArrayEquals(sorted, first);
+
+        Integer[] second = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.mergeSort(second, buffer, false);
+        assertArrayEquals(sorted, second);
+    }
+
+    @Test
+    public void testPrimitiveMergeSortReusesBuffer() {
+        int[] buffer = new int[8];
+        int[] toSort = new int[]{5, 10, 9, 2, 1, 4, 0};
+        SortingAlgorithms.mergeSort(toSort, buffer, true);
+
+        assertArrayEquals(new int[]{10, 9, 5, 4, 2, 1, 0}, toSort);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeSortBufferTooShort() {
+        SortingAlgorithms.mergeSort(unsorted, new Integer[unsorted.length - 1], false);
+    }
+
+    /* -------------------------- NATURAL MERGE SORT ------------------------ */
+
+    @Test
+    public void testNaturalMergeSortUnsorted() {
+        SortingAlgorithms.naturalMergeSort(unsorted, false);
+        assertArrayEquals(sorted, unsorted);
+    }
+
+    @Test
+    public void testNaturalMergeSortReverseSortedIsLinear() {
+        Integer[] toSort = new Integer[1000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = toSort.length - i;
+        }
+        int[] comparisons = new int[1];
+        SortingAlgorithms.naturalMergeSort(toSort, (first, second) -> {
+            comparisons[0]++;
+            return first.compareTo(second);
+        });
+
+        for (int i = 0; i < toSort.length; i++) {
+            assertEquals(Integer.valueOf(i + 1), toSort[i]);
+        }
+        assertEquals(toSort.length - 1, comparisons[0]);
+    }
+
+    @Test
+    public void testNaturalMergeSortConcatenatedRunsStable() {
+        String[] toSort = new String[200];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = (char) ('a' + i % 50 / 10) + Integer.toString(i);
+        }
+        String[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, Comparator.comparing(word -> word.charAt(0)));
+
+        SortingAlgorithms.naturalMergeSort(toSort, Comparator.comparing(word -> word.charAt(0)));
+        assertArrayEquals(expected, toSort);
+    }
+
+    /* -------------------------- PARALLEL MERGE SORT ----------------------- */
+
+    @Test
+    public void testParallelMergeSortUnsorted() {
+        SortingAlgorithms.parallelMergeSort(unsorted, false);
+        assertArrayEquals(sorted, unsorted);
+    }
+
+    @Test
+    public void testParallelMergeSortCustomPoolStable() {
+        Integer[][] toSort = new Integer[10000][];
+        Random random = new Random(3506);
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = new Integer[]{random.nextInt(50), i};
+        }
+        Integer[][] expected = Arrays.copyOf(toSort, toSort.length);
+        Comparator<Integer[]> byKey = Comparator.comparing(pair -> pair[0]);
+        Arrays.sort(expected, byKey.reversed());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SortingAlgorithms.parallelMergeSort(toSort, byKey.reversed(), pool, 64, true);
+        pool.shutdown();
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testPrimitiveParallelMergeSortSmallCutoff() {
+        int[] toSort = new int[5000];
+        Random random = new Random(3506);
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = random.nextInt();
+        }
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.parallelMergeSort(toSort, false, ForkJoinPool.commonPool(), 16, false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testParallelMergeSortInvalidCutoff() {
+        SortingAlgorithms.parallelMergeSort(new int[]{2, 1}, false, ForkJoinPool.commonPool(), 0,
+                true);
+    }
+
+    /* -------------------------- PARALLEL QUICK SORT ----------------------- */
+
+    @Test
+    public void testParallelQuickSortUnsortedReverse() {
+        SortingAlgorithms.parallelQuickSort(unsorted, true);
+        int j = 0;
+        for (int i = unsorted.length - 1; i >= 0; i--) {
+            if (!(sorted[i].equals(unsorted[j++]))) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void testPrimitiveParallelQuickSortSmallCutoff() {
+        long[] toSort = new long[5000];
+        Random random = new Random(3506);
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = random.nextInt(100);
+        }
+        long[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SortingAlgorithms.parallelQuickSort(toSort, false, pool, 16);
+        pool.shutdown();
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testParallelQuickSortOrganPipe() {
+        // Middle pivots split an organ pipe unevenly at every step, which used to nest one
+        // inline join per step until the stack overflowed
+        int[] toSort = new int[10000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = Math.min(i, toSort.length - 1 - i);
+        }
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.parallelQuickSort(toSort, false);
+        assertArrayEquals(expected, toSort);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Integer[] boxed = new Integer[20000];
+        for (int i = 0; i < boxed.length; i++) {
+            boxed[i] = Math.min(i, boxed.length - 1 - i);
+        }
+        SortingAlgorithms.parallelQuickSort(boxed, false, pool, 16);
+        pool.shutdown();
+        for (int i = 1; i < boxed.length; i++) {
+            assertTrue(boxed[i - 1] <= boxed[i]);
+        }
+    }
+
+    /* ------------------------------- INTRO SORT --------------------------- */
+
+    @Test
+    public void testIntroSortUnsortedReverse() {
+        SortingAlgorithms.introSort(unsorted, true);
+        int j = 0;
+        for (int i = unsorted.length - 1; i >= 0; i--) {
+            if (!(sorted[i].equals(unsorted[j++]))) {
+                fail();
+            }
+        }
+    }
+
+    @Test
+    public void testIntroSortComparisonsBounded() {
+        // Organ pipe inputs defeat a fixed middle pivot
+        Integer[] toSort = new Integer[1 << 14];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = i % 2 == 0 ? i : toSort.length - i;
+        }
+        long[] comparisons = new long[1];
+        SortingAlgorithms.introSort(toSort, (first, second) -> {
+            comparisons[0]++;
+            return first.compareTo(second);
+        });
+
+        for (int i = 1; i < toSort.length; i++) {
+            assertTrue(toSort[i - 1] <= toSort[i]);
+        }
+        assertTrue(comparisons[0] < 4L * 14 * toSort.length);
+    }
+
+    @Test
+    public void testPrimitiveIntroSortDuplicates() {
+        double[] toSort = new double[]{2.5, -1.0, 2.5, 0.0, -1.0, 2.5, 7.0};
+        SortingAlgorithms.introSort(toSort, false);
+
+        assertArrayEquals(new double[]{-1.0, -1.0, 0.0, 2.5, 2.5, 2.5, 7.0}, toSort, 0.0);
+    }
+
+    /* ------------------------- THREE-WAY QUICK SORT ----------------------- */
+
+    @Test
+    public void testThreeWayQuickSortFewDistinctValues() {
+        Integer[] toSort = new Integer[1000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = (i * 7) % 3;
+        }
+        long[] comparisons = new long[1];
+        SortingAlgorithms.threeWayQuickSort(toSort, (first, second) -> {
+            comparisons[0]++;
+            return first.compareTo(second);
+        });
+
+        for (int i = 1; i < toSort.length; i++) {
+            assertTrue(toSort[i - 1] <= toSort[i]);
+        }
+        // Every element is compared against at most one pivot per distinct value
+        assertTrue(comparisons[0] <= 3L * toSort.length);
+    }
+
+    @Test
+    public void testPrimitiveThreeWayQuickSortUnsortedReverse() {
+        int[] toSort = new int[]{5, 1, 5, 2, 1, 4, 5, 0};
+        SortingAlgorithms.threeWayQuickSort(toSort, true);
+
+        assertArrayEquals(new int[]{5, 5, 5, 4, 2, 1, 1, 0}, toSort);
+    }
+
+    @Test
+    public void testQuickSortPivotMovedDuringPartition() {
+        Integer[] toSort = new Integer[]{566525405, 1553837494, 672416366, 1023924088,
+                1440256888, 853009005, 955963232, 296013789, 937928935, 912682113, 407537866,
+                507899075, 43509459, 781113073, 701721865, 777708020};
+        Integer[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.quickSort(toSort, false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    /* ------------------------------ HYBRID SORTS -------------------------- */
+
+    @Test
+    public void testHybridSortsUnsortedAcrossCutoffs() {
+        Integer[] toSort = new Integer[300];
+        Random random = new Random(3506);
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = random.nextInt(40);
+        }
+        Integer[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        for (int cutoff : new int[]{1, 7, 16, 64, 500}) {
+            Integer[] merge = Arrays.copyOf(toSort, toSort.length);
+            SortingAlgorithms.hybridMergeSort(merge, false, cutoff);
+            assertArrayEquals(expected, merge);
+
+            Integer[] quick = Arrays.copyOf(toSort, toSort.length);
+            SortingAlgorithms.hybridQuickSort(quick, false, cutoff);
+            assertArrayEquals(expected, quick);
+        }
+    }
+
+    @Test
+    public void testPrimitiveHybridMergeSortUnsortedReverse() {
+        int[] toSort = new int[]{5, 10, 9, 2, 1, 4, 0};
+        SortingAlgorithms.hybridMergeSort(toSort, true, 3);
+
+        assertArrayEquals(new int[]{10, 9, 5, 4, 2, 1, 0}, toSort);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidInsertionSortCutoff() {
+        SortingAlgorithms.setInsertionSortCutoff(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidPrimitiveInsertionSortCutoff() {
+        SortingAlgorithms.setPrimitiveInsertionSortCutoff(0);
+    }
+
+    @Test
+    public void testLoadInsertionSortCutoffsFromBadFileKeepsCutoffs() throws IOException {
+        int cutoff = SortingAlgorithms.getInsertionSortCutoff();
+        int primitiveCutoff = SortingAlgorithms.getPrimitiveInsertionSortCutoff();
+        Path file = Files.createTempFile("calibration", ".properties");
+        try {
+            // A valid first cutoff must not be applied when the second is not a number
+            Files.writeString(file, "insertionSortCutoff=12\nprimitiveInsertionSortCutoff=x\n");
+            assertFalse(PerformanceAnalysis.loadInsertionSortCutoffs(file));
+            assertEquals(cutoff, SortingAlgorithms.getInsertionSortCutoff());
+            assertEquals(primitiveCutoff, SortingAlgorithms.getPrimitiveInsertionSortCutoff());
+
+            Files.writeString(file, "insertionSortCutoff=0\nprimitiveInsertionSortCutoff=12\n");
+            assertFalse(PerformanceAnalysis.loadInsertionSortCutoffs(file));
+            assertEquals(cutoff, SortingAlgorithms.getInsertionSortCutoff());
+            assertEquals(primitiveCutoff, SortingAlgorithms.getPrimitiveInsertionSortCutoff());
+
+            Files.writeString(file, "insertionSortCutoff=\\u00zz\n");
+            assertFalse(PerformanceAnalysis.loadInsertionSortCutoffs(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /* -------------------------------- HEAP SORT --------------------------- */
+
+    @Test
+    public void testHeapSortUnsorted() {
+        SortingAlgorithms.heapSort(unsorted, false);
+        assertArrayEquals(sorted, unsorted);
+    }
+
+    @Test
+    public void testHeapSortSortedAscendingReverse() {
+        String[] toSort = Arrays.copyOf(sortedAscending, sortedAscending.length);
+        SortingAlgorithms.heapSort(toSort, Comparator.naturalOrder(), true);
+
+        for (int i = 0; i < toSort.length; i++) {
+            assertEquals(sortedAscending[sortedAscending.length - 1 - i], toSort[i]);
+        }
+    }
+
+    @Test
+    public void testPrimitiveHeapSortUnsorted() {
+        long[] toSort = new long[]{5L, 10L, 9L, 2L, 1L, 4L, 0L, 9L};
+        SortingAlgorithms.heapSort(toSort, false);
+
+        assertArrayEquals(new long[]{0L, 1L, 2L, 4L, 5L, 9L, 9L, 10L}, toSort);
+    }
+
+    /* ------------------------------- RADIX SORT --------------------------- */
+
+    @Test
+    public void testRadixSortSignedKeys() {
+        int[] toSort = new int[1000];
+        Random random = new Random(3506);
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = random.nextInt();
+        }
+        toSort[0] = Integer.MIN_VALUE;
+        toSort[1] = Integer.MAX_VALUE;
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.radixSort(toSort, false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testRadixSortSmallRangeReverse() {
+        int[] toSort = new int[]{3, -2, 0, 3, 1, -2, 2, 0};
+        SortingAlgorithms.radixSort(toSort, true);
+
+        assertArrayEquals(new int[]{3, 3, 2, 1, 0, 0, -2, -2}, toSort);
+    }
+
+    @Test
+    public void testRadixSortLongsReverse() {
+        long[] toSort = new long[]{Long.MAX_VALUE, -5L, 1L << 40, Long.MIN_VALUE, 0L, -(1L << 40)};
+        SortingAlgorithms.radixSort(toSort, true);
+
+        assertArrayEquals(new long[]{Long.MAX_VALUE, 1L << 40, 0L, -5L, -(1L << 40),
+                Long.MIN_VALUE}, toSort);
+    }
+
+    /* ------------------------------- STRING SORT -------------------------- */
+
+    @Test
+    public void testStringSortSortedAscending() {
+        String[] toSort = Arrays.copyOf(sortedAscending, sortedAscending.length);
+        Collections.shuffle(Arrays.asList(toSort), new Random(3506));
+        SortingAlgorithms.stringSort(toSort, false);
+
+        assertArrayEquals(sortedAscending, toSort);
+    }
+
+    @Test
+    public void testStringSortSharedPrefixesReverse() {
+        String[] toSort = new String[]{"/usr/lib", "/usr", "/usr/lib/jvm", "/usr/bin", "",
+                "/usr/lib/jvm", "/opt", "/usr/libexec"};
+        String[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, Collections.reverseOrder());
+
+        SortingAlgorithms.stringSort(toSort, true);
+        assertArrayEquals(expected, toSort);
+    }
+
+    /* ---------------------------- KEY EXTRACTION SORT --------------------- */
+
+    @Test
+    public void testSortByIntKeyIsStable() {
+        String[] toSort = new String[]{"ccc", "a", "bb", "dd", "e", "fff", "g"};
+        SortingAlgorithms.sortByIntKey(toSort, String::length, false);
+
+        assertArrayEquals(new String[]{"a", "e", "g", "bb", "dd", "ccc", "fff"}, toSort);
+    }
+
+    @Test
+    public void testSortByLongKeyReverse() {
+        Long[] toSort = new Long[]{Long.MIN_VALUE, 7L, -(1L << 40), Long.MAX_VALUE, 0L};
+        SortingAlgorithms.sortByLongKey(toSort, Long::longValue, true);
+
+        assertArrayEquals(new Long[]{Long.MAX_VALUE, 7L, 0L, -(1L << 40), Long.MIN_VALUE},
+                toSort);
+    }
+
+    @Test
+    public void testSortByDoubleKeyMatchesDoubleCompare() {
+        Double[] toSort = new Double[]{2.5, Double.NaN, -0.0, Double.NEGATIVE_INFINITY, 0.0,
+                -1e300, Double.MIN_VALUE};
+        Double[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.sortByDoubleKey(toSort, Double::doubleValue, false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    /* ------------------------------- ARGSORT ------------------------------ */
+
+    @Test
+    public void testArgMergeSortIsStableAndLeavesInput() {
+        String[] toOrder = new String[]{"ccc", "a", "bb", "dd", "e"};
+        String[] original = Arrays.copyOf(toOrder, toOrder.length);
+        int[] order = SortingAlgorithms.argMergeSort(toOrder,
+                Comparator.comparingInt(String::length), false);
+
+        assertArrayEquals(new int[]{1, 4, 2, 3, 0}, order);
+        assertArrayEquals(original, toOrder);
+    }
+
+    @Test
+    public void testArgQuickSortReverse() {
+        double[] toOrder = new double[]{0.5, -2.0, 3.25, 1.0, -7.5};
+        int[] order = SortingAlgorithms.argQuickSort(toOrder, true);
+
+        assertArrayEquals(new int[]{2, 3, 0, 1, 4}, order);
+        assertArrayEquals(new double[]{0.5, -2.0, 3.25, 1.0, -7.5}, toOrder, 0.0);
+    }
+
+    @Test
+    public void testArgMergeSortComparable() {
+        int[] order = SortingAlgorithms.argMergeSort(unsorted, false);
+
+        for (int position = 0; position < sorted.length; position++) {
+            assertEquals(sorted[position], unsorted[order[position]]);
+        }
+    }
+
+    /* ---------------------------- COLUMNAR SORT --------------------------- */
+
+    @Test
+    public void testColumnarSortMixedDirections() {
+        int[] department = new int[]{2, 1, 2, 1, 2, 1};
+        double[] salary = new double[]{50.0, 70.0, 90.0, 70.0, 50.0, 30.0};
+        long[] id = new long[]{10L, 11L, 12L, 13L, 14L, 15L};
+
+        int[] order = SortingAlgorithms.columnarSort(ColumnarSort.column(department, false),
+                ColumnarSort.column(salary, true), ColumnarSort.column(id, true));
+
+        assertArrayEquals(new int[]{3, 1, 5, 2, 4, 0}, order);
+        assertArrayEquals(new long[]{13L, 11L, 15L, 12L, 14L, 10L},
+                ColumnarSort.permute(id, order));
+    }
+
+    @Test
+    public void testColumnarSortIsStable() {
+        int[] key = new int[]{1, 0, 1, 0};
+        int[] order = SortingAlgorithms.columnarSort(ColumnarSort.column(key, true));
+
+        assertArrayEquals(new int[]{0, 2, 1, 3}, order);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testColumnarSortMismatchedLengths() {
+        SortingAlgorithms.columnarSort(ColumnarSort.column(new int[3], false),
+                ColumnarSort.column(new long[2], false));
+    }
+
+    /* ---------------------------- SELECTION / TOP-K ----------------------- */
+
+    @Test
+    public void testSelectMedian() {
+        int[] toSearch = new int[]{9, -3, 7, 7, 0, 12, 5};
+        assertEquals(7, SortingAlgorithms.select(toSearch, 3, true));
+        assertEquals(7, toSearch[3]);
+    }
+
+    @Test
+    public void testPartialSortComparable() {
+        Integer[] toSort = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.partialSort(toSort, 3, false);
+
+        assertArrayEquals(Arrays.copyOf(sorted, 3), Arrays.copyOf(toSort, 3));
+    }
+
+    @Test
+    public void testTopKLeavesInput() {
+        String[] toSearch = Arrays.copyOf(sortedAscending, sortedAscending.length);
+        Collections.shuffle(Arrays.asList(toSearch), new Random(1016));
+        String[] original = Arrays.copyOf(toSearch, toSearch.length);
+
+        String[] top = SortingAlgorithms.topK(toSearch, 2, Comparator.naturalOrder(), true);
+        assertArrayEquals(new String[]{"world", "hi"}, top);
+        assertArrayEquals(original, toSearch);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTopKTooMany() {
+        SortingAlgorithms.topK(new long[]{1L, 2L}, 3, false);
+    }
+
+    /* ------------------------------- RANGE SORTS -------------------------- */
+
+    @Test
+    public void testMergeSortRangeLeavesRestUntouched() {
+        int[] toSort = new int[]{9, 8, 7, 6, 5, 4, 3, 2};
+        SortingAlgorithms.mergeSortRange(toSort, 2, 6, false);
+
+        assertArrayEquals(new int[]{9, 8, 4, 5, 6, 7, 3, 2}, toSort);
+    }
+
+    @Test
+    public void testMergeSortRangesLongerThanParallelCutoff() {
+        Random random = new Random(3506);
+        int[] keys = random.ints(3 * ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF).toArray();
+        int fromIndex = 1001;
+        int toIndex = keys.length - 999;
+        int[] expected = keys.clone();
+        Arrays.sort(expected, fromIndex, toIndex);
+
+        int[] merge = keys.clone();
+        SortingAlgorithms.mergeSortRange(merge, fromIndex, toIndex, false);
+        assertArrayEquals(expected, merge);
+
+        int[] hybrid = keys.clone();
+        SortingAlgorithms.hybridMergeSortRange(hybrid, fromIndex, toIndex, false);
+        assertArrayEquals(expected, hybrid);
+
+        int[] parallel = keys.clone();
+        SortingAlgorithms.parallelMergeSortRange(parallel, fromIndex, toIndex, false);
+        assertArrayEquals(expected, parallel);
+
+        int[] radix = keys.clone();
+        SortingAlgorithms.radixSortRange(radix, fromIndex, toIndex, false);
+        assertArrayEquals(expected, radix);
+    }
+
+    @Test
+    public void testObjectMergeSortRangesStable() {
+        Random random = new Random(3506);
+        String[] toSort = new String[2 * ParallelMergeSort.DEFAULT_SEQUENTIAL_CUTOFF + 1];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = random.nextInt(50) + ":" + i;
+        }
+        Comparator<String> byPrefix = Comparator.comparing(key -> key.split(":")[0]);
+        String[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, 7, toSort.length - 3, byPrefix.reversed());
+
+        String[] merge = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.mergeSortRange(merge, 7, toSort.length - 3, byPrefix, true);
+        assertArrayEquals(expected, merge);
+
+        String[] parallel = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.parallelMergeSortRange(parallel, 7, toSort.length - 3, byPrefix, true);
+        assertArrayEquals(expected, parallel);
+
+        Integer[] numbers = new Integer[]{9, 8, 7, 6, 5, 4, 3, 2};
+        SortingAlgorithms.hybridMergeSortRange(numbers, 1, 7, false);
+        assertArrayEquals(new Integer[]{9, 3, 4, 5, 6, 7, 8, 2}, numbers);
+    }
+
+    @Test
+    public void testIntroSortRangeComparatorReverse() {
+        String[] toSort = new String[]{"b", "a", "c", "e", "d", "a"};
+        SortingAlgorithms.introSortRange(toSort, 1, 5, Comparator.naturalOrder(), true);
+
+        assertArrayEquals(new String[]{"b", "e", "d", "c", "a", "a"}, toSort);
+    }
+
+    @Test
+    public void testParallelQuickSortRangeEmpty() {
+        double[] toSort = new double[]{3.0, 1.0, 2.0};
+        SortingAlgorithms.parallelQuickSortRange(toSort, 1, 1, false);
+
+        assertArrayEquals(new double[]{3.0, 1.0, 2.0}, toSort, 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testQuickSortRangeOutOfBounds() {
+        SortingAlgorithms.quickSortRange(new long[4], 1, 5, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHeapSortRangeBackwards() {
+        SortingAlgorithms.heapSortRange(unsorted, 3, 2, false);
+    }
+
+    /* ------------------------------- AUTO SORT ---------------------------- */
+
+    @Test
+    public void testAutoSortShortInputUsesInsertionSort() {
+        Integer[] toSort = Arrays.copyOf(unsorted, unsorted.length);
+        assertEquals(AutoSort.Strategy.INSERTION, SortingAlgorithms.autoSort(toSort, false));
+        assertArrayEquals(sorted, toSort);
+    }
+
+    @Test
+    public void testAutoSortReverseSortedUsesNaturalMerge() {
+        Integer[] toSort = new Integer[1000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = toSort.length - i;
+        }
+        assertEquals(AutoSort.Strategy.NATURAL_MERGE,
+                SortingAlgorithms.autoSort(toSort, Comparator.naturalOrder(), false));
+        for (int i = 0; i < toSort.length; i++) {
+            assertEquals(i + 1, (int) toSort[i]);
+        }
+    }
+
+    @Test
+    public void testAutoSortDuplicatesUseThreeWayQuickSort() {
+        Random generator = new Random(1018);
+        Integer[] toSort = new Integer[1000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt(4);
+        }
+        Integer[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, Collections.reverseOrder());
+
+        assertEquals(AutoSort.Strategy.THREE_WAY_QUICK, SortingAlgorithms.autoSort(toSort, true));
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testAutoSortRandomIntsUseRadixSort() {
+        Random generator = new Random(1018);
+        int[] toSort = new int[1000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt();
+        }
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        assertEquals(AutoSort.Strategy.RADIX, SortingAlgorithms.autoSort(toSort, false));
+        assertArrayEquals(expected, toSort);
+    }
+
+    /* ----------------------------- EXTERNAL SORT -------------------------- */
+
+    @Test
+    public void testExternalSortMergesManyRunsStably() throws IOException {
+        Path directory = Files.createTempDirectory("external-sort");
+        Path input = directory.resolve("input.bin");
+        Path output = directory.resolve("output.bin");
+        RecordLayout layout = new RecordLayout(8, 4, RecordLayout.KeyType.INT);
+
+        // Each record is its original position followed by a key with many duplicates
+        Random generator = new Random(1019);
+        int records = 1000;
+        ByteBuffer buffer = ByteBuffer.allocate(records * layout.recordLength);
+        for (int i = 0; i < records; i++) {
+            buffer.putInt(i).putInt(generator.nextInt(50) - 25);
+        }
+        Files.write(input, buffer.array());
+
+        // A 400 byte budget makes 10 record runs, merged 3 at a time over several passes
+        SortingAlgorithms.externalSort(input, output, layout, true, 400, 3, directory);
+
+        ByteBuffer result = ByteBuffer.wrap(Files.readAllBytes(output));
+        assertEquals(records * layout.recordLength, result.capacity());
+        for (int i = 1; i < records; i++) {
+            int previousKey = result.getInt((i - 1) * 8 + 4);
+            int key = result.getInt(i * 8 + 4);
+            assertTrue(previousKey >= key);
+            if (previousKey == key) {
+                assertTrue(result.getInt((i - 1) * 8) < result.getInt(i * 8));
+            }
+        }
+
+        Files.delete(input);
+        Files.delete(output);
+        Files.delete(directory);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExternalSortPartialRecord() throws IOException {
+        Path input = Files.createTempFile("external-sort", ".bin");
+        try {
+            Files.write(input, new byte[10]);
+            SortingAlgorithms.externalSort(input, input.resolveSibling("unused.bin"),
+                    new RecordLayout(8, 0, RecordLayout.KeyType.LONG), false);
+        } finally {
+            Files.delete(input);
+        }
+    }
+
+    /* ----------------------------- OFF-HEAP SORT -------------------------- */
+
+    private static ByteBuffer doubleRecords(double... keys) {
+        // Each record is its original position followed by its key
+        ByteBuffer records = ByteBuffer.allocateDirect(keys.length * 12);
+        for (int i = 0; i < keys.length; i++) {
+            records.putInt(i).putDouble(keys[i]);
+        }
+        return records.flip();
+    }
+
+    @Test
+    public void testSortRecordsIsStable() {
+        ByteBuffer records = doubleRecords(2.5, -1.0, 2.5, Double.NaN, -0.0, 0.0, -1.0);
+        SortingAlgorithms.sortRecords(records,
+                new RecordLayout(12, 4, RecordLayout.KeyType.DOUBLE), false);
+        int[] expected = {1, 6, 4, 5, 0, 2, 3};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], records.getInt(i * 12));
+        }
+    }
+
+    @Test
+    public void testRecordOrderLeavesRecordsInPlace() {
+        ByteBuffer records = doubleRecords(3.0, 1.0, 2.0);
+        int[] order = SortingAlgorithms.recordOrder(records,
+                new RecordLayout(12, 4, RecordLayout.KeyType.DOUBLE), true);
+        assertArrayEquals(new int[]{0, 2, 1}, order);
+        assertEquals(1, records.getInt(12));
+    }
+
+    @Test
+    public void testHeapSortRecords() {
+        Random generator = new Random(1020);
+        ByteBuffer records = ByteBuffer.allocate(500 * 8);
+        while (records.hasRemaining()) {
+            records.putLong(generator.nextLong());
+        }
+        records.flip();
+        SortingAlgorithms.heapSortRecords(records,
+                new RecordLayout(8, 0, RecordLayout.KeyType.LONG), true);
+        for (int i = 1; i < 500; i++) {
+            assertTrue(records.getLong((i - 1) * 8) >= records.getLong(i * 8));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSortRecordsPartialRecord() {
+        SortingAlgorithms.sortRecords(ByteBuffer.allocate(10),
+                new RecordLayout(4, 0, RecordLayout.KeyType.INT), false);
+    }
+
+    /* ------------------------------ SAMPLE SORT --------------------------- */
+
+    @Test
+    public void testSampleSortShortInputSortsSequentially() {
+        Integer[] toSort = Arrays.copyOf(unsorted, unsorted.length);
+        SampleSort.Timings timings = SortingAlgorithms.sampleSort(toSort, false);
+        assertArrayEquals(sorted, toSort);
+        assertEquals(0, timings.scatterNanos);
+    }
+
+    @Test
+    public void testSampleSortInts() {
+        Random generator = new Random(1021);
+        int[] toSort = new int[100000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt();
+        }
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        SortingAlgorithms.sampleSort(toSort, false, pool);
+        pool.shutdown();
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testSampleSortIsStable() {
+        // Sort positions by a key with many duplicates; equal keys must keep ascending positions
+        Random generator = new Random(1021);
+        int[] keys = new int[50000];
+        Integer[] toSort = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = generator.nextInt(100);
+            toSort[i] = i;
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        SortingAlgorithms.sampleSort(toSort, Comparator.comparingInt(i -> keys[i]), pool);
+        pool.shutdown();
+        for (int i = 1; i < toSort.length; i++) {
+            int previous = toSort[i - 1];
+            int current = toSort[i];
+            assertTrue(keys[previous] < keys[current]
+                    || keys[previous] == keys[current] && previous < current);
+        }
+    }
+
+    @Test
+    public void testSampleSortReversedComparatorIsStable() {
+        // Reversing the keys must not reverse the order of equal keys
+        Random generator = new Random(1021);
+        int[] keys = new int[50000];
+        Integer[] toSort = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = generator.nextInt(100);
+            toSort[i] = i;
+        }
+        ForkJoinPool pool = new ForkJoinPool(3);
+        SortingAlgorithms.sampleSort(toSort, Comparator.comparingInt(i -> keys[i]), true, pool);
+        pool.shutdown();
+        for (int i = 1; i < toSort.length; i++) {
+            int previous = toSort[i - 1];
+            int current = toSort[i];
+            assertTrue(keys[previous] > keys[current]
+                    || keys[previous] == keys[current] && previous < current);
+        }
+    }
+
+    @Test
+    public void testSampleSortRangeLeavesRestUntouched() {
+        Random generator = new Random(1021);
+        long[] toSort = new long[100000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextLong();
+        }
+        int fromIndex = 12345;
+        int toIndex = toSort.length - 678;
+        long[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, fromIndex, toIndex);
+
+        SampleSort.Timings timings = SortingAlgorithms.sampleSortRange(toSort, fromIndex, toIndex,
+                false);
+        assertArrayEquals(expected, toSort);
+        assertTrue(timings.totalNanos() > 0);
+    }
+
+    @Test
+    public void testSampleSortRangeIsStable() {
+        Random generator = new Random(1021);
+        int[] keys = new int[50000];
+        Integer[] toSort = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = generator.nextInt(100);
+            toSort[i] = i;
+        }
+        int fromIndex = 1000;
+        int toIndex = toSort.length - 1000;
+        SortingAlgorithms.sampleSortRange(toSort, fromIndex, toIndex,
+                Comparator.comparingInt(i -> keys[i]), true);
+        for (int i = 0; i < fromIndex; i++) {
+            assertEquals(i, (int) toSort[i]);
+            assertEquals(toIndex + i, (int) toSort[toIndex + i]);
+        }
+        for (int i = fromIndex + 1; i < toIndex; i++) {
+            int previous = toSort[i - 1];
+            int current = toSort[i];
+            assertTrue(keys[previous] > keys[current]
+                    || keys[previous] == keys[current] && previous < current);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testSampleSortRangeOutOfBounds() {
+        SortingAlgorithms.sampleSortRange(new double[4], -1, 2, false);
+    }
+
+    /* ---------------------------- BRANCHLESS SORTS ------------------------ */
+
+    @Test
+    public void testBlockQuickSortInts() {
+        Random generator = new Random(1022);
+        int[] toSort = new int[10000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt();
+        }
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.blockQuickSort(toSort, false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testBlockQuickSortDuplicateLongs() {
+        Random generator = new Random(1022);
+        long[] toSort = new long[10000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt(3);
+        }
+        SortingAlgorithms.blockQuickSort(toSort, true);
+        for (int i = 1; i < toSort.length; i++) {
+            assertTrue(toSort[i - 1] >= toSort[i]);
+        }
+    }
+
+    @Test
+    public void testBranchlessMergeSortDoubles() {
+        double[] toSort = {2.5, Double.NaN, -0.0, 0.0, -1.0, Double.NEGATIVE_INFINITY, 2.5};
+        double[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected);
+
+        SortingAlgorithms.branchlessMergeSort(toSort, false);
+        assertArrayEquals(expected, toSort, 0.0);
+    }
+
+    @Test
+    public void testBranchlessSortRangesLeaveRestUntouched() {
+        Random generator = new Random(1022);
+        int[] toSort = new int[10000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt();
+        }
+        int fromIndex = 123;
+        int toIndex = toSort.length - 45;
+        int[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, fromIndex, toIndex);
+
+        int[] block = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.blockQuickSortRange(block, fromIndex, toIndex, false);
+        assertArrayEquals(expected, block);
+        SortingAlgorithms.branchlessMergeSortRange(toSort, fromIndex, toIndex, false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testBranchlessMergeSortRangeDoublesReverse() {
+        double[] toSort = {9.0, 2.5, Double.NaN, -0.0, 0.0, -1.0, 2.5, -9.0};
+        SortingAlgorithms.branchlessMergeSortRange(toSort, 1, 7, true);
+        assertArrayEquals(new double[]{9.0, Double.NaN, 2.5, 2.5, 0.0, -0.0, -1.0, -9.0}, toSort,
+                0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockQuickSortRangeBackwards() {
+        SortingAlgorithms.blockQuickSortRange(new long[4], 3, 2, false);
+    }
+
+    @Test
+    public void testSortingNetworksEveryLength() {
+        Random generator = new Random(1023);
+        for (int length = 0; length <= SortingNetworks.MAX_LENGTH; length++) {
+            int[] toSort = new int[length];
+            for (int i = 0; i < length; i++) {
+                toSort[i] = generator.nextInt(20);
+            }
+            int[] expected = Arrays.copyOf(toSort, length);
+            Arrays.sort(expected);
+
+            SortingNetworks.sort(toSort, 0, length - 1, false);
+            assertArrayEquals(expected, toSort);
+        }
+    }
+
+    @Test
+    public void testHybridSortsWithNetworkLeaves() {
+        // A cutoff past the longest network mixes network and insertion sorted leaves
+        Random generator = new Random(1023);
+        for (int cutoff : new int[]{16, SortingNetworks.MAX_LENGTH + 20}) {
+            double[] toSort = generator.doubles(5000).toArray();
+            toSort[17] = Double.NaN;
+            toSort[1234] = -0.0;
+            double[] expected = Arrays.copyOf(toSort, toSort.length);
+            Arrays.sort(expected);
+
+            double[] merged = Arrays.copyOf(toSort, toSort.length);
+            SortingAlgorithms.hybridMergeSort(merged, false, cutoff);
+            assertArrayEquals(expected, merged, 0.0);
+            SortingAlgorithms.hybridQuickSort(toSort, false, cutoff);
+            assertArrayEquals(expected, toSort, 0.0);
+        }
+    }
+
+    /* --------------------------- BLOCK MERGE SORT ------------------------- */
+
+    @Test
+    public void testBlockMergeSortIsStable() {
+        // Few distinct keys leave too few values for a second internal buffer, so the merges
+        // fall back to rotations
+        for (int distinct : new int[]{3, 50, 100000}) {
+            Random generator = new Random(1024 + distinct);
+            int[] keys = new int[20000];
+            Integer[] toSort = new Integer[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = generator.nextInt(distinct);
+                toSort[i] = i;
+            }
+            SortingAlgorithms.blockMergeSort(toSort, Comparator.comparingInt(i -> keys[i]),
+                    true);
+            for (int i = 1; i < toSort.length; i++) {
+                int previous = toSort[i - 1];
+                int current = toSort[i];
+                assertTrue(keys[previous] > keys[current]
+                        || keys[previous] == keys[current] && previous < current);
+            }
+        }
+    }
+
+    @Test
+    public void testBlockMergeSortWithBuffer() {
+        Random generator = new Random(1024);
+        String[] toSort = new String[10000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = Integer.toString(generator.nextInt(5000));
+        }
+        String[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, Comparator.comparing(String::length));
+
+        SortingAlgorithms.blockMergeSort(toSort, Comparator.comparing(String::length), false,
+                BlockMergeSort.DEFAULT_BUFFER_LENGTH);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testBlockMergeSortRangeIsStable() {
+        for (int distinct : new int[]{3, 100000}) {
+            Random generator = new Random(1024 + distinct);
+            int[] keys = new int[20000];
+            Integer[] toSort = new Integer[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = generator.nextInt(distinct);
+                toSort[i] = i;
+            }
+            int fromIndex = 77;
+            int toIndex = toSort.length - 1234;
+            SortingAlgorithms.blockMergeSortRange(toSort, fromIndex, toIndex,
+                    Comparator.comparingInt(i -> keys[i]), false);
+            for (int i = 0; i < fromIndex; i++) {
+                assertEquals(i, (int) toSort[i]);
+            }
+            for (int i = toIndex; i < toSort.length; i++) {
+                assertEquals(i, (int) toSort[i]);
+            }
+            for (int i = fromIndex + 1; i < toIndex; i++) {
+                int previous = toSort[i - 1];
+                int current = toSort[i];
+                assertTrue(keys[previous] < keys[current]
+                        || keys[previous] == keys[current] && previous < current);
+            }
+        }
+    }
+
+    @Test
+    public void testBlockMergeSortRangeShort() {
+        Integer[] toSort = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.blockMergeSortRange(toSort, 2, 6, true);
+        Integer[] expected = Arrays.copyOf(unsorted, unsorted.length);
+        Arrays.sort(expected, 2, 6, Comparator.reverseOrder());
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockMergeSortRangeOutOfBounds() {
+        SortingAlgorithms.blockMergeSortRange(new Integer[]{2, 1}, 0, 3, false);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockMergeSortNegativeBuffer() {
+        SortingAlgorithms.blockMergeSort(new Integer[]{2, 1}, Comparator.naturalOrder(), false,
+                -1);
+    }
+
+    /* ----------------------- BINARY INSERTION AND SHELL ------------------- */
+
+    @Test
+    public void testBinaryInsertionSortIsStableWithFewComparisons() {
+        Random generator = new Random(1025);
+        int[] keys = new int[500];
+        Integer[] toSort = new Integer[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = generator.nextInt(40);
+            toSort[i] = i;
+        }
+        long[] comparisons = new long[1];
+        SortingAlgorithms.binaryInsertionSort(toSort, (first, second) -> {
+            comparisons[0]++;
+            return Integer.compare(keys[first], keys[second]);
+        }, false);
+
+        for (int i = 1; i < toSort.length; i++) {
+            int previous = toSort[i - 1];
+            int current = toSort[i];
+            assertTrue(keys[previous] < keys[current]
+                    || keys[previous] == keys[current] && previous < current);
+        }
+        // At most ceil(log2(i + 1)) comparisons insert the i-th element
+        assertTrue(comparisons[0] <= 9L * toSort.length);
+    }
+
+    @Test
+    public void testShellSortReversed() {
+        Random generator = new Random(1025);
+        Integer[] toSort = new Integer[5000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt();
+        }
+        Integer[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, Collections.reverseOrder());
+
+        SortingAlgorithms.shellSort(toSort, true);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testShellAndBinaryInsertionSortRangesLeaveRestUntouched() {
+        Random generator = new Random(1025);
+        Integer[] toSort = new Integer[5000];
+        for (int i = 0; i < toSort.length; i++) {
+            toSort[i] = generator.nextInt();
+        }
+        int fromIndex = 1000;
+        int toIndex = 4321;
+        Integer[] expected = Arrays.copyOf(toSort, toSort.length);
+        Arrays.sort(expected, fromIndex, toIndex);
+
+        Integer[] shell = Arrays.copyOf(toSort, toSort.length);
+        SortingAlgorithms.shellSortRange(shell, fromIndex, toIndex, false);
+        assertArrayEquals(expected, shell);
+        SortingAlgorithms.binaryInsertionSortRange(toSort, fromIndex, toIndex,
+                Comparator.naturalOrder(), false);
+        assertArrayEquals(expected, toSort);
+    }
+
+    @Test
+    public void testBinaryInsertionSortRangeReversed() {
+        Integer[] toSort = Arrays.copyOf(unsorted, unsorted.length);
+        SortingAlgorithms.binaryInsertionSortRange(toSort, 1, 6, true);
+        assertArrayEquals(new Integer[]{5, 10, 9, 4, 2, 1, 0}, toSort);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testShellSortRangeBackwards() {
+        SortingAlgorithms.shellSortRange(unsorted, 4, 3, Comparator.naturalOrder(), false);
+    }
+}